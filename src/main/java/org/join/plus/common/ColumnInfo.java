@@ -1,8 +1,6 @@
 package org.join.plus.common;
 
 import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
-import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
-import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
 import com.baomidou.mybatisplus.core.toolkit.LambdaUtils;
 import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.core.toolkit.support.SerializedLambda;
@@ -49,29 +47,12 @@ public class ColumnInfo<CI extends Model<CI>> {
             throw new MybatisPlusException(String.format("所查询的字段[%s]所属的表实体[%s]尚未加入关联查询", fieldName, cla.getName()));
         }
 
-        String ca;
-        if (fieldName.equals(this.joinTableInfo.getTableInfo().getKeyProperty())) {
-            this.columnName = this.joinTableInfo.getTableInfo().getKeyColumn();
-            ca = this.joinTableInfo.getTableInfo().getKeyProperty();
-        } else {
-
-            TableFieldInfo tfi = this.joinTableInfo
-                    .getTableInfo()
-                    .getFieldList()
-                    .stream()
-                    .filter(f -> f.getProperty().equals(fieldName))
-                    .findFirst()
-                    .orElse(null);
-            if (tfi == null) {
-                throw new MybatisPlusException(String.format("所查询的属性[%s]对应的字段不存在", fieldName));
-            }
-
-            this.columnName = tfi.getColumn();
-            ca = tfi.getProperty();
+        this.columnName = this.joinTableInfo.getMeta().column(fieldName);
+        if (this.columnName == null) {
+            throw new MybatisPlusException(String.format("所查询的属性[%s]对应的字段不存在", fieldName));
         }
-
         if (StrUtil.isBlank(alias)) {
-            this.columnAlias = ca;
+            this.columnAlias = fieldName;
         } else {
             this.columnAlias = alias;
         }
@@ -92,10 +73,11 @@ public class ColumnInfo<CI extends Model<CI>> {
         this.func = func;
         SerializedLambda sl = LambdaUtils.resolve(func);
         Class<?> cla = sl.getInstantiatedType();
-        JoinTableInfo jti = new JoinTableInfo(TableInfoHelper.getTableInfo(cla));
+        EntityMeta meta = EntityMeta.of(cla);
         this.joinTableInfo = queryTables
                 .stream()
-                .filter(t -> t.equals(jti))
+                .filter(t -> meta.getDefaultAlias().equals(t.getAliasName())
+                        && meta.getTableName().equals(t.getTableInfo().getTableName()))
                 .findFirst()
                 .orElse(null);
         String fieldName = cn.hutool.core.util.StrUtil.getGeneralField(sl.getImplMethodName());
@@ -103,28 +85,45 @@ public class ColumnInfo<CI extends Model<CI>> {
             throw new MybatisPlusException(String.format("所查询的字段[%s]所属的表实体[%s]尚未加入关联查询", fieldName, cla.getName()));
         }
 
-        String ca;
-        if (this.joinTableInfo.getTableInfo().getKeyProperty().equals(fieldName)) {
-            this.columnName = this.joinTableInfo.getTableInfo().getKeyColumn();
-            ca = this.joinTableInfo.getTableInfo().getKeyProperty();
+        this.columnName = this.joinTableInfo.getMeta().column(fieldName);
+        if (this.columnName == null) {
+            throw new MybatisPlusException(String.format("所查询的属性[%s]对应的字段不存在", fieldName));
+        }
+        if (cn.hutool.core.util.StrUtil.isEmpty(alias)) {
+            this.columnAlias = fieldName;
         } else {
-            TableFieldInfo tfi = this.joinTableInfo
-                    .getTableInfo()
-                    .getFieldList()
-                    .stream()
-                    .filter(f -> f.getProperty().equals(fieldName))
-                    .findFirst()
-                    .orElse(null);
-            if (tfi == null) {
-                throw new MybatisPlusException(String.format("所查询的属性[%s]对应的字段不存在", fieldName));
-            }
-
-            this.columnName = tfi.getColumn();
-            ca = tfi.getProperty();
+            this.columnAlias = alias;
         }
+    }
 
-        if (cn.hutool.core.util.StrUtil.isEmpty(alias)) {
-            this.columnAlias = ca;
+    /**
+     * 通过构造器生成属性信息实例
+     *
+     * @param registry 已经加入查询的表的索引
+     * @param func     字段属性
+     * @param alias    字段别名
+     */
+    private ColumnInfo(TableRegistry registry, SFunction<CI, ?> func, String alias) {
+        if (registry == null || registry.isEmpty()) {
+            throw new MybatisPlusException("获取字段信息错误，没有表信息的缓存");
+        }
+
+        this.func = func;
+        SerializedLambda sl = LambdaUtils.resolve(func);
+        Class<?> cla = sl.getInstantiatedType();
+        String fieldName = StrUtil.getGeneralField(sl.getImplMethodName());
+        this.joinTableInfo = registry.byEntity(cla);
+        if (this.joinTableInfo == null) {
+            throw new MybatisPlusException(String.format("所查询的字段[%s]所属的表实体[%s]尚未加入关联查询", fieldName, cla.getName()));
+        }
+
+        this.columnName = this.joinTableInfo.getMeta().column(fieldName);
+        if (this.columnName == null) {
+            throw new MybatisPlusException(String.format("所查询的属性[%s]对应的字段不存在", fieldName));
+        }
+
+        if (StrUtil.isBlank(alias)) {
+            this.columnAlias = fieldName;
         } else {
             this.columnAlias = alias;
         }
@@ -209,4 +208,29 @@ public class ColumnInfo<CI extends Model<CI>> {
     public static <I extends Model<I>> ColumnInfo<I> init(List<JoinTableInfo> queryTables, SFunction<I, ?> func, String alias) {
         return new ColumnInfo<>(queryTables, func, alias);
     }
+
+    /**
+     * 初始化获取字段属性实例
+     *
+     * @param registry 已经加入查询的表的索引
+     * @param func     字段属性
+     * @param <I>      字段属性所属的实体类型
+     * @return 返回字段属性
+     */
+    public static <I extends Model<I>> ColumnInfo<I> init(TableRegistry registry, SFunction<I, ?> func) {
+        return init(registry, func, null);
+    }
+
+    /**
+     * 初始化获取字段属性实例
+     *
+     * @param registry 已经加入查询的表的索引
+     * @param func     字段属性
+     * @param alias    字段别名
+     * @param <I>      字段属性所属的实体类型
+     * @return 返回字段属性
+     */
+    public static <I extends Model<I>> ColumnInfo<I> init(TableRegistry registry, SFunction<I, ?> func, String alias) {
+        return new ColumnInfo<>(registry, func, alias);
+    }
 }
@@ -0,0 +1,194 @@
+package org.join.plus.common;
+
+import cn.hutool.core.util.ClassUtil;
+import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 实体的元数据索引，每个实体只构建一次，全局共享
+ * <p>
+ * 用于替代每次引用字段时对 {@code TableInfo.getFieldList()} 的遍历查找
+ *
+ * @author suyun
+ * @date 2026-10-17 11:05
+ */
+@Getter
+public final class EntityMeta {
+
+    private final static Map<Class<?>, EntityMeta> METAS = new ConcurrentHashMap<>(64);
+
+    /**
+     * 表信息
+     */
+    private final TableInfo tableInfo;
+
+    /**
+     * 实体默认的表别名，简单类名首字母小写
+     */
+    private final String defaultAlias;
+
+    /**
+     * 主键属性，没有主键为空
+     */
+    private final String keyProperty;
+
+    /**
+     * 主键字段，没有主键为空
+     */
+    private final String keyColumn;
+
+    /**
+     * 逻辑删除的字段信息，为空表示没有逻辑删除
+     */
+    private final TableFieldInfo logicDeleteField;
+
+    /**
+     * 属性对应的字段，包含主键，按照实体中字段的顺序排列
+     * key：属性名
+     * value：数据库字段名
+     */
+    private final Map<String, String> propertyColumns;
+
+    /**
+     * 属性对应的字段信息，不包含主键
+     */
+    private final Map<String, TableFieldInfo> propertyFields;
+
+    /**
+     * 不同表别名下查询全部字段的sql片段
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private final Map<String, String> selectFragments = new ConcurrentHashMap<>(4);
+
+    private EntityMeta(TableInfo tableInfo) {
+        this.tableInfo = tableInfo;
+        String claName = ClassUtil.getClassName(tableInfo.getEntityType(), true);
+        this.defaultAlias = cn.hutool.core.util.StrUtil.lowerFirst(claName);
+        this.keyProperty = tableInfo.getKeyProperty();
+        this.keyColumn = tableInfo.getKeyColumn();
+
+        Map<String, String> columns = new LinkedHashMap<>(tableInfo.getFieldList().size() + 1);
+        Map<String, TableFieldInfo> fields = new LinkedHashMap<>(tableInfo.getFieldList().size());
+        TableFieldInfo logicDelete = null;
+        for (TableFieldInfo field : tableInfo.getFieldList()) {
+            columns.put(field.getProperty(), field.getColumn());
+            fields.put(field.getProperty(), field);
+            if (logicDelete == null && field.isLogicDelete()) {
+                logicDelete = field;
+            }
+        }
+        if (StrUtil.isNotBlank(this.keyColumn)) {
+            columns.put(this.keyProperty, this.keyColumn);
+        }
+
+        this.logicDeleteField = tableInfo.isWithLogicDelete() ? logicDelete : null;
+        this.propertyColumns = Collections.unmodifiableMap(columns);
+        this.propertyFields = Collections.unmodifiableMap(fields);
+    }
+
+    /**
+     * 获取实体的元数据
+     *
+     * @param entityType 实体类型
+     * @return 返回实体的元数据
+     */
+    public static EntityMeta of(Class<?> entityType) {
+        EntityMeta meta = METAS.get(entityType);
+        if (meta != null) {
+            return meta;
+        }
+
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(entityType);
+        if (tableInfo == null) {
+            throw new MybatisPlusException(StrUtil.format("无法获取实体[{}]的表信息", entityType.getName()));
+        }
+        return METAS.computeIfAbsent(entityType, k -> new EntityMeta(tableInfo));
+    }
+
+    /**
+     * 获取实体的元数据
+     *
+     * @param tableInfo 表信息
+     * @return 返回实体的元数据
+     */
+    public static EntityMeta of(TableInfo tableInfo) {
+        EntityMeta meta = METAS.get(tableInfo.getEntityType());
+        if (meta != null && meta.tableInfo == tableInfo) {
+            return meta;
+        }
+
+        // 表信息被重新初始化过，以新的为准
+        meta = new EntityMeta(tableInfo);
+        METAS.put(tableInfo.getEntityType(), meta);
+        return meta;
+    }
+
+    /**
+     * 获取属性对应的数据库字段
+     *
+     * @param property 属性名
+     * @return 返回数据库字段，不存在则返回空
+     */
+    public String column(String property) {
+        return this.propertyColumns.get(property);
+    }
+
+    /**
+     * 获取属性对应的数据库字段，不存在则抛出异常
+     *
+     * @param property 属性名
+     * @return 返回数据库字段
+     */
+    public String requireColumn(String property) {
+        String column = this.propertyColumns.get(property);
+        if (column == null) {
+            throw new MybatisPlusException(StrUtil.format("在实体[{}]中未找到查询的字段[{}]",
+                    this.tableInfo.getEntityType().getName(), property));
+        }
+        return column;
+    }
+
+    /**
+     * 获取表名
+     *
+     * @return 返回表名
+     */
+    public String getTableName() {
+        return this.tableInfo.getTableName();
+    }
+
+    /**
+     * 获取指定表别名下查询全部字段的sql片段，不包含任何sql关键字
+     * "aliasName.column_name AS property,..."
+     *
+     * @param aliasName 表别名
+     * @return 返回sql片段
+     */
+    public String selectFragment(String aliasName) {
+        String fragment = this.selectFragments.get(aliasName);
+        if (fragment != null) {
+            return fragment;
+        }
+
+        StringBuilder sql = new StringBuilder(this.propertyColumns.size() * 32);
+        this.propertyColumns.forEach((property, column) -> sql.append(aliasName)
+                .append(StrUtil.DOT)
+                .append(column)
+                .append(StrUtil.SPACE)
+                .append(StrUtil.AS)
+                .append(StrUtil.SPACE)
+                .append(property)
+                .append(StrUtil.COMMA));
+        fragment = sql.length() == 0 ? StrUtil.EMPTY : sql.substring(0, sql.length() - 1);
+        this.selectFragments.putIfAbsent(aliasName, fragment);
+        return fragment;
+    }
+}
@@ -0,0 +1,198 @@
+package org.join.plus.common;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 一次表关联的结构信息，是 From 语句中的一条关联边
+ * <p>
+ * 记录关联方式、关联的表、关联条件，以及是否通过被关联表的主键进行关联；
+ * From 语句在生成时才由主表和全部的关联渲染出来，渲染之前可以由 {@link org.join.plus.optimize.JoinOptimizer} 调整关联
+ *
+ * @author suyun
+ * @date 2026-10-17 18:20
+ */
+@Getter
+public class JoinClause implements Serializable {
+    private final static long serialVersionUID = 1L;
+
+    /**
+     * 关联方式
+     */
+    private final JoinType joinType;
+
+    /**
+     * 被关联的表
+     */
+    private final JoinTableInfo table;
+
+    /**
+     * 关联条件，如 {@code dept.id = user.dept_id}，多个条件之间是 AND 的关系
+     */
+    private final List<String> conditions = new ArrayList<>(1);
+
+    /**
+     * 关联条件中使用的表别名，加入关联条件时按字段记录，不解析条件的文本
+     */
+    @Getter(AccessLevel.NONE)
+    private final Set<String> referencedAliases = new HashSet<>(4);
+
+    /**
+     * 关联条件是否是被关联表的主键与其它表字段相等，是则每行最多只会关联到一行
+     */
+    private boolean uniqueOn;
+
+    public JoinClause(JoinType joinType, JoinTableInfo table) {
+        this.joinType = joinType;
+        this.table = table;
+    }
+
+    /**
+     * 复制关联信息，关联到复制后的表
+     *
+     * @param table 复制后的表
+     * @return 返回副本
+     */
+    public JoinClause copy(JoinTableInfo table) {
+        JoinClause copy = new JoinClause(this.joinType, table);
+        copy.conditions.addAll(this.conditions);
+        copy.referencedAliases.addAll(this.referencedAliases);
+        copy.uniqueOn = this.uniqueOn;
+        return copy;
+    }
+
+    /**
+     * 将本次关联的结构追加到执行计划的指纹中，只记录引用，不拼接字符串
+     *
+     * @param key 执行计划的指纹的各个部分
+     */
+    public void appendPlanKey(List<Object> key) {
+        key.add(this.joinType);
+        key.add(this.table.getAliasName());
+        key.add(this.conditions.size());
+        key.addAll(this.conditions);
+    }
+
+    /**
+     * 加入关联条件
+     *
+     * @param joined    关联条件中被关联表一侧的字段
+     * @param other     关联条件中另一侧的字段
+     * @param condition 关联条件
+     */
+    public void on(ColumnInfo<?> joined, ColumnInfo<?> other, String condition) {
+        String keyColumn = this.table.getMeta().getKeyColumn();
+        this.uniqueOn = this.uniqueOn
+                || (joined.getJoinTableInfo() == this.table
+                && keyColumn != null
+                && keyColumn.equals(joined.getColumnName()));
+        this.referencedAliases.add(joined.getJoinTableInfo().getAliasName());
+        this.referencedAliases.add(other.getJoinTableInfo().getAliasName());
+        this.conditions.add(condition);
+    }
+
+    /**
+     * 获取全部的关联条件，只读
+     *
+     * @return 返回关联条件
+     */
+    public List<String> getConditions() {
+        return Collections.unmodifiableList(this.conditions);
+    }
+
+    /**
+     * 关联条件中是否使用了表别名
+     *
+     * @param alias 表别名
+     * @return true使用了
+     */
+    public boolean references(String alias) {
+        return this.referencedAliases.contains(alias);
+    }
+
+    /**
+     * 是否可以在不影响结果行数的情况下省略
+     * <p>
+     * 只有通过主键进行的 LEFT JOIN 才可以省略：主表的每一行最多关联到一行，且没有关联到时也会保留主表的行
+     *
+     * @return true可以省略
+     */
+    public boolean isRemovable() {
+        return this.joinType == JoinType.LEFT && this.uniqueOn;
+    }
+
+    /**
+     * 关联之前的每一行是否最多只会关联到一行
+     * <p>
+     * 通过被关联表的主键进行的 LEFT JOIN 或 INNER JOIN 不会增加行数；一对多的关联、RIGHT JOIN 和 WHERE 关联则可能增加行数
+     *
+     * @return true最多关联到一行
+     */
+    public boolean isSingleRow() {
+        return this.uniqueOn
+                && (this.joinType == JoinType.LEFT || this.joinType == JoinType.INNER || this.joinType == JoinType.JOIN);
+    }
+
+    /**
+     * 将本次关联渲染到 From 语句中
+     * <p>
+     * WHERE 关联生成 {@code ,table_name AS aliasName}，关联条件在 WHERE 中；
+     * 其它关联生成 {@code LEFT JOIN table_name AS aliasName ON ... AND ...}
+     *
+     * @param sql From 语句
+     */
+    public void render(StringBuilder sql) {
+        if (this.joinType == JoinType.WHERE) {
+            sql.append(StrUtil.COMMA);
+        } else {
+            sql.append(StrUtil.SPACE)
+                    .append(keyword(this.joinType))
+                    .append(StrUtil.SPACE);
+        }
+        sql.append(this.table.getTableInfo().getTableName())
+                .append(StrUtil.SPACE)
+                .append(StrUtil.AS)
+                .append(StrUtil.SPACE)
+                .append(this.table.getAliasName());
+        if (this.joinType == JoinType.WHERE) {
+            return;
+        }
+
+        for (int i = 0; i < this.conditions.size(); i++) {
+            sql.append(StrUtil.SPACE)
+                    .append(i == 0 ? StrUtil.ON : StrUtil.AND)
+                    .append(StrUtil.SPACE)
+                    .append(this.conditions.get(i));
+        }
+    }
+
+    /**
+     * 关联方式对应的关键字
+     *
+     * @param joinType 关联方式
+     * @return 返回关键字
+     */
+    private static String keyword(JoinType joinType) {
+        switch (joinType) {
+            case JOIN:
+                return StrUtil.JOIN;
+            case INNER:
+                return StrUtil.INNER_JOIN;
+            case CROSS:
+                return StrUtil.CROSS_JOIN;
+            case LEFT:
+                return StrUtil.LEFT_JOIN;
+            case RIGHT:
+                return StrUtil.RIGHT_JOIN;
+            default:
+                throw new UnsupportedOperationException("不支持的join操作：" + joinType);
+        }
+    }
+}
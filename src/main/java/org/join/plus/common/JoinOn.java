@@ -13,13 +13,17 @@ import org.join.plus.query.QueryJoin;
  */
 public class JoinOn<M extends Model<M>, J extends Model<J>> {
     private final JoinType joinType;
-    private final StringBuilder fromSql;
     private final QueryJoin<M> queryJoin;
 
-    public JoinOn(JoinType joinType, StringBuilder fromSql, QueryJoin<M> queryJoin) {
+    /**
+     * 本次关联的结构信息，关联条件记录在其中，生成 From 语句时再渲染
+     */
+    private final JoinClause joinClause;
+
+    public JoinOn(JoinType joinType, QueryJoin<M> queryJoin, JoinClause joinClause) {
         this.joinType = joinType;
-        this.fromSql = fromSql;
         this.queryJoin = queryJoin;
+        this.joinClause = joinClause;
     }
 
     /**
@@ -71,28 +75,24 @@ public class JoinOn<M extends Model<M>, J extends Model<J>> {
             return queryJoin;
         }
 
-        if (this.fromSql.length() == 0) {
-            throw new MybatisPlusException("Sql错误，From SQL为空");
+        if (this.joinClause == null) {
+            throw new MybatisPlusException("Sql错误，关联信息为空");
         }
 
         if (this.joinType == JoinType.WHERE) {
             return queryJoin.eqAs(left, leftAs, right, rightAs);
         }
 
-        ColumnInfo<P> ciRight = ColumnInfo.init(queryJoin.getQueryTables(), left, leftAs);
-        ColumnInfo<J> ciLeft = ColumnInfo.init(queryJoin.getQueryTables(), right, rightAs);
-
-        /// " ON leftTableAlias.column_name = rightTableAlias.column_name"
-        this.fromSql
-                .append(StrUtil.SPACE)
-                .append(StrUtil.ON)
-                .append(StrUtil.SPACE)
-                .append(ciLeft.cndColumnStr())
-                .append(StrUtil.SPACE)
-                .append(StrUtil.EQ)
-                .append(StrUtil.SPACE)
-                .append(ciRight.cndColumnStr());
+        TableRegistry tables = queryJoin.getTableRegistry();
+        ColumnInfo<P> ciRight = ColumnInfo.init(tables, left, leftAs);
+        ColumnInfo<J> ciLeft = ColumnInfo.init(tables, right, rightAs);
 
+        /// "leftTableAlias.column_name = rightTableAlias.column_name"
+        tables.on(this.joinClause, ciLeft, ciRight, ciLeft.cndColumnStr()
+                .concat(StrUtil.SPACE)
+                .concat(StrUtil.EQ)
+                .concat(StrUtil.SPACE)
+                .concat(ciRight.cndColumnStr()));
         return queryJoin;
     }
 }
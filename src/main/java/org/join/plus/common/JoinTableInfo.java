@@ -1,6 +1,5 @@
 package org.join.plus.common;
 
-import cn.hutool.core.util.ClassUtil;
 import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
 import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
 import com.baomidou.mybatisplus.core.metadata.TableInfo;
@@ -15,7 +14,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.io.Serializable;
-import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -56,6 +55,16 @@ public class JoinTableInfo implements Serializable {
      */
     private SelectType selectType;
 
+    /**
+     * 实体的元数据索引
+     */
+    private transient EntityMeta meta;
+
+    /**
+     * 是否是未经改动的全部字段查询，是则可以直接使用元数据中预先生成的sql片段
+     */
+    private boolean pristineAll;
+
     public JoinTableInfo(TableInfo tableInfo) {
         this(tableInfo, false, SelectType.NONE);
     }
@@ -72,10 +81,10 @@ public class JoinTableInfo implements Serializable {
         Assert.notNull(tableInfo, "表信息缺失");
         this.tableInfo = tableInfo;
         this.isMaster = isMaster;
+        this.meta = EntityMeta.of(tableInfo);
 
         if (StrUtil.isBlank(entityName)) {
-            String claName = ClassUtil.getClassName(tableInfo.getEntityType(), true);
-            this.entityName = cn.hutool.core.util.StrUtil.lowerFirst(claName);
+            this.entityName = this.meta.getDefaultAlias();
         } else {
             this.entityName = entityName;
         }
@@ -102,17 +111,39 @@ public class JoinTableInfo implements Serializable {
         }
     }
 
+    /**
+     * 复制表信息，查询的字段单独保存，修改副本不会影响原来的表信息
+     *
+     * @param source 原来的表信息
+     */
+    private JoinTableInfo(JoinTableInfo source) {
+        this.tableInfo = source.tableInfo;
+        this.isMaster = source.isMaster;
+        this.entityName = source.entityName;
+        this.aliasName = source.aliasName;
+        this.selectedColumns.putAll(source.selectedColumns);
+        this.selectType = source.selectType;
+        this.meta = source.meta;
+        this.pristineAll = source.pristineAll;
+    }
+
+    /**
+     * 复制表信息
+     *
+     * @return 返回副本
+     */
+    public JoinTableInfo copy() {
+        return new JoinTableInfo(this);
+    }
+
     /**
      * 查询全部字段
      */
     public void selectAll() {
         this.selectType = SelectType.ALL;
-        this.tableInfo.getFieldList()
-                .forEach(this::selectColumn);
-        String keyColumn = this.tableInfo.getKeyColumn();
-        if (StrUtil.isNotBlank(keyColumn)) {
-            this.selectColumn(this.tableInfo.getKeyColumn(), this.tableInfo.getKeyProperty());
-        }
+        this.getMeta().getPropertyColumns()
+                .forEach((property, column) -> this.selectedColumns.put(property, this.aliasName.concat(StrUtil.DOT).concat(column)));
+        this.pristineAll = true;
     }
 
     /**
@@ -121,6 +152,7 @@ public class JoinTableInfo implements Serializable {
     public void selectNone() {
         this.selectType = SelectType.NONE;
         this.selectedColumns.clear();
+        this.pristineAll = false;
     }
 
     /**
@@ -139,26 +171,12 @@ public class JoinTableInfo implements Serializable {
             return;
         }
 
-        Arrays.stream(cols)
-                .forEach(c -> {
-                    SerializedLambda sl = LambdaUtils.resolve(c);
-                    String fieldName = StrUtil.getGeneralField(sl.getImplMethodName());
-                    if (fieldName.equals(this.tableInfo.getKeyProperty())) {
-                        this.selectColumn(this.tableInfo.getKeyColumn(), this.tableInfo.getKeyProperty());
-                        return;
-                    }
-                    TableFieldInfo tableFieldInfo = this.tableInfo.getFieldList()
-                            .stream()
-                            .filter(f -> f.getProperty().equals(fieldName))
-                            .findFirst()
-                            .orElse(null);
-                    if (tableFieldInfo == null) {
-                        throw new MybatisPlusException(StrUtil.format("在实体[{}]中未找到查询的字段[{}]",
-                                tableInfo.getEntityType().getName(), fieldName));
-                    }
-
-                    this.selectColumn(tableFieldInfo);
-                });
+        EntityMeta entityMeta = this.getMeta();
+        for (SFunction<C, ?> c : cols) {
+            SerializedLambda sl = LambdaUtils.resolve(c);
+            String fieldName = StrUtil.getGeneralField(sl.getImplMethodName());
+            this.selectColumn(entityMeta.requireColumn(fieldName), fieldName);
+        }
     }
 
     /**
@@ -193,7 +211,17 @@ public class JoinTableInfo implements Serializable {
      * @param aliasName 指定查询的字段别名
      */
     public void selectColumn(String column, String aliasName) {
-        this.selectedColumns.put(aliasName, this.aliasName.concat(tableInfo.DOT).concat(column));
+        this.selectedColumns.put(aliasName, this.aliasName.concat(StrUtil.DOT).concat(column));
+        this.pristineAll = false;
+    }
+
+    /**
+     * 是否查询了本表的字段
+     *
+     * @return true查询了
+     */
+    public boolean isSelected() {
+        return !this.selectedColumns.isEmpty();
     }
 
     /**
@@ -206,6 +234,10 @@ public class JoinTableInfo implements Serializable {
             return StrUtil.EMPTY;
         }
 
+        if (this.selectType == SelectType.ALL && this.pristineAll) {
+            return this.getMeta().selectFragment(this.aliasName);
+        }
+
         StringBuilder sql = new StringBuilder();
         this.selectedColumns.forEach((k, v) -> sql.append(v)
                 .append(StrUtil.SPACE)
@@ -217,21 +249,47 @@ public class JoinTableInfo implements Serializable {
         return sql.substring(0, sql.length() - 1);
     }
 
+    /**
+     * 将本表的结构追加到执行计划的指纹中，只与结构有关，不包含任何条件值
+     * <p>
+     * 未经改动的全部字段查询由实体决定，不需要记录字段；其它情况需要记录每一个字段，只记录引用，不拼接字符串
+     *
+     * @param key 执行计划的指纹的各个部分
+     */
+    public void appendPlanKey(List<Object> key) {
+        key.add(this.tableInfo.getEntityType());
+        key.add(this.aliasName);
+        key.add(this.selectType);
+        if (this.selectType == SelectType.ALL && this.pristineAll) {
+            return;
+        }
+
+        key.add(this.selectedColumns.size());
+        this.selectedColumns.forEach((k, v) -> {
+            key.add(k);
+            key.add(v);
+        });
+    }
+
     /**
      * 获取逻辑删除的字段信息
      *
      * @return 返回，为空表示没有逻辑删除
      */
     public TableFieldInfo getLogicDeleteField() {
-        if (!this.getTableInfo().isWithLogicDelete()) {
-            return null;
-        }
+        return this.getMeta().getLogicDeleteField();
+    }
 
-        return this.getTableInfo().getFieldList()
-                .stream()
-                .filter(TableFieldInfo::isLogicDelete)
-                .findFirst()
-                .orElse(null);
+    /**
+     * 获取实体的元数据索引
+     *
+     * @return 返回实体的元数据
+     */
+    public EntityMeta getMeta() {
+        if (this.meta == null) {
+            this.meta = EntityMeta.of(this.tableInfo);
+        }
+        return this.meta;
     }
 
     @Override
@@ -239,12 +297,15 @@ public class JoinTableInfo implements Serializable {
         if (o == null) return false;
         if (this == o) return true;
         if (o instanceof TableInfo) {
+            // 与实体默认的表别名比较，即该实体第一次加入关联查询的表
             TableInfo tableInfo = (TableInfo) o;
-            return this.equals(new JoinTableInfo(tableInfo, SelectType.NONE));
+            return Objects.equals(this.tableInfo.getTableName(), tableInfo.getTableName())
+                    && Objects.equals(this.aliasName, EntityMeta.of(tableInfo).getDefaultAlias());
         }
         if (o instanceof JoinTableInfo) {
             JoinTableInfo tableInfo = (JoinTableInfo) o;
-            return this.hashCode() == tableInfo.hashCode();
+            return Objects.equals(this.aliasName, tableInfo.aliasName)
+                    && Objects.equals(this.tableInfo.getTableName(), tableInfo.tableInfo.getTableName());
         }
 
         return false;
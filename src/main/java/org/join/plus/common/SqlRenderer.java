@@ -0,0 +1,171 @@
+package org.join.plus.common;
+
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * 将语句中的条件占位符替换为字面量，生成可以直接阅读或执行的完整语句
+ * <p>
+ * 只扫描一次语句，遇到 {@code #{ew.paramNameValuePairs.X}} 时按参数名取值并写入缓冲区，
+ * 替换的次数与参数的数量无关，也不会为每个参数生成一次新的字符串；缓冲区按线程复用，过大时不再保留
+ *
+ * @author suyun
+ * @date 2026-10-17 21:30
+ */
+public final class SqlRenderer {
+
+    /**
+     * 参数占位符的前缀
+     */
+    private final static String PREFIX = "#{".concat(Constants.WRAPPER).concat(".paramNameValuePairs.");
+
+    /**
+     * 保留的缓冲区的最大容量，超出后不再复用
+     */
+    private final static int MAX_CACHED_CAPACITY = 64 * 1024;
+
+    /**
+     * 与空值比较的标记，{@code = NULL} 的写法是合法的语句，但条件永远不成立
+     */
+    private final static String NULL_COMPARISON = "NULL /* 与空值比较永远不成立，应使用 IS NULL */";
+
+    private final static ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private SqlRenderer() {
+    }
+
+    /**
+     * 将语句中的参数占位符替换为字面量
+     * <p>
+     * 字符串、枚举和日期时间加上单引号，字符串中的单引号按标准SQL写为两个单引号（反斜杠不转义）；
+     * 集合展开为 {@code (a, b)}；空值替换为 {@code NULL}，跟在比较运算符之后时附加注释标记，
+     * 执行时绑定空值的比较同样不成立，用 {@code eq} 等条件判断空值通常是错误的；没有对应参数的占位符原样保留
+     *
+     * @param sql    语句
+     * @param params 参数，key是参数名，如 {@code MPGENVAL1}
+     * @return 返回替换后的语句
+     */
+    public static String render(String sql, Map<String, Object> params) {
+        if (sql == null || params == null || params.isEmpty() || !sql.contains(PREFIX)) {
+            return sql;
+        }
+
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        try {
+            int length = sql.length();
+            int from = 0;
+            int start;
+            while ((start = sql.indexOf(PREFIX, from)) >= 0) {
+                int nameStart = start + PREFIX.length();
+                int end = sql.indexOf('}', nameStart);
+                if (end < 0) {
+                    break;
+                }
+
+                // 占位符中可能带有 javaType、jdbcType 等属性
+                int nameEnd = nameStart;
+                while (nameEnd < end && sql.charAt(nameEnd) != ',') {
+                    nameEnd++;
+                }
+                String name = sql.substring(nameStart, nameEnd).trim();
+                buffer.append(sql, from, start);
+                if (params.containsKey(name)) {
+                    Object value = params.get(name);
+                    if (value == null && comparison(buffer)) {
+                        buffer.append(NULL_COMPARISON);
+                    } else {
+                        literal(buffer, value);
+                    }
+                } else {
+                    buffer.append(sql, start, end + 1);
+                }
+                from = end + 1;
+            }
+            return buffer.append(sql, from, length).toString();
+        } finally {
+            if (buffer.capacity() > MAX_CACHED_CAPACITY) {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    /**
+     * 写入值的字面量
+     *
+     * @param buffer 缓冲区
+     * @param value  值
+     */
+    private static void literal(StringBuilder buffer, Object value) {
+        if (value == null) {
+            buffer.append("NULL");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            buffer.append(value);
+        } else if (value instanceof Collection) {
+            buffer.append('(');
+            boolean first = true;
+            for (Object item : (Collection<?>) value) {
+                if (!first) {
+                    buffer.append(", ");
+                }
+                literal(buffer, item);
+                first = false;
+            }
+            buffer.append(')');
+        } else if (value instanceof Date && !(value instanceof java.sql.Date) && !(value instanceof java.sql.Time)) {
+            // java.util.Date 的 toString 不是数据库可以识别的格式
+            quote(buffer, new Timestamp(((Date) value).getTime()).toString());
+        } else if (value instanceof LocalDateTime) {
+            quote(buffer, Timestamp.valueOf((LocalDateTime) value).toString());
+        } else if (value instanceof TemporalAccessor) {
+            quote(buffer, value.toString());
+        } else {
+            quote(buffer, value instanceof Enum ? ((Enum<?>) value).name() : value.toString());
+        }
+    }
+
+    /**
+     * 写入带单引号的字符串，字符串中的单引号写为两个单引号
+     *
+     * @param buffer 缓冲区
+     * @param text   字符串
+     */
+    private static void quote(StringBuilder buffer, String text) {
+        buffer.append('\'');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\'') {
+                buffer.append('\'');
+            }
+            buffer.append(c);
+        }
+        buffer.append('\'');
+    }
+
+    /**
+     * 占位符之前是否是比较运算符，如 {@code =}、{@code <>}、{@code >=}；MySQL 的 {@code <=>} 可以比较空值，不是
+     *
+     * @param buffer 已经写入的语句
+     * @return true是
+     */
+    private static boolean comparison(StringBuilder buffer) {
+        int i = buffer.length() - 1;
+        while (i >= 0 && Character.isWhitespace(buffer.charAt(i))) {
+            i--;
+        }
+        if (i < 0) {
+            return false;
+        }
+        char c = buffer.charAt(i);
+        if (c == '>' && i >= 2 && buffer.charAt(i - 1) == '=' && buffer.charAt(i - 2) == '<') {
+            return false;
+        }
+        return c == '=' || c == '<' || c == '>';
+    }
+}
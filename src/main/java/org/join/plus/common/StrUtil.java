@@ -51,4 +51,52 @@ public final class StrUtil extends cn.hutool.core.util.StrUtil implements Consta
 
         return s;
     }
+
+    /**
+     * 判断语句中是否使用了字段，按完整的标识符匹配，忽略大小写和标识符的引号
+     * <p>
+     * 如 {@code tbUser.user_id} 在 {@code `tbUser`.`USER_ID` = 1} 中使用了，在 {@code tbUser.user_id2 = 1}、
+     * {@code xtbUser.user_id = 1} 中没有使用
+     *
+     * @param sql    语句
+     * @param column 带表别名的字段，不带引号
+     * @return true使用了
+     */
+    public static boolean containsColumn(CharSequence sql, String column) {
+        if (isEmpty(sql) || isEmpty(column)) {
+            return false;
+        }
+
+        String text = unquote(sql);
+        int length = column.length();
+        for (int i = 0; i + length <= text.length(); i++) {
+            if (text.regionMatches(true, i, column, 0, length)
+                    && (i == 0 || !isIdentifierPart(text.charAt(i - 1)))
+                    && (i + length == text.length() || !isIdentifierPart(text.charAt(i + length)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 去掉标识符的引号：`、"、[、]
+     */
+    private static String unquote(CharSequence sql) {
+        StringBuilder text = new StringBuilder(sql.length());
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c != '`' && c != '"' && c != '[' && c != ']') {
+                text.append(c);
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * 是否是标识符的一部分，表别名前面的 {@code .} 同样算作标识符的一部分，如 {@code db.tbUser.user_id}
+     */
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '.';
+    }
 }
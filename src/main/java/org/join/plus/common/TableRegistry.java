@@ -0,0 +1,209 @@
+package org.join.plus.common;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 已经加入关联查询的表，按加入顺序保存，同时按表别名和实体类型建立索引
+ * <p>
+ * 同一个实体多次关联时，只有第一次关联的表可以通过实体类型查找到，后续的表别名自动追加数字后缀（user、user1、user11）；
+ * 主表和全部的关联（{@link JoinClause}）组成 From 语句的结构，见 {@link TableRegistry#render(StringBuilder, List)}
+ *
+ * @author suyun
+ * @date 2026-10-17 13:40
+ */
+public class TableRegistry implements Serializable {
+    private final static long serialVersionUID = 1L;
+
+    /**
+     * 按加入顺序保存的表
+     */
+    private final List<JoinTableInfo> tables = new ArrayList<>();
+
+    /**
+     * 只读的表列表，对外暴露
+     */
+    private final List<JoinTableInfo> readOnlyTables = Collections.unmodifiableList(this.tables);
+
+    /**
+     * key：表别名
+     * value：表信息
+     */
+    private final Map<String, JoinTableInfo> aliasTables = new HashMap<>(8);
+
+    /**
+     * key：实体类型
+     * value：该实体第一次加入关联查询的表信息
+     */
+    private final Map<Class<?>, JoinTableInfo> entityTables = new HashMap<>(8);
+
+    /**
+     * 表的关联信息，按关联顺序保存，不包含主表
+     */
+    private final List<JoinClause> joins = new ArrayList<>();
+
+    /**
+     * 只读的关联信息列表，对外暴露
+     */
+    private final List<JoinClause> readOnlyJoins = Collections.unmodifiableList(this.joins);
+
+    /**
+     * 结构的版本，加入表、关联和关联条件时递增，用于判断生成的 From 语句是否需要重新生成
+     */
+    private int version;
+
+    /**
+     * 加入表，如果表别名已经存在，则追加数字1后缀直到不重复，如 user、user1、user11
+     *
+     * @param table 表信息
+     */
+    public void add(JoinTableInfo table) {
+        String aliasName = table.getAliasName();
+        if (this.aliasTables.containsKey(aliasName)) {
+            do {
+                aliasName = aliasName.concat("1");
+            } while (this.aliasTables.containsKey(aliasName));
+            table.setAliasName(aliasName);
+        }
+
+        this.tables.add(table);
+        this.aliasTables.put(table.getAliasName(), table);
+        this.entityTables.putIfAbsent(table.getTableInfo().getEntityType(), table);
+        this.version++;
+    }
+
+    /**
+     * 根据表别名获取表信息
+     *
+     * @param aliasName 表别名
+     * @return 返回表信息，不存在则返回空
+     */
+    public JoinTableInfo byAlias(String aliasName) {
+        return this.aliasTables.get(aliasName);
+    }
+
+    /**
+     * 根据实体类型获取第一次加入关联查询的表信息
+     *
+     * @param entityType 实体类型
+     * @return 返回表信息，不存在则返回空
+     */
+    public JoinTableInfo byEntity(Class<?> entityType) {
+        return this.entityTables.get(entityType);
+    }
+
+    /**
+     * 获取全部的表，按加入顺序排列，只读
+     *
+     * @return 返回全部的表
+     */
+    public List<JoinTableInfo> list() {
+        return this.readOnlyTables;
+    }
+
+    /**
+     * 记录表的关联信息
+     *
+     * @param join 关联信息
+     */
+    public void join(JoinClause join) {
+        this.joins.add(join);
+        this.version++;
+    }
+
+    /**
+     * 为关联加入关联条件
+     *
+     * @param join      关联信息
+     * @param joined    关联条件中被关联表一侧的字段
+     * @param other     关联条件中另一侧的字段
+     * @param condition 关联条件
+     */
+    public void on(JoinClause join, ColumnInfo<?> joined, ColumnInfo<?> other, String condition) {
+        join.on(joined, other, condition);
+        this.version++;
+    }
+
+    /**
+     * 结构的版本，结构变化后版本不同
+     *
+     * @return 返回版本
+     */
+    public int version() {
+        return this.version;
+    }
+
+    /**
+     * 按主表和指定的关联生成 From 语句
+     * <p>
+     * 只有通过实体类型创建的主表才会生成在语句的开头，关联按顺序依次生成
+     *
+     * @param sql   From 语句的缓冲区
+     * @param joins 需要生成的关联，可以是优化后的关联
+     */
+    public void render(StringBuilder sql, List<JoinClause> joins) {
+        if (!this.tables.isEmpty() && this.tables.get(0).isMaster()) {
+            JoinTableInfo master = this.tables.get(0);
+            /// "master_table AS tableAlias"
+            sql.append(master.getTableInfo().getTableName())
+                    .append(StrUtil.SPACE)
+                    .append(StrUtil.AS)
+                    .append(StrUtil.SPACE)
+                    .append(master.getAliasName());
+        }
+        joins.forEach(join -> join.render(sql));
+    }
+
+    /**
+     * 获取全部的关联信息，按关联顺序排列，只读
+     *
+     * @return 返回全部的关联信息
+     */
+    public List<JoinClause> joins() {
+        return this.readOnlyJoins;
+    }
+
+    /**
+     * 复制全部的表和关联信息，每个表也会复制，修改副本不会影响原来的表
+     *
+     * @return 返回副本
+     */
+    public TableRegistry copy() {
+        TableRegistry copy = new TableRegistry();
+        Map<JoinTableInfo, JoinTableInfo> copies = new IdentityHashMap<>(this.tables.size());
+        for (JoinTableInfo table : this.tables) {
+            JoinTableInfo tableCopy = table.copy();
+            copies.put(table, tableCopy);
+            copy.tables.add(tableCopy);
+            copy.aliasTables.put(tableCopy.getAliasName(), tableCopy);
+        }
+        this.entityTables.forEach((entityType, table) -> copy.entityTables.put(entityType, copies.get(table)));
+        this.joins.forEach(join -> copy.joins.add(join.copy(copies.get(join.getTable()))));
+        copy.version = this.version;
+        return copy;
+    }
+
+    public boolean isEmpty() {
+        return this.tables.isEmpty();
+    }
+
+    public int size() {
+        return this.tables.size();
+    }
+
+    /**
+     * 清空全部的表
+     */
+    public void clear() {
+        this.tables.clear();
+        this.aliasTables.clear();
+        this.entityTables.clear();
+        this.joins.clear();
+        this.version++;
+    }
+}
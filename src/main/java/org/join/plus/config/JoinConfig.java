@@ -2,10 +2,23 @@ package org.join.plus.config;
 
 import com.baomidou.mybatisplus.core.toolkit.StringPool;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import org.join.plus.dialect.Dialect;
+import org.join.plus.dialect.H2Dialect;
+import org.join.plus.dialect.MySqlDialect;
+import org.join.plus.dialect.PostgreSqlDialect;
+import org.join.plus.estimate.CountEstimator;
+import org.join.plus.estimate.H2CountEstimator;
+import org.join.plus.estimate.MySqlCountEstimator;
+import org.join.plus.estimate.PostgreSqlCountEstimator;
 import org.join.plus.mapper.JoinMapper;
+import org.join.plus.optimize.JoinOptimizer;
+import org.join.plus.optimize.UnusedJoinEliminator;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * @author suyun
@@ -69,6 +82,60 @@ public interface JoinConfig extends StringPool {
         return false;
     }
 
+    /**
+     * 数据库方言，用于生成限制数量、判断是否存在、窗口函数统计、优化器提示等语句
+     * <p>
+     * 可以使用 {@link MySqlDialect#MYSQL_8}、{@link org.join.plus.dialect.PostgreSqlDialect#INSTANCE}、
+     * {@link org.join.plus.dialect.H2Dialect#INSTANCE}
+     *
+     * @return 返回方言，默认是不支持窗口函数的 {@link MySqlDialect#MYSQL_5}
+     */
+    default Dialect dialect() {
+        return MySqlDialect.MYSQL_5;
+    }
+
+    /**
+     * 分页时统计总数使用的线程池，配置后统计总数和查询数据同时执行
+     * <p>
+     * 统计在另一个线程中执行，不会加入当前线程的事务；可以使用 {@link JoinExecutors#pageExecutor()}，JDK支持时使用虚拟线程
+     *
+     * @return 返回线程池，默认为空，即先统计再查询
+     */
+    default Executor pageExecutor() {
+        return null;
+    }
+
+    /**
+     * 估算行数使用的估算器，用于 {@code QueryJoin.approximateCount()}
+     * <p>
+     * 可以使用 {@link MySqlCountEstimator}、{@link PostgreSqlCountEstimator}、{@link H2CountEstimator}
+     *
+     * @return 返回估算器，默认按内置的方言选择对应的估算器，其它方言为空，为空则始终精确统计
+     */
+    default CountEstimator countEstimator() {
+        Dialect dialect = dialect();
+        if (dialect instanceof MySqlDialect) {
+            return MySqlCountEstimator.INSTANCE;
+        }
+        if (dialect instanceof PostgreSqlDialect) {
+            return PostgreSqlCountEstimator.INSTANCE;
+        }
+        if (dialect instanceof H2Dialect) {
+            return H2CountEstimator.INSTANCE;
+        }
+        return null;
+    }
+
+    /**
+     * 生成 From 语句之前依次执行的优化器，可以追加自定义的优化器，如按数据库调整关联的写法
+     *
+     * @return 返回优化器，默认只有省略无用关联的 {@link UnusedJoinEliminator#INSTANCE}，只在统计数量和查询主键时省略，
+     * 查询数据时也省略可以使用 {@link UnusedJoinEliminator#WITH_DATA}；为空则不优化
+     */
+    default List<JoinOptimizer> joinOptimizers() {
+        return Collections.singletonList(UnusedJoinEliminator.INSTANCE);
+    }
+
     /**
      * 默认实现一个配置
      */
@@ -0,0 +1,48 @@
+package org.join.plus.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 关联查询使用的线程池
+ *
+ * @author suyun
+ * @date 2026-10-17 19:30
+ */
+public final class JoinExecutors {
+
+    private JoinExecutors() {
+    }
+
+    /**
+     * 获取分页时统计总数使用的线程池，全局共用一个
+     * <p>
+     * JDK支持虚拟线程（JDK 21及以上）时，每个任务使用一个虚拟线程；否则使用按需创建的守护线程
+     *
+     * @return 返回线程池
+     */
+    public static Executor pageExecutor() {
+        return Holder.PAGE_EXECUTOR;
+    }
+
+    private static class Holder {
+        private final static Executor PAGE_EXECUTOR = create();
+
+        private static Executor create() {
+            try {
+                Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) method.invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                AtomicInteger seq = new AtomicInteger();
+                return Executors.newCachedThreadPool(r -> {
+                    Thread thread = new Thread(r, "join-page-" + seq.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.join.plus.dialect;
+
+import org.join.plus.common.StrUtil;
+
+/**
+ * 数据库方言，生成不同数据库中写法不同的语句片段
+ * <p>
+ * 内置 {@link MySqlDialect}、{@link PostgreSqlDialect}、{@link H2Dialect}，其它数据库（如 Oracle）可以自行实现，
+ * 通过 {@link org.join.plus.config.JoinConfig#dialect()} 配置
+ *
+ * @author suyun
+ * @date 2026-10-17 20:40
+ */
+public interface Dialect {
+
+    /**
+     * 生成限制查询数量的语句片段，追加在语句的末尾
+     *
+     * @param limit  最多查询的数量
+     * @param offset 跳过的数量，为0时只取前 {@code limit} 行
+     * @return 返回语句片段，如 {@code LIMIT 10 OFFSET 20}
+     */
+    String limit(long limit, long offset);
+
+    /**
+     * 生成判断查询结果是否存在的语句，查询结果只有一行一列，可以读取为布尔值
+     *
+     * @param querySql 需要判断的查询语句
+     * @return 返回判断是否存在的语句
+     */
+    default String exists(String querySql) {
+        return StrUtil.SELECT.concat(" EXISTS(").concat(querySql).concat(")");
+    }
+
+    /**
+     * 是否支持窗口函数，如 {@code COUNT(*) OVER()}
+     *
+     * @return true 支持
+     */
+    default boolean supportWindowFunction() {
+        return true;
+    }
+
+    /**
+     * 生成与数据一起查询总数的窗口函数字段
+     *
+     * @param alias 字段的别名
+     * @return 返回查询字段
+     */
+    default String windowTotal(String alias) {
+        return "COUNT(*) OVER() ".concat(StrUtil.AS).concat(StrUtil.SPACE).concat(alias);
+    }
+
+    /**
+     * 生成优化器提示，放在 {@code SELECT} 关键字之后
+     *
+     * @param hint 提示的内容，如 {@code NO_INDEX_MERGE(user)}
+     * @return 返回提示的注释，数据库不支持提示时返回空字符串
+     */
+    default String hint(String hint) {
+        return StrUtil.EMPTY;
+    }
+}
@@ -0,0 +1,18 @@
+package org.join.plus.dialect;
+
+/**
+ * H2 方言，使用标准的 {@code OFFSET ... ROWS FETCH ...} 语法，H2 1.4 和 2.x 都支持
+ *
+ * @author suyun
+ * @date 2026-10-17 20:40
+ */
+public class H2Dialect implements Dialect {
+
+    public final static H2Dialect INSTANCE = new H2Dialect();
+
+    @Override
+    public String limit(long limit, long offset) {
+        String fetch = "FETCH FIRST " + limit + " ROWS ONLY";
+        return offset > 0 ? "OFFSET " + offset + " ROWS " + fetch : fetch;
+    }
+}
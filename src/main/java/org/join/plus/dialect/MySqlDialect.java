@@ -0,0 +1,43 @@
+package org.join.plus.dialect;
+
+/**
+ * MySQL 方言
+ * <p>
+ * MySQL 8.0 开始支持窗口函数，5.7 及以下使用 {@link MySqlDialect#MYSQL_5}
+ *
+ * @author suyun
+ * @date 2026-10-17 20:40
+ */
+public class MySqlDialect implements Dialect {
+
+    /**
+     * MySQL 5.7 及以下，不支持窗口函数
+     */
+    public final static MySqlDialect MYSQL_5 = new MySqlDialect(false);
+
+    /**
+     * MySQL 8.0 及以上
+     */
+    public final static MySqlDialect MYSQL_8 = new MySqlDialect(true);
+
+    private final boolean windowFunction;
+
+    public MySqlDialect(boolean windowFunction) {
+        this.windowFunction = windowFunction;
+    }
+
+    @Override
+    public String limit(long limit, long offset) {
+        return offset > 0 ? "LIMIT " + limit + " OFFSET " + offset : "LIMIT " + limit;
+    }
+
+    @Override
+    public boolean supportWindowFunction() {
+        return this.windowFunction;
+    }
+
+    @Override
+    public String hint(String hint) {
+        return "/*+ ".concat(hint).concat(" */");
+    }
+}
@@ -0,0 +1,19 @@
+package org.join.plus.dialect;
+
+/**
+ * PostgreSQL 方言
+ * <p>
+ * PostgreSQL 本身没有优化器提示，提示不会生成到语句中
+ *
+ * @author suyun
+ * @date 2026-10-17 20:40
+ */
+public class PostgreSqlDialect implements Dialect {
+
+    public final static PostgreSqlDialect INSTANCE = new PostgreSqlDialect();
+
+    @Override
+    public String limit(long limit, long offset) {
+        return offset > 0 ? "LIMIT " + limit + " OFFSET " + offset : "LIMIT " + limit;
+    }
+}
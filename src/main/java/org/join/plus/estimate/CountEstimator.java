@@ -0,0 +1,78 @@
+package org.join.plus.estimate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 估算查询结果的行数，用于数据量很大、只需要大致总数的场景
+ * <p>
+ * 不同的数据库获取估算值的方式不同：MySQL、PostgreSQL 读取 EXPLAIN 中优化器估算的行数，H2 读取表的统计信息；
+ * 估算值可能与实际的行数相差较大，只适合显示"大约多少条"
+ *
+ * @author suyun
+ * @date 2026-10-17 20:10
+ * @see org.join.plus.config.JoinConfig#countEstimator()
+ */
+public interface CountEstimator {
+
+    /**
+     * 生成估算行数的语句
+     *
+     * @param querySql 需要估算行数的查询语句，如 {@code SELECT 1 FROM ... WHERE ...}，条件值是MyBatis的占位符
+     * @param table    主表的表名
+     * @param binder   绑定一个参数值，返回对应的MyBatis占位符
+     * @return 返回估算行数的语句
+     */
+    String estimateSql(String querySql, String table, Function<Object, String> binder);
+
+    /**
+     * 从估算语句的查询结果中读取估算的行数
+     *
+     * @param rows 估算语句的查询结果
+     * @return 返回估算的行数，无法估算时返回小于0的数
+     */
+    long estimate(List<Map<String, Object>> rows);
+
+    /**
+     * 读取一行结果中的字段值，忽略字段名的大小写
+     *
+     * @param row    一行结果
+     * @param column 字段名
+     * @return 返回字段值，没有该字段返回空
+     */
+    static Object valueOf(Map<String, Object> row, String column) {
+        Object value = row.get(column);
+        if (value != null) {
+            return value;
+        }
+
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            if (column.equalsIgnoreCase(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 将字段值转换为数字
+     *
+     * @param value 字段值
+     * @return 返回数字，无法转换返回小于0的数
+     */
+    static double numberOf(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+
+        if (value != null) {
+            try {
+                return Double.parseDouble(value.toString().trim());
+            } catch (NumberFormatException ignore) {
+                // 无法估算
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,36 @@
+package org.join.plus.estimate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 使用 H2 的表统计信息估算行数，可以在本地使用 H2 数据库验证估算分页
+ * <p>
+ * H2 的执行计划中没有行数的估算值，因此读取 {@code INFORMATION_SCHEMA.TABLES.ROW_COUNT_ESTIMATE}，
+ * 即主表的大致行数，不考虑查询条件和关联
+ *
+ * @author suyun
+ * @date 2026-10-17 20:10
+ */
+public class H2CountEstimator implements CountEstimator {
+
+    public final static H2CountEstimator INSTANCE = new H2CountEstimator();
+
+    @Override
+    public String estimateSql(String querySql, String table, Function<Object, String> binder) {
+        // 去掉库名和标识符的引号
+        String name = table.substring(table.lastIndexOf('.') + 1).replace("\"", "").replace("`", "");
+        return "SELECT MAX(ROW_COUNT_ESTIMATE) AS ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES WHERE UPPER(TABLE_NAME) = UPPER("
+                .concat(binder.apply(name))
+                .concat(")");
+    }
+
+    @Override
+    public long estimate(List<Map<String, Object>> rows) {
+        if (rows == null || rows.isEmpty() || rows.get(0) == null) {
+            return -1;
+        }
+        return Math.round(CountEstimator.numberOf(CountEstimator.valueOf(rows.get(0), "ROW_COUNT_ESTIMATE")));
+    }
+}
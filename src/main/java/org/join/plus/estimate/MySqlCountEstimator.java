@@ -0,0 +1,48 @@
+package org.join.plus.estimate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 使用 MySQL 的 {@code EXPLAIN} 估算行数
+ * <p>
+ * 按执行计划中最外层查询的每个表，将 {@code rows × filtered%} 相乘，即优化器估算的关联结果行数；
+ * 子查询的行不参与计算
+ *
+ * @author suyun
+ * @date 2026-10-17 20:10
+ */
+public class MySqlCountEstimator implements CountEstimator {
+
+    public final static MySqlCountEstimator INSTANCE = new MySqlCountEstimator();
+
+    @Override
+    public String estimateSql(String querySql, String table, Function<Object, String> binder) {
+        return "EXPLAIN ".concat(querySql);
+    }
+
+    @Override
+    public long estimate(List<Map<String, Object>> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return -1;
+        }
+
+        Object outerId = CountEstimator.valueOf(rows.get(0), "id");
+        double estimated = 1;
+        for (Map<String, Object> row : rows) {
+            if (!Objects.equals(outerId, CountEstimator.valueOf(row, "id"))) {
+                continue;
+            }
+
+            double count = CountEstimator.numberOf(CountEstimator.valueOf(row, "rows"));
+            if (count < 0) {
+                return -1;
+            }
+            double filtered = CountEstimator.numberOf(CountEstimator.valueOf(row, "filtered"));
+            estimated *= filtered < 0 ? count : count * filtered / 100;
+        }
+        return Math.round(estimated);
+    }
+}
@@ -0,0 +1,38 @@
+package org.join.plus.estimate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 使用 PostgreSQL 的 {@code EXPLAIN} 估算行数
+ * <p>
+ * 读取执行计划第一行（最外层节点）的 {@code rows=} 估算值
+ *
+ * @author suyun
+ * @date 2026-10-17 20:10
+ */
+public class PostgreSqlCountEstimator implements CountEstimator {
+
+    public final static PostgreSqlCountEstimator INSTANCE = new PostgreSqlCountEstimator();
+
+    private final static Pattern ROWS = Pattern.compile("rows=(\\d+)");
+
+    @Override
+    public String estimateSql(String querySql, String table, Function<Object, String> binder) {
+        return "EXPLAIN ".concat(querySql);
+    }
+
+    @Override
+    public long estimate(List<Map<String, Object>> rows) {
+        if (rows == null || rows.isEmpty() || rows.get(0).isEmpty()) {
+            return -1;
+        }
+
+        Object plan = rows.get(0).values().iterator().next();
+        Matcher matcher = ROWS.matcher(String.valueOf(plan));
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+}
@@ -0,0 +1,176 @@
+package org.join.plus.interceptor;
+
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.ResultHandler;
+import org.join.plus.mapping.ResultSetCursor;
+import org.join.plus.mapping.RowMapper;
+import org.join.plus.query.QueryJoin;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 关联查询的MyBatis拦截器，需要注册到MyBatis的配置中才会生效
+ * <p>
+ * 当 {@link QueryJoin} 指定了结果的实体类型时（如 {@code entityList()}、{@code toEntityList(Class)}），
+ * 直接从 {@link ResultSet} 读取并填充实体对象，不再先生成每行的 {@code Map<String, Object>} 再转换；
+ * 没有注册此拦截器时，查询器会自动退回到先查询Map再转换的方式
+ * <p>
+ * 同时会按照 {@link QueryJoin#fetchSize(int)} 设置语句每次从数据库读取的行数，用于游标和流式查询
+ * <pre>
+ *     &#64;Bean
+ *     public JoinInterceptor joinInterceptor() {
+ *         return new JoinInterceptor();
+ *     }
+ * </pre>
+ *
+ * @author suyun
+ * @date 2026-10-17 15:30
+ */
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}),
+        @Signature(type = ResultSetHandler.class, method = "handleResultSets", args = {Statement.class}),
+        @Signature(type = ResultSetHandler.class, method = "handleCursorResultSets", args = {Statement.class})
+})
+public class JoinInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (invocation.getTarget() instanceof StatementHandler) {
+            return prepare(invocation);
+        }
+
+        MetaObject metaObject = SystemMetaObject.forObject(PluginUtils.realTarget(invocation.getTarget()));
+        Class<?> hydrateType = hydrateType(metaObject);
+        if (hydrateType == null) {
+            return invocation.proceed();
+        }
+
+        Statement stmt = (Statement) invocation.getArgs()[0];
+        ResultSet rs = stmt.getResultSet();
+        boolean cursor = "handleCursorResultSets".equals(invocation.getMethod().getName());
+        if (rs == null) {
+            return cursor ? invocation.proceed() : new ArrayList<>(0);
+        }
+
+        if (cursor) {
+            return new ResultSetCursor<>(RowMapper.of(hydrateType), rs);
+        }
+
+        try {
+            ResultHandler<Object> resultHandler = resultHandler(metaObject);
+            if (resultHandler == null) {
+                return RowMapper.of(hydrateType).mapAll(rs);
+            }
+
+            // 使用了结果处理器，逐行处理，不保留结果
+            RowMapper.of(hydrateType).mapEach(rs, resultHandler);
+            return new ArrayList<>(0);
+        } finally {
+            rs.close();
+        }
+    }
+
+    /**
+     * 创建语句之后，按照关联查询器的设置调整语句
+     *
+     * @param invocation 语句处理器的调用
+     * @return 返回创建的语句
+     * @throws Throwable 创建语句异常
+     */
+    private static Object prepare(Invocation invocation) throws Throwable {
+        Statement stmt = (Statement) invocation.proceed();
+        StatementHandler statementHandler = (StatementHandler) invocation.getTarget();
+        QueryJoin<?> queryJoin = wrapperOf(statementHandler.getBoundSql().getParameterObject());
+        if (queryJoin != null && queryJoin.getFetchSize() != null) {
+            stmt.setFetchSize(queryJoin.getFetchSize());
+        }
+        return stmt;
+    }
+
+    /**
+     * 获取本次查询需要直接填充的实体类型
+     *
+     * @param metaObject 结果集处理器
+     * @return 返回实体类型，不需要直接填充则返回空
+     */
+    private static Class<?> hydrateType(MetaObject metaObject) {
+        if (!metaObject.hasGetter("parameterHandler") || !mapResult(metaObject)) {
+            return null;
+        }
+
+        ParameterHandler parameterHandler = (ParameterHandler) metaObject.getValue("parameterHandler");
+        QueryJoin<?> queryJoin = wrapperOf(parameterHandler.getParameterObject());
+        return queryJoin == null ? null : queryJoin.getHydrateType();
+    }
+
+    /**
+     * 本次查询的结果是否是Map，只有返回Map的查询才需要直接填充实体；
+     * 分页插件统计数量的查询与数据查询使用同一个参数（同一个查询器），其结果是数字，不能填充
+     *
+     * @param metaObject 结果集处理器
+     * @return true结果是Map
+     */
+    private static boolean mapResult(MetaObject metaObject) {
+        if (!metaObject.hasGetter("mappedStatement")) {
+            return false;
+        }
+
+        List<ResultMap> resultMaps = ((MappedStatement) metaObject.getValue("mappedStatement")).getResultMaps();
+        return !resultMaps.isEmpty() && Map.class.isAssignableFrom(resultMaps.get(0).getType());
+    }
+
+    /**
+     * 获取本次查询的结果处理器
+     *
+     * @param metaObject 结果集处理器
+     * @return 返回结果处理器，没有则返回空
+     */
+    @SuppressWarnings("unchecked")
+    private static ResultHandler<Object> resultHandler(MetaObject metaObject) {
+        if (!metaObject.hasGetter("resultHandler")) {
+            return null;
+        }
+        return (ResultHandler<Object>) metaObject.getValue("resultHandler");
+    }
+
+    /**
+     * 从参数中获取关联查询器
+     *
+     * @param parameterObject 参数
+     * @return 返回关联查询器，没有则返回空
+     */
+    static QueryJoin<?> wrapperOf(Object parameterObject) {
+        if (parameterObject instanceof QueryJoin) {
+            return (QueryJoin<?>) parameterObject;
+        }
+
+        if (parameterObject instanceof Map) {
+            Map<?, ?> params = (Map<?, ?>) parameterObject;
+            // MapperMethod.ParamMap 获取不存在的key会抛出异常，需要先判断
+            if (params.containsKey(Constants.WRAPPER)) {
+                Object wrapper = params.get(Constants.WRAPPER);
+                if (wrapper instanceof QueryJoin) {
+                    return (QueryJoin<?>) wrapper;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -5,7 +5,10 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ResultHandler;
 import org.join.plus.query.QueryJoin;
 
 import java.util.List;
@@ -26,14 +29,36 @@ public interface JoinMapper<T> extends BaseMapper<T> {
      * <p>
      * 需要注意的是，QueryJoin的代理名称用 {@code Constants.WRAPPER}，
      * 那么如果自定义实现的时候，这个代理名称必须保持统一
+     * <p>
+     * 统计时省略通过主键 LEFT JOIN 且没有被使用的表，也不包含排序，见 {@link QueryJoin#getCountFrom()}
      *
      * @param wrapper 关联查询的条件构造器
      * @return 返回
      */
     @InterceptorIgnore(tenantLine = "true")
-    @Select("SELECT COUNT(1) FROM ${ew.from} ${ew.customSqlSegment}")
+    @Select("SELECT COUNT(1) FROM ${ew.countFrom} ${ew.countSqlSegment}")
     int count(@Param(Constants.WRAPPER) QueryJoin<?> wrapper);
 
+    /**
+     * 执行估算行数的语句，语句由 {@link org.join.plus.estimate.CountEstimator} 生成，见 {@link QueryJoin#getEstimateSql()}
+     *
+     * @param wrapper 关联查询的条件构造器
+     * @return 返回估算语句的结果
+     */
+    @InterceptorIgnore(tenantLine = "true")
+    @Select("${ew.estimateSql}")
+    List<Map<String, Object>> estimateMap(@Param(Constants.WRAPPER) QueryJoin<?> wrapper);
+
+    /**
+     * 判断查询结果是否存在，语句由 {@link org.join.plus.dialect.Dialect#exists(String)} 生成，见 {@link QueryJoin#getExistsSql()}
+     *
+     * @param wrapper 关联查询的条件构造器
+     * @return 返回是否存在
+     */
+    @InterceptorIgnore(tenantLine = "true")
+    @Select("${ew.existsSql}")
+    Boolean exists(@Param(Constants.WRAPPER) QueryJoin<?> wrapper);
+
     /**
      * 查询并返回一个结果，如果查询到多个，则抛出异常
      * <p>
@@ -70,4 +95,57 @@ public interface JoinMapper<T> extends BaseMapper<T> {
     @InterceptorIgnore(tenantLine = "true")
     @Select("SELECT ${ew.sqlSelect} FROM ${ew.from} ${ew.customSqlSegment}")
     Page<Map<String, Object>> pageMap(Page<?> page, @Param(Constants.WRAPPER) QueryJoin<?> wrapper);
+
+    /**
+     * 查询并直接填充为 {@link QueryJoin#getHydrateType()} 指定的实体类型
+     * <p>
+     * 需要注册 {@link org.join.plus.interceptor.JoinInterceptor}，注册后返回的元素是指定的实体类型，不会生成中间的Map；
+     * 没有注册时返回的仍然是Map，由调用者自行转换
+     *
+     * @param wrapper 关联查询的条件构造器
+     * @return 返回
+     */
+    @InterceptorIgnore(tenantLine = "true")
+    @Select("SELECT ${ew.sqlSelect} FROM ${ew.from} ${ew.customSqlSegment}")
+    List<Map<String, Object>> listEntity(@Param(Constants.WRAPPER) QueryJoin<?> wrapper);
+
+    /**
+     * 查询分页数据并直接填充为 {@link QueryJoin#getHydrateType()} 指定的实体类型
+     * <p>
+     * 与 {@link JoinMapper#listEntity(QueryJoin)} 相同，需要注册 {@link org.join.plus.interceptor.JoinInterceptor}
+     *
+     * @param page    分页
+     * @param wrapper 条件
+     * @return 返回
+     */
+    @InterceptorIgnore(tenantLine = "true")
+    @Select("SELECT ${ew.sqlSelect} FROM ${ew.from} ${ew.customSqlSegment}")
+    Page<Map<String, Object>> pageEntity(Page<?> page, @Param(Constants.WRAPPER) QueryJoin<?> wrapper);
+
+    /**
+     * 以游标的方式查询，逐行读取结果，不会一次性将全部结果加载到内存
+     * <p>
+     * 游标在读取期间需要保持数据库连接，因此必须在同一个会话（如事务）中读取并关闭；
+     * 指定了 {@link QueryJoin#getHydrateType()} 且注册了 {@link org.join.plus.interceptor.JoinInterceptor} 时，游标的元素是指定的实体类型
+     *
+     * @param wrapper 关联查询的条件构造器
+     * @return 返回游标
+     */
+    @InterceptorIgnore(tenantLine = "true")
+    @Select("SELECT ${ew.sqlSelect} FROM ${ew.from} ${ew.customSqlSegment}")
+    Cursor<Map<String, Object>> cursorMap(@Param(Constants.WRAPPER) QueryJoin<?> wrapper);
+
+    /**
+     * 查询并将每行结果交给结果处理器，不保留已经处理的行
+     * <p>
+     * 与 {@link JoinMapper#cursorMap(QueryJoin)} 不同，全部的行在本方法返回前处理完毕，不需要额外保持会话；
+     * 结果的元素类型与 {@link JoinMapper#cursorMap(QueryJoin)} 相同
+     *
+     * @param wrapper 关联查询的条件构造器
+     * @param handler 结果处理器
+     */
+    @InterceptorIgnore(tenantLine = "true")
+    @ResultType(Map.class)
+    @Select("SELECT ${ew.sqlSelect} FROM ${ew.from} ${ew.customSqlSegment}")
+    void handleMap(@Param(Constants.WRAPPER) QueryJoin<?> wrapper, ResultHandler<?> handler);
 }
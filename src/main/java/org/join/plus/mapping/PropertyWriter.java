@@ -0,0 +1,225 @@
+package org.join.plus.mapping;
+
+import cn.hutool.core.bean.PropDesc;
+import cn.hutool.core.convert.BasicType;
+import cn.hutool.core.convert.Converter;
+import cn.hutool.core.convert.ConverterRegistry;
+import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.function.BiConsumer;
+
+/**
+ * 实体属性的写入器，创建时预先生成写入函数和类型转换器
+ * <p>
+ * 写入函数优先通过 {@link LambdaMetafactory} 生成，无法生成时（如实体类对本类的类加载器不可见）退回到 {@link MethodHandle}
+ *
+ * @author suyun
+ * @date 2026-10-17 14:20
+ */
+final class PropertyWriter {
+
+    private final static MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * 属性名
+     */
+    private final String property;
+
+    /**
+     * 属性的类型，基本类型已经转换为包装类型
+     */
+    private final Class<?> propertyClass;
+
+    /**
+     * 属性的泛型类型，用于转换
+     */
+    private final Type propertyType;
+
+    /**
+     * 预先获取的类型转换器，没有则在转换时再查找
+     */
+    private final Converter<Object> converter;
+
+    /**
+     * 写入函数
+     */
+    private final BiConsumer<Object, Object> setter;
+
+    /**
+     * 写入的结果字段，用于转换失败时的提示
+     */
+    private final String column;
+
+    private PropertyWriter(String property, Class<?> propertyClass, Type propertyType, BiConsumer<Object, Object> setter) {
+        this.property = property;
+        this.propertyClass = propertyClass.isPrimitive() ? BasicType.wrap(propertyClass) : propertyClass;
+        this.propertyType = propertyType;
+        this.converter = ConverterRegistry.getInstance().getConverter(propertyType, true);
+        this.setter = setter;
+        this.column = property;
+    }
+
+    private PropertyWriter(PropertyWriter writer, String column) {
+        this.property = writer.property;
+        this.propertyClass = writer.propertyClass;
+        this.propertyType = writer.propertyType;
+        this.converter = writer.converter;
+        this.setter = writer.setter;
+        this.column = column;
+    }
+
+    /**
+     * 根据属性描述创建写入器
+     *
+     * @param prop 属性描述
+     * @return 返回写入器，属性不可写则返回空
+     */
+    static PropertyWriter of(PropDesc prop) {
+        Method setter = prop.getSetter();
+        if (setter != null && Modifier.isPublic(setter.getModifiers())) {
+            return new PropertyWriter(prop.getFieldName(), setter.getParameterTypes()[0],
+                    setter.getGenericParameterTypes()[0], setterOf(setter));
+        }
+
+        Field field = prop.getField();
+        if (field == null || Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+            return null;
+        }
+        return new PropertyWriter(prop.getFieldName(), field.getType(), field.getGenericType(), setterOf(field));
+    }
+
+    /**
+     * 获取写入指定结果字段的写入器，与本写入器共用写入函数和类型转换器
+     *
+     * @param column 结果字段名
+     * @return 返回写入器
+     */
+    PropertyWriter forColumn(String column) {
+        return this.column.equals(column) ? this : new PropertyWriter(this, column);
+    }
+
+    /**
+     * 写入属性值，值的类型不一致时进行转换
+     *
+     * @param bean  实体对象
+     * @param value 属性值，不能为空
+     */
+    void write(Object bean, Object value) {
+        this.setter.accept(bean, this.convert(value));
+    }
+
+    /**
+     * 将值转换为属性的类型，转换器无法转换时返回空，不能当作空值写入，同样抛出异常
+     *
+     * @param value 属性值
+     * @return 返回转换后的值
+     */
+    private Object convert(Object value) {
+        if (this.propertyClass.isInstance(value)) {
+            return value;
+        }
+
+        Object converted;
+        try {
+            converted = this.converter != null
+                    ? this.converter.convert(value, null)
+                    : ConverterRegistry.getInstance().convert(this.propertyType, value);
+        } catch (Exception e) {
+            throw this.unconvertible(value, e);
+        }
+        if (converted == null) {
+            throw this.unconvertible(value, null);
+        }
+        return converted;
+    }
+
+    private MybatisPlusException unconvertible(Object value, Exception cause) {
+        String message = String.format("字段[%s]的值[%s]无法转换为属性[%s]的类型[%s]", this.column, value, this.property, this.propertyType.getTypeName());
+        return cause == null ? new MybatisPlusException(message) : new MybatisPlusException(message, cause);
+    }
+
+    String getProperty() {
+        return property;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setterOf(Method method) {
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflect(method);
+        } catch (IllegalAccessException e) {
+            method.setAccessible(true);
+            return reflectSetter(method);
+        }
+
+        if (!visible(method.getDeclaringClass())) {
+            return handleSetter(handle);
+        }
+
+        try {
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(void.class, method.getDeclaringClass(), handle.type().wrap().parameterType(1)));
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            return handleSetter(handle);
+        }
+    }
+
+    /**
+     * 生成的函数类由本类的类加载器定义，实体类必须对其可见
+     *
+     * @param type 实体类
+     * @return true可见
+     */
+    static boolean visible(Class<?> type) {
+        try {
+            return Class.forName(type.getName(), false, PropertyWriter.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static BiConsumer<Object, Object> setterOf(Field field) {
+        field.setAccessible(true);
+        try {
+            return handleSetter(LOOKUP.unreflectSetter(field));
+        } catch (IllegalAccessException e) {
+            throw new MybatisPlusException(String.format("属性[%s]无法写入", field.getName()), e);
+        }
+    }
+
+    private static BiConsumer<Object, Object> handleSetter(MethodHandle handle) {
+        MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (bean, value) -> {
+            try {
+                generic.invokeExact(bean, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new MybatisPlusException(e);
+            }
+        };
+    }
+
+    private static BiConsumer<Object, Object> reflectSetter(Method method) {
+        return (bean, value) -> {
+            try {
+                method.invoke(bean, value);
+            } catch (Exception e) {
+                throw new MybatisPlusException(e);
+            }
+        };
+    }
+}
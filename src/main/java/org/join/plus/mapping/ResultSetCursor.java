@@ -0,0 +1,131 @@
+package org.join.plus.mapping;
+
+import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 逐行从 {@link ResultSet} 读取并填充实体对象的游标，不会缓存已经读取的行
+ * <p>
+ * 与MyBatis的游标相同，只能遍历一次，使用完毕后需要关闭
+ *
+ * @author suyun
+ * @date 2026-10-17 16:10
+ */
+public class ResultSetCursor<T> implements Cursor<T> {
+
+    private final RowMapper<T> rowMapper;
+
+    private final ResultSet rs;
+
+    /**
+     * 按照字段顺序排列的写入器
+     */
+    private final PropertyWriter[] writers;
+
+    private boolean iteratorRetrieved;
+
+    private boolean consumed;
+
+    private boolean closed;
+
+    private int currentIndex = -1;
+
+    public ResultSetCursor(RowMapper<T> rowMapper, ResultSet rs) throws SQLException {
+        this.rowMapper = rowMapper;
+        this.rs = rs;
+        this.writers = rowMapper.writersOf(rs.getMetaData());
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !this.closed;
+    }
+
+    @Override
+    public boolean isConsumed() {
+        return this.consumed;
+    }
+
+    @Override
+    public int getCurrentIndex() {
+        return this.currentIndex;
+    }
+
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+        try {
+            this.rs.close();
+        } catch (SQLException ignore) {
+            // 关闭时的异常无需处理
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        if (this.iteratorRetrieved) {
+            throw new IllegalStateException("游标只能遍历一次");
+        }
+        if (this.closed) {
+            throw new IllegalStateException("游标已经关闭");
+        }
+
+        this.iteratorRetrieved = true;
+        return new Iterator<T>() {
+            private T next;
+
+            @Override
+            public boolean hasNext() {
+                if (this.next == null) {
+                    this.next = fetch();
+                }
+                return this.next != null;
+            }
+
+            @Override
+            public T next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                T current = this.next;
+                this.next = null;
+                return current;
+            }
+        };
+    }
+
+    /**
+     * 读取下一行，读取完毕后自动关闭
+     *
+     * @return 返回下一行的实体对象，没有则返回空
+     */
+    private T fetch() {
+        if (this.closed) {
+            return null;
+        }
+
+        try {
+            if (this.rs.next()) {
+                this.currentIndex++;
+                return this.rowMapper.map(this.rs, this.writers);
+            }
+        } catch (SQLException e) {
+            this.close();
+            throw new MybatisPlusException("读取游标的结果失败", e);
+        }
+
+        this.consumed = true;
+        this.close();
+        return null;
+    }
+}
@@ -0,0 +1,304 @@
+package org.join.plus.mapping;
+
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.bean.PropDesc;
+import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.join.plus.common.StrUtil;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 将查询结果的一行转换为实体对象，替代每行调用 {@code BeanUtil.mapToBean}
+ * <p>
+ * 每个实体类型只创建一次，构造函数和属性的写入函数预先生成；
+ * 结果字段到属性的对应关系按字段名缓存，同一种结果字段集合只在第一行时解析一次，之后每行只有一次哈希查找
+ * <p>
+ * 字段与属性的对应规则和 {@code BeanUtil.mapToBean(map, type, true, CopyOptions.create())} 保持一致：
+ * 先按属性名匹配，再按下划线转驼峰匹配，最后忽略大小写匹配（部分数据库会把字段别名转为小写）；
+ * 没有对应属性的字段忽略，空值不写入（与MyBatis默认不调用空值setter的行为一致），值无法转换为属性的类型时抛出异常
+ *
+ * @author suyun
+ * @date 2026-10-17 14:20
+ */
+public final class RowMapper<T> {
+
+    private final static Map<Class<?>, RowMapper<?>> MAPPERS = new ConcurrentHashMap<>(64);
+
+    private final Class<T> type;
+
+    /**
+     * 实体的构造函数
+     */
+    private final Supplier<Object> constructor;
+
+    /**
+     * key：属性名
+     * value：属性的写入器
+     */
+    private final Map<String, PropertyWriter> writers;
+
+    /**
+     * key：小写的属性名
+     * value：属性的写入器
+     */
+    private final Map<String, PropertyWriter> lowerWriters;
+
+    /**
+     * 结果字段对应的写入器，在读取结果时逐步填充
+     * key：结果字段名
+     * value：属性的写入器，没有对应的属性时为空集合
+     */
+    private final Map<String, List<PropertyWriter>> columnWriters = new ConcurrentHashMap<>(32);
+
+    private RowMapper(Class<T> type) {
+        this.type = type;
+        this.constructor = constructorOf(type);
+
+        Map<String, PropertyWriter> ws = new HashMap<>(32);
+        Map<String, PropertyWriter> lws = new HashMap<>(32);
+        for (PropDesc prop : BeanUtil.getBeanDesc(type).getProps()) {
+            PropertyWriter writer = PropertyWriter.of(prop);
+            if (writer != null) {
+                ws.put(writer.getProperty(), writer);
+                lws.putIfAbsent(writer.getProperty().toLowerCase(), writer);
+            }
+        }
+        this.writers = Collections.unmodifiableMap(ws);
+        this.lowerWriters = Collections.unmodifiableMap(lws);
+    }
+
+    /**
+     * 获取实体类型对应的转换器
+     *
+     * @param type 实体类型
+     * @param <T>  实体类型
+     * @return 返回转换器
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> of(Class<T> type) {
+        RowMapper<?> mapper = MAPPERS.get(type);
+        if (mapper == null) {
+            mapper = MAPPERS.computeIfAbsent(type, RowMapper::new);
+        }
+        return (RowMapper<T>) mapper;
+    }
+
+    /**
+     * 将一行结果转换为实体对象
+     *
+     * @param row 一行结果
+     * @return 返回实体对象，结果为空则返回空
+     */
+    @SuppressWarnings("unchecked")
+    public T map(Map<String, Object> row) {
+        if (row == null) {
+            return null;
+        }
+
+        Object bean = this.constructor.get();
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            if (entry.getValue() == null) {
+                continue;
+            }
+
+            List<PropertyWriter> ws = this.writersOf(entry.getKey());
+            for (int i = 0, size = ws.size(); i < size; i++) {
+                ws.get(i).write(bean, entry.getValue());
+            }
+        }
+        return (T) bean;
+    }
+
+    /**
+     * 将多行结果转换为实体对象
+     *
+     * @param rows 多行结果
+     * @return 返回实体对象的集合
+     */
+    public List<T> mapAll(List<Map<String, Object>> rows) {
+        List<T> list = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            list.add(this.map(row));
+        }
+        return list;
+    }
+
+    /**
+     * 直接从 {@link ResultSet} 读取全部的行并转换为实体对象，不生成中间的Map
+     * <p>
+     * 结果字段在读取第一行之前按字段别名解析一次，之后每行按下标读取
+     *
+     * @param rs 结果集
+     * @return 返回实体对象的集合
+     * @throws SQLException 读取结果集异常
+     */
+    public List<T> mapAll(ResultSet rs) throws SQLException {
+        PropertyWriter[] ws = this.writersOf(rs.getMetaData());
+        List<T> list = new ArrayList<>();
+        while (rs.next()) {
+            list.add(this.map(rs, ws));
+        }
+        return list;
+    }
+
+    /**
+     * 逐行从 {@link ResultSet} 读取实体对象并交给结果处理器，不保留已经处理的行
+     *
+     * @param rs      结果集
+     * @param handler 结果处理器，可以通过 {@link ResultContext#stop()} 提前结束
+     * @throws SQLException 读取结果集异常
+     */
+    public void mapEach(ResultSet rs, ResultHandler<? super T> handler) throws SQLException {
+        PropertyWriter[] ws = this.writersOf(rs.getMetaData());
+        DefaultResultContext<T> context = new DefaultResultContext<>();
+        while (!context.isStopped() && rs.next()) {
+            context.nextResultObject(this.map(rs, ws));
+            handler.handleResult(context);
+        }
+    }
+
+    /**
+     * 按照结果集的字段顺序获取写入器
+     *
+     * @param metaData 结果集的元数据
+     * @return 返回写入器，下标与字段下标减一对应，没有对应的属性为空
+     * @throws SQLException 读取元数据异常
+     */
+    PropertyWriter[] writersOf(ResultSetMetaData metaData) throws SQLException {
+        int count = metaData.getColumnCount();
+        PropertyWriter[] ws = new PropertyWriter[count];
+        for (int i = 0; i < count; i++) {
+            List<PropertyWriter> l = this.writersOf(metaData.getColumnLabel(i + 1));
+            ws[i] = l.isEmpty() ? null : l.get(0);
+        }
+        return ws;
+    }
+
+    /**
+     * 将结果集的当前行转换为实体对象
+     *
+     * @param rs 结果集
+     * @param ws 按照字段顺序排列的写入器
+     * @return 返回实体对象
+     * @throws SQLException 读取结果集异常
+     */
+    @SuppressWarnings("unchecked")
+    T map(ResultSet rs, PropertyWriter[] ws) throws SQLException {
+        Object bean = this.constructor.get();
+        for (int i = 0; i < ws.length; i++) {
+            if (ws[i] == null) {
+                continue;
+            }
+
+            Object value = rs.getObject(i + 1);
+            if (value != null) {
+                ws[i].write(bean, value);
+            }
+        }
+        return (T) bean;
+    }
+
+    /**
+     * 获取结果字段对应的写入器
+     *
+     * @param column 结果字段名
+     * @return 返回写入器，没有对应的属性返回空集合
+     */
+    List<PropertyWriter> writersOf(String column) {
+        List<PropertyWriter> ws = this.columnWriters.get(column);
+        if (ws == null) {
+            ws = this.resolve(column);
+            this.columnWriters.putIfAbsent(column, ws);
+        }
+        return ws;
+    }
+
+    /**
+     * 解析结果字段对应的属性
+     *
+     * @param column 结果字段名
+     * @return 返回写入器，没有对应的属性返回空集合
+     */
+    private List<PropertyWriter> resolve(String column) {
+        PropertyWriter writer = this.writers.get(column);
+        if (writer == null) {
+            writer = this.writers.get(StrUtil.toCamelCase(column));
+        }
+        if (writer == null) {
+            writer = this.lowerWriters.get(StrUtil.toCamelCase(column).toLowerCase());
+        }
+        return writer == null ? Collections.emptyList() : Collections.singletonList(writer.forColumn(column));
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> constructorOf(Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            throw new MybatisPlusException(String.format("类型[%s]无法实例化", type.getName()));
+        }
+
+        Constructor<?> constructor;
+        try {
+            constructor = type.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new MybatisPlusException(String.format("类型[%s]缺少无参构造函数", type.getName()), e);
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle handle;
+        try {
+            if (!Modifier.isPublic(constructor.getModifiers())) {
+                constructor.setAccessible(true);
+            }
+            handle = lookup.unreflectConstructor(constructor);
+        } catch (IllegalAccessException e) {
+            throw new MybatisPlusException(String.format("类型[%s]的无参构造函数不可访问", type.getName()), e);
+        }
+
+        if (Modifier.isPublic(constructor.getModifiers()) && Modifier.isPublic(type.getModifiers()) && PropertyWriter.visible(type)) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "get",
+                        MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class),
+                        handle,
+                        MethodType.methodType(type));
+                return (Supplier<Object>) site.getTarget().invokeExact();
+            } catch (Throwable ignore) {
+                // 退回到 MethodHandle
+            }
+        }
+
+        MethodHandle generic = handle.asType(MethodType.methodType(Object.class));
+        return () -> {
+            try {
+                return generic.invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new MybatisPlusException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package org.join.plus.optimize;
+
+import lombok.Getter;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * 生成 From 语句时的上下文，提供给 {@link JoinOptimizer} 判断关联的表是否被使用
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+public class JoinContext {
+
+    /**
+     * 语句的用途
+     */
+    public enum Purpose {
+        /**
+         * 查询数据，查询的字段、条件、分组和排序都会使用关联的表
+         */
+        DATA,
+        /**
+         * 统计数量，不包含查询的字段和排序
+         */
+        COUNT,
+        /**
+         * 只查询主表的主键，如延迟关联分页的第一步，不包含查询的字段，但保留排序
+         */
+        KEY
+    }
+
+    /**
+     * 语句的用途
+     */
+    @Getter
+    private final Purpose purpose;
+
+    /**
+     * 收集除 From 之外的语句中使用的表别名，只在需要时收集一次；无法判断时返回空
+     */
+    private final Supplier<Set<String>> usedAliases;
+
+    private Set<String> usedAliasesCache;
+
+    private boolean collected;
+
+    public JoinContext(Purpose purpose, Supplier<Set<String>> usedAliases) {
+        this.purpose = purpose;
+        this.usedAliases = usedAliases;
+    }
+
+    /**
+     * 除 From 之外的语句中是否使用了表别名，如查询的字段、条件、分组、排序
+     * <p>
+     * 按照加入时记录的字段判断，不解析语句的文本；语句中有通过字符串加入的片段时（见 {@link JoinContext#isOpaque()}），
+     * 无法判断使用了哪些表，任何表别名都按使用了处理
+     *
+     * @param alias 表别名
+     * @return true使用了
+     */
+    public boolean isReferenced(String alias) {
+        Set<String> aliases = this.usedAliases();
+        return aliases == null || aliases.contains(alias);
+    }
+
+    /**
+     * 语句中是否有无法按字段判断的片段，如 {@code apply}、{@code inSql}、{@code exists}、{@code having}、{@code last} 加入的语句，
+     * 或者不是"表别名.字段名"形式的字段
+     *
+     * @return true有
+     */
+    public boolean isOpaque() {
+        return this.usedAliases() == null;
+    }
+
+    private Set<String> usedAliases() {
+        if (!this.collected) {
+            this.usedAliasesCache = this.usedAliases.get();
+            this.collected = true;
+        }
+        return this.usedAliasesCache;
+    }
+}
@@ -0,0 +1,26 @@
+package org.join.plus.optimize;
+
+import org.join.plus.common.JoinClause;
+
+import java.util.List;
+
+/**
+ * From 语句的优化器，在生成 From 语句之前调整关联，如省略不影响结果的关联
+ * <p>
+ * 多个优化器按 {@link org.join.plus.config.JoinConfig#joinOptimizers()} 的顺序依次执行，前一个的结果是后一个的输入；
+ * 优化器只返回新的关联列表，不能修改传入的列表和其中的关联，没有调整时原样返回传入的列表
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+public interface JoinOptimizer {
+
+    /**
+     * 优化关联
+     *
+     * @param joins   关联，按关联顺序排列，不包含主表，只读
+     * @param context 本次生成的语句的信息
+     * @return 返回优化后的关联，没有调整时返回 {@code joins} 本身
+     */
+    List<JoinClause> optimize(List<JoinClause> joins, JoinContext context);
+}
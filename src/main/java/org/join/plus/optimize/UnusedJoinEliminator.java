@@ -0,0 +1,81 @@
+package org.join.plus.optimize;
+
+import org.join.plus.common.JoinClause;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 省略不影响结果行数且没有被使用的关联
+ * <p>
+ * 只省略通过被关联表的主键进行的 LEFT JOIN（见 {@link JoinClause#isRemovable()}），且该表没有在语句中使用、也没有在其它关联的条件中使用；
+ * 从后向前分析，省略后面的关联之后，前面被其使用的表也可能可以省略。
+ * 默认只在统计数量和延迟关联查询主键时省略（{@link UnusedJoinEliminator#INSTANCE}）；
+ * 查询数据时省略没有查询任何字段（如 {@code selectNone()}）的关联需要使用 {@link UnusedJoinEliminator#WITH_DATA}。
+ * 是否使用按加入时记录的字段判断（见 {@link JoinContext#isReferenced(String)}），
+ * 语句中有通过字符串加入的片段时无法判断使用了哪些表，不省略任何关联
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+public final class UnusedJoinEliminator implements JoinOptimizer {
+
+    /**
+     * 只在统计数量和查询主键时省略，查询数据的语句不变
+     */
+    public final static UnusedJoinEliminator INSTANCE = new UnusedJoinEliminator(false);
+
+    /**
+     * 查询数据时同样省略，需要在 {@link org.join.plus.config.JoinConfig#joinOptimizers()} 中显式配置
+     */
+    public final static UnusedJoinEliminator WITH_DATA = new UnusedJoinEliminator(true);
+
+    /**
+     * 查询数据时是否省略
+     */
+    private final boolean data;
+
+    private UnusedJoinEliminator(boolean data) {
+        this.data = data;
+    }
+
+    @Override
+    public List<JoinClause> optimize(List<JoinClause> joins, JoinContext context) {
+        if ((!this.data && context.getPurpose() == JoinContext.Purpose.DATA)
+                || joins.stream().noneMatch(JoinClause::isRemovable) || context.isOpaque()) {
+            return joins;
+        }
+
+        int size = joins.size();
+        boolean[] removed = new boolean[size];
+        boolean anyRemoved = false;
+        for (int i = size - 1; i >= 0; i--) {
+            JoinClause join = joins.get(i);
+            String alias = join.getTable().getAliasName();
+            if (!join.isRemovable() || context.isReferenced(alias)) {
+                continue;
+            }
+
+            boolean referenced = false;
+            for (int j = 0; j < size && !referenced; j++) {
+                referenced = j != i && !removed[j] && joins.get(j).references(alias);
+            }
+            if (!referenced) {
+                removed[i] = true;
+                anyRemoved = true;
+            }
+        }
+
+        if (!anyRemoved) {
+            return joins;
+        }
+
+        List<JoinClause> kept = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (!removed[i]) {
+                kept.add(joins.get(i));
+            }
+        }
+        return kept;
+    }
+}
@@ -0,0 +1,272 @@
+package org.join.plus.query;
+
+import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
+import com.baomidou.mybatisplus.extension.activerecord.Model;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import lombok.Getter;
+import org.join.plus.common.JoinTableInfo;
+import org.join.plus.config.JoinConfig;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * 编译后的关联查询，由 {@link QueryJoin#compile()} 生成
+ * <p>
+ * 编译时生成全部的语句并固定下来，之后不可修改，可以在多个线程中同时执行；
+ * 每次执行只复制参数并绑定 {@link Slot} 的值，不再重新构建查询器和生成语句。
+ * 租户条件同样以槽位的方式编译，每次执行时从 {@link JoinConfig#tenants()} 取值，租户值的个数需要与编译时一致
+ *
+ * @author suyun
+ * @date 2026-10-17 22:40
+ */
+public final class CompiledQuery<M extends Model<M>> {
+
+    /**
+     * 主表
+     */
+    final JoinTableInfo master;
+
+    /**
+     * 关联查询的配置
+     */
+    final JoinConfig joinConfig;
+
+    /**
+     * 查询字段
+     */
+    @Getter
+    private final String sqlSelect;
+
+    /**
+     * From语句
+     */
+    @Getter
+    private final String from;
+
+    /**
+     * 条件语句，条件值为占位符
+     */
+    @Getter
+    private final String sqlSegment;
+
+    /**
+     * 统计数量使用的 From 语句
+     */
+    final String countFrom;
+
+    /**
+     * 统计数量使用的条件
+     */
+    final String countSqlSegment;
+
+    /**
+     * 每次从数据库读取的行数
+     */
+    final Integer fetchSize;
+
+    /**
+     * 是否可以在条件之后追加 LIMIT，有联合查询或 {@code last} 语句时不可以
+     */
+    final boolean limitable;
+
+    /**
+     * 不需要绑定的参数，每次执行时复制
+     */
+    private final Map<String, Object> params;
+
+    /**
+     * 槽位的参数名，与 {@code slots} 一一对应
+     */
+    private final String[] slotKeys;
+
+    /**
+     * 参数中的槽位
+     */
+    private final Slot<?>[] slots;
+
+    /**
+     * 需要绑定的槽位名称
+     */
+    @Getter
+    private final Set<String> slotNames;
+
+    /**
+     * 编译时租户值的个数
+     */
+    private final int tenantSize;
+
+    CompiledQuery(JoinTableInfo master, JoinConfig joinConfig, String sqlSelect, String from, String sqlSegment,
+                  String countFrom, String countSqlSegment, Integer fetchSize, boolean limitable, Map<String, Object> params) {
+        this.master = master;
+        this.joinConfig = joinConfig;
+        this.sqlSelect = sqlSelect;
+        this.from = from;
+        this.sqlSegment = sqlSegment;
+        this.countFrom = countFrom;
+        this.countSqlSegment = countSqlSegment;
+        this.fetchSize = fetchSize;
+        this.limitable = limitable;
+
+        Map<String, Object> values = new HashMap<>(params.size() * 4 / 3 + 1);
+        List<String> keys = new ArrayList<>(4);
+        List<Slot<?>> slotList = new ArrayList<>(4);
+        Set<String> names = new LinkedHashSet<>(4);
+        int tenants = 0;
+        for (Map.Entry<String, Object> param : params.entrySet()) {
+            if (!(param.getValue() instanceof Slot)) {
+                values.put(param.getKey(), param.getValue());
+                continue;
+            }
+
+            Slot<?> slot = (Slot<?>) param.getValue();
+            keys.add(param.getKey());
+            slotList.add(slot);
+            if (slot.isTenant()) {
+                tenants = Math.max(tenants, slot.getTenantIndex() + 1);
+            } else {
+                names.add(slot.getName());
+            }
+        }
+        this.params = Collections.unmodifiableMap(values);
+        this.slotKeys = keys.toArray(new String[0]);
+        this.slots = slotList.toArray(new Slot<?>[0]);
+        this.slotNames = Collections.unmodifiableSet(names);
+        this.tenantSize = tenants;
+    }
+
+    /**
+     * 查询并返回
+     *
+     * @param values 槽位的值，key是槽位的名称
+     * @return 返回查询的结果
+     */
+    public List<Map<String, Object>> listMap(Map<String, ?> values) {
+        return this.bind(values).listMap();
+    }
+
+    /**
+     * 查询并转换为指定的实体类型
+     *
+     * @param listType 实体类型
+     * @param values   槽位的值，key是槽位的名称
+     * @param <E>      实体类型
+     * @return 返回查询的结果
+     */
+    public <E> List<E> toEntityList(Class<E> listType, Map<String, ?> values) {
+        return this.bind(values).toEntityList(listType);
+    }
+
+    /**
+     * 查询一个结果并返回，如果有多个结果，则抛出异常
+     *
+     * @param values 槽位的值，key是槽位的名称
+     * @return 返回查询的结果
+     */
+    public Map<String, Object> oneMap(Map<String, ?> values) {
+        return this.bind(values).oneMap();
+    }
+
+    /**
+     * 查询一个结果并转换为指定的实体类型，如果有多个结果，则抛出异常
+     *
+     * @param entityType 实体类型
+     * @param values     槽位的值，key是槽位的名称
+     * @param <E>        实体类型
+     * @return 返回查询的结果
+     */
+    public <E> E oneEntity(Class<E> entityType, Map<String, ?> values) {
+        return this.bind(values).oneEntity(entityType);
+    }
+
+    /**
+     * 统计数量
+     * <p>
+     * 分组、去重和联合查询在编译时已经包装为子查询统计
+     *
+     * @param values 槽位的值，key是槽位的名称
+     * @return 返回统计的数量，没有为0
+     */
+    public int count(Map<String, ?> values) {
+        return this.bind(values).count();
+    }
+
+    /**
+     * 分页查询，直接在语句中追加 LIMIT、OFFSET，不经过分页插件
+     *
+     * @param page   分页，每次执行需要使用各自的分页对象
+     * @param values 槽位的值，key是槽位的名称
+     * @return 返回分页查询的结果
+     */
+    public Page<Map<String, Object>> pageMap(Page<?> page, Map<String, ?> values) {
+        return this.bind(values).nativePaging().pagerMap(page);
+    }
+
+    /**
+     * 获取完整的sql语句，条件值替换为字面量，用于阅读和记录日志
+     *
+     * @param values 槽位的值，key是槽位的名称
+     * @return 返回
+     */
+    public String getFullSql(Map<String, ?> values) {
+        return this.bind(values).getFullSql();
+    }
+
+    /**
+     * 绑定槽位的值，生成本次执行使用的查询器
+     *
+     * @param values 槽位的值，key是槽位的名称
+     * @return 返回只用于本次执行的查询器
+     */
+    private QueryJoin<M> bind(Map<String, ?> values) {
+        return QueryJoin.bound(this, this.bindParams(values == null ? Collections.emptyMap() : values));
+    }
+
+    /**
+     * 复制参数并绑定槽位的值
+     *
+     * @param values 槽位的值，key是槽位的名称
+     * @return 返回本次执行的参数
+     */
+    private Map<String, Object> bindParams(Map<String, ?> values) {
+        for (String name : values.keySet()) {
+            if (!this.slotNames.contains(name)) {
+                throw new MybatisPlusException(String.format("查询中没有名称为[%s]的参数槽位", name));
+            }
+        }
+
+        Map<String, Object> params = new HashMap<>((this.params.size() + this.slots.length) * 4 / 3 + 1);
+        params.putAll(this.params);
+        List<Serializable> tenants = null;
+        for (int i = 0; i < this.slots.length; i++) {
+            Slot<?> slot = this.slots[i];
+            if (slot.isTenant()) {
+                if (tenants == null) {
+                    tenants = this.tenants();
+                }
+                params.put(this.slotKeys[i], tenants.get(slot.getTenantIndex()));
+                continue;
+            }
+
+            if (!values.containsKey(slot.getName())) {
+                throw new MybatisPlusException(String.format("参数槽位[%s]没有绑定值", slot.getName()));
+            }
+            params.put(this.slotKeys[i], slot.check(values.get(slot.getName())));
+        }
+        return params;
+    }
+
+    /**
+     * 获取本次执行的租户值
+     *
+     * @return 返回租户值
+     */
+    private List<Serializable> tenants() {
+        Collection<Serializable> tenants = this.joinConfig == null ? null : this.joinConfig.tenants();
+        if (tenants == null || tenants.size() != this.tenantSize) {
+            throw new MybatisPlusException(String.format("租户值的个数[%d]与编译时[%d]不一致",
+                    tenants == null ? 0 : tenants.size(), this.tenantSize));
+        }
+        return new ArrayList<>(tenants);
+    }
+}
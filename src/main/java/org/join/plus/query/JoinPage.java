@@ -0,0 +1,86 @@
+package org.join.plus.query;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+
+/**
+ * 关联查询的分页结果，在 {@link Page} 的基础上增加续页信息
+ * <p>
+ * 键集分页时不统计总数，也没有页码，通过 {@link JoinPage#getNextToken()} 获取下一页；
+ * 只判断是否有下一页的分页不统计总数，通过 {@link JoinPage#hasNext()} 判断是否有下一页；
+ * 估算总数时，通过 {@link JoinPage#isApproximate()} 判断总数是否是估算值
+ *
+ * @author suyun
+ * @date 2026-10-17 17:05
+ */
+public class JoinPage<T> extends Page<T> {
+    private final static long serialVersionUID = 1L;
+
+    /**
+     * 下一页的令牌，没有下一页时为空
+     */
+    private String nextToken;
+
+    /**
+     * 是否有下一页
+     */
+    private boolean hasNext;
+
+    /**
+     * 总数是否是估算值
+     */
+    private boolean approximate;
+
+    public JoinPage() {
+        super();
+    }
+
+    public JoinPage(long current, long size) {
+        super(current, size);
+    }
+
+    public JoinPage(long current, long size, long total, boolean isSearchCount) {
+        super(current, size, total, isSearchCount);
+    }
+
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public JoinPage<T> setNextToken(String nextToken) {
+        this.nextToken = nextToken;
+        return this;
+    }
+
+    /**
+     * 是否有下一页的令牌
+     *
+     * @return true有下一页
+     */
+    public boolean hasNextToken() {
+        return this.nextToken != null;
+    }
+
+    /**
+     * 是否有下一页
+     *
+     * @return true有下一页
+     */
+    @Override
+    public boolean hasNext() {
+        return this.hasNext || super.hasNext();
+    }
+
+    public JoinPage<T> setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+        return this;
+    }
+
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    public JoinPage<T> setApproximate(boolean approximate) {
+        this.approximate = approximate;
+        return this;
+    }
+}
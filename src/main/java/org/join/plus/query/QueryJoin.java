@@ -1,7 +1,5 @@
 package org.join.plus.query;
 
-import cn.hutool.core.bean.BeanUtil;
-import cn.hutool.core.bean.copier.CopyOptions;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.collection.ListUtil;
 import cn.hutool.core.map.MapUtil;
@@ -9,10 +7,15 @@ import cn.hutool.core.text.StrBuilder;
 import cn.hutool.core.util.NumberUtil;
 import cn.hutool.core.util.ReflectUtil;
 import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.conditions.ISqlSegment;
 import com.baomidou.mybatisplus.core.conditions.SharedString;
 import com.baomidou.mybatisplus.core.conditions.query.Query;
 import com.baomidou.mybatisplus.core.conditions.segments.MergeSegments;
+import com.baomidou.mybatisplus.core.enums.SqlKeyword;
+import com.baomidou.mybatisplus.core.enums.SqlLike;
+import com.baomidou.mybatisplus.core.enums.WrapperKeyword;
 import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
+import com.baomidou.mybatisplus.core.metadata.OrderItem;
 import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
 import com.baomidou.mybatisplus.core.metadata.TableInfo;
 import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
@@ -25,14 +28,35 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.join.plus.common.*;
 import org.join.plus.config.JoinConfig;
+import org.join.plus.dialect.Dialect;
+import org.join.plus.dialect.MySqlDialect;
+import org.join.plus.estimate.CountEstimator;
 import org.join.plus.mapper.JoinMapper;
-
+import org.join.plus.optimize.JoinContext;
+import org.join.plus.optimize.JoinOptimizer;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.exceptions.TooManyResultsException;
+import org.apache.ibatis.session.ResultHandler;
+import org.join.plus.mapping.RowMapper;
+
+import java.io.IOException;
 import java.io.Serializable;
+import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 多表关联查询器，无需配置xml，直接构建执行即可
@@ -178,19 +202,47 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
     private final static String UNION_ALL = UNION.concat(StrUtil.SPACE).concat("ALL");
 
     /**
-     * 已经加入查询的表
-     * key：类名，全类名
-     * value：表信息
+     * 键集分页时附加查询的排序字段的别名前缀
      */
-    @Getter
-    private final List<JoinTableInfo> queryTables = ListUtil.list(true);
+    private final static String SEEK_ALIAS = "join_seek_";
+
+    /**
+     * 延迟关联时主表主键的别名
+     */
+    private final static String DEFERRED_KEY = "join_key_";
+
+    /**
+     * 窗口函数统计总数的别名
+     */
+    private final static String WINDOW_TOTAL = "join_total_";
+
+    /**
+     * 编译时包装为子查询统计数量的别名
+     */
+    private final static String COUNT_ALIAS = "join_count_";
+
+    /**
+     * 没有配置时使用的默认配置，默认配置没有状态，所有查询器共用一个实例
+     */
+    private final static JoinConfig DEFAULT_CONFIG = new JoinConfig.DefaultJoinConfig();
+
+    /**
+     * "表别名.字段名"形式的字段，可以带有字段别名，如 {@code user.user_name AS userName}
+     */
+    private final static Pattern QUALIFIED_COLUMN = Pattern.compile(
+            "(\\w+)\\.(\\w+|`[^`]+`|\"[^\"]+\"|\\[[^\\]]+\\])(\\s+((?i)AS\\s+)?\\w+)?");
+
+    /**
+     * 已经加入查询的表，按表别名和实体类型建立了索引
+     */
+    private TableRegistry queryTables;
 
     /**
      * 缓存所有已经加入查询的字段
      * key：查询的字段别名，因为别名不可重复
      * value：查询的表别名和字段，ex：tableAlias
      */
-    private final Map<String, String> selectOthers = CollectionUtils.newHashMap();
+    private Map<String, String> selectOthers = CollectionUtils.newHashMap();
 
     /**
      * 关联查询的配置
@@ -200,13 +252,18 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
     /**
      * 主表，排在第一位的，必须要有
      */
-    private final JoinTableInfo master;
+    private JoinTableInfo master;
 
     /**
-     * From的语句，其中包含关联语句和On语句
+     * 生成 From 语句的缓冲区，From 语句由 {@link TableRegistry} 中的主表和关联渲染，见 {@link QueryJoin#getFrom()}
      */
     private final StringBuilder sqlFrom = new StringBuilder();
 
+    /**
+     * 关联的表、查询的字段和 From 语句是否与分叉的查询器共用，共用时修改之前先复制一份，见 {@link QueryJoin#fork()}
+     */
+    private boolean structureShared = false;
+
     /**
      * 建议使用少于5层UNION，包括UNION ALL
      */
@@ -255,6 +312,178 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
      */
     private Page<Map<String, Object>> pageResult;
 
+    /**
+     * 当前查询结构对应的执行计划，结构发生变化时置空，下次使用时重新从缓存中获取
+     */
+    private transient QueryPlan plan;
+
+    /**
+     * 获取 {@code plan} 时关联结构的版本，关联条件变化时同样需要重新获取
+     */
+    private transient int planVersion;
+
+    /**
+     * 本次查询需要直接从结果集填充的实体类型，只在执行期间有值
+     *
+     * @see org.join.plus.interceptor.JoinInterceptor
+     */
+    @Getter
+    private transient Class<?> hydrateType;
+
+    /**
+     * 每次从数据库读取的行数，为空则使用驱动的默认值，用于游标和流式查询
+     *
+     * @see org.join.plus.interceptor.JoinInterceptor
+     */
+    @Getter
+    private Integer fetchSize;
+
+    /**
+     * 排序字段，按加入顺序保存，用于键集分页
+     */
+    private final List<OrderItem> orderItems = new ArrayList<>(4);
+
+    /**
+     * 条件中使用的字段，在加入条件时记录，嵌套条件与外层共用
+     */
+    private final Set<String> predicateColumns;
+
+    /**
+     * 通过 {@code apply} 加入的原始条件，无法按字段记录，嵌套条件与外层共用
+     */
+    private final List<String> appliedSqls;
+
+    /**
+     * 通过字符串加入的子查询、EXISTS、HAVING 语句，无法判断使用了哪些表，嵌套条件与外层共用
+     */
+    private final List<String> rawSqls;
+
+    /**
+     * 附加查询的字段，如键集分页的排序字段，只在执行期间有值
+     */
+    private transient String extraSelect;
+
+    /**
+     * 替换全部查询字段的语句，如延迟关联时只查询主键，只在执行期间有值
+     */
+    private transient String selectOverride;
+
+    /**
+     * 替换全部条件的语句，如延迟关联时按主键查询，只在执行期间有值
+     */
+    private transient String segmentOverride;
+
+    /**
+     * 替换 From 语句，如延迟关联时省略不需要的关联，只在执行期间有值
+     */
+    private transient String fromOverride;
+
+    /**
+     * 并发统计分页总数时预先生成的统计语句，只在执行期间有值
+     */
+    private transient String pinnedCountFrom;
+
+    /**
+     * 并发统计分页总数时预先生成的统计条件，只在执行期间有值
+     */
+    private transient String pinnedCountSqlSegment;
+
+    /**
+     * 是否使用延迟关联分页，默认不使用
+     */
+    private boolean deferredJoin = false;
+
+    /**
+     * 键集分页时从上一页之后开始的条件，只在执行期间有值
+     */
+    private transient String seekSegment;
+
+    /**
+     * 执行期间替换的排序语句，如键集分页追加了主键的排序，执行结束后置空，不修改查询器的排序
+     */
+    private transient String orderByOverride;
+
+    /**
+     * 限制查询的数量，如键集分页和原生分页，只在执行期间大于0
+     */
+    private transient long limit;
+
+    /**
+     * 跳过的行数，原生分页时使用，只在执行期间有值
+     */
+    private transient long offset;
+
+    /**
+     * 是否使用原生分页，默认不使用
+     */
+    private boolean nativePaging = false;
+
+    /**
+     * 是否使用窗口函数统计分页的总数，默认不使用
+     */
+    private boolean windowCount = false;
+
+    /**
+     * 是否估算总数，默认不估算
+     */
+    private boolean approximateCount = false;
+
+    /**
+     * 估算行数的语句，只在执行期间有值
+     *
+     * @see JoinMapper#estimateMap(QueryJoin)
+     */
+    @Getter
+    private transient String estimateSql;
+
+    /**
+     * 判断是否存在的语句，只在执行期间有值
+     *
+     * @see JoinMapper#exists(QueryJoin)
+     */
+    @Getter
+    private transient String existsSql;
+
+    /**
+     * 优化器提示，为空则不使用
+     */
+    private String hint;
+
+    /**
+     * 是否正在编译，编译时租户条件使用 {@link Slot} 代替租户值
+     */
+    private transient boolean compiling;
+
+    /**
+     * 是否已经追加了使用实际租户值的租户条件，追加之后租户值固定在条件中，不能再编译
+     */
+    private boolean tenantInjected = false;
+
+    /**
+     * 已经追加过租户和逻辑删除条件的执行计划，与当前的执行计划相同时不再追加
+     */
+    private transient QueryPlan injectedPlan;
+
+    /**
+     * 是否空闲在复用池中，见 {@link QueryJoinPool}
+     */
+    transient boolean pooled = false;
+
+    /**
+     * 编译的结果，编译之后查询器不再直接执行
+     */
+    private transient CompiledQuery<M> compiled;
+
+    /**
+     * 编译后固定的条件，只在执行编译结果时有值，见 {@link QueryJoin#bound(CompiledQuery, Map)}
+     */
+    private transient String compiledSqlSegment;
+
+    /**
+     * 编译的条件是否不能追加 LIMIT，即编译时有联合查询或 {@code last} 语句
+     */
+    private transient boolean compiledUnlimitable;
+
     /**
      * 设置分页条件以进行分页查询
      *
@@ -278,6 +507,19 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
         return this;
     }
 
+    /**
+     * 设置每次从数据库读取的行数，需要注册 {@link org.join.plus.interceptor.JoinInterceptor} 才会生效
+     * <p>
+     * MySQL需要设置为 {@link Integer#MIN_VALUE} 才会逐行读取（或在连接参数中开启 useCursorFetch 后设置为正数）
+     *
+     * @param fetchSize 每次读取的行数
+     * @return 返回
+     */
+    public QueryJoin<M> fetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
     /**
      * 隐藏构造函数
      *
@@ -286,7 +528,11 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
     private QueryJoin(JoinTableInfo master, JoinConfig joinConfig) {
         this.master = master;
         this.joinConfig = joinConfig;
-        this.addTable(master, null);
+        this.queryTables = new TableRegistry();
+        this.predicateColumns = new HashSet<>(8);
+        this.appliedSqls = new ArrayList<>(2);
+        this.rawSqls = new ArrayList<>(0);
+        this.addTable(master);
         super.initNeed();
         if (joinConfig != null) {
             this.disableTenant = joinConfig.tenantClass() == null || StrUtil.isBlank(joinConfig.tenantColumn());
@@ -301,9 +547,12 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
      */
     private QueryJoin(JoinTableInfo master, JoinConfig joinConfig, M entity, Class<M> entityClass, AtomicInteger paramNameSeq,
                       Map<String, Object> paramNameValuePairs, MergeSegments mergeSegments, SharedString lastSql,
-                      SharedString sqlComment, SharedString sqlFirst, List<JoinTableInfo> queryTables,
-                      Map<String, String> selectOthers, StringBuilder sqlFrom, List<QueryJoin<?>> unions,
-                      List<QueryJoin<?>> unionAlls, boolean disableTenant, boolean enableDistinct, boolean disableLogicDelete) {
+                      SharedString sqlComment, SharedString sqlFirst, TableRegistry queryTables,
+                      Map<String, String> selectOthers, List<QueryJoin<?>> unions,
+                      List<QueryJoin<?>> unionAlls, boolean disableTenant, boolean enableDistinct, boolean disableLogicDelete,
+                      Set<String> predicateColumns, List<String> appliedSqls, List<String> rawSqls) {
+        // 先初始化，再使用外层的参数和条件，否则参数会被重置，嵌套条件的值无法被找到
+        super.initNeed();
         super.setEntity(entity);
         super.setEntityClass(entityClass);
         this.paramNameSeq = paramNameSeq;
@@ -314,21 +563,213 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
         this.sqlFirst = sqlFirst;
         this.master = master;
         this.joinConfig = joinConfig;
-        this.queryTables.addAll(queryTables);
+        this.queryTables = queryTables;
         this.selectOthers.putAll(selectOthers);
-        this.sqlFrom.append(sqlFrom);
         this.unions.addAll(unions);
         this.unionAlls.addAll(unionAlls);
         this.disableTenant = disableTenant;
         this.enableDistinct = enableDistinct;
         this.disableLogicDelete = disableLogicDelete;
-        super.initNeed();
+        this.predicateColumns = predicateColumns;
+        this.appliedSqls = appliedSqls;
+        this.rawSqls = rawSqls;
         if (joinConfig != null) {
             this.disableTenant = joinConfig.tenantClass() == null || StrUtil.isBlank(joinConfig.tenantColumn());
             this.disableLogicDelete = !joinConfig.hasLogicDelete();
         }
     }
 
+    /**
+     * 执行编译结果的构造方法，语句全部使用编译时生成的，不再加入任何表和条件
+     *
+     * @param compiled 编译的结果
+     * @param params   绑定了槽位的值的参数
+     */
+    private QueryJoin(CompiledQuery<M> compiled, Map<String, Object> params) {
+        this.master = compiled.master;
+        this.joinConfig = compiled.joinConfig;
+        this.queryTables = new TableRegistry();
+        this.predicateColumns = Collections.emptySet();
+        this.appliedSqls = Collections.emptyList();
+        this.rawSqls = Collections.emptyList();
+        super.initNeed();
+        this.paramNameValuePairs = params;
+        this.disableTenant = true;
+        this.disableLogicDelete = true;
+        this.fetchSize = compiled.fetchSize;
+        this.selectOverride = compiled.getSqlSelect();
+        this.fromOverride = compiled.getFrom();
+        this.compiledSqlSegment = compiled.getSqlSegment();
+        this.compiledUnlimitable = !compiled.limitable;
+        this.pinnedCountFrom = compiled.countFrom;
+        this.pinnedCountSqlSegment = compiled.countSqlSegment;
+    }
+
+    /**
+     * 创建执行编译结果的查询器，只用于一次执行
+     *
+     * @param compiled 编译的结果
+     * @param params   绑定了槽位的值的参数
+     * @param <M>      类型
+     * @return 返回查询器
+     */
+    static <M extends Model<M>> QueryJoin<M> bound(CompiledQuery<M> compiled, Map<String, Object> params) {
+        return new QueryJoin<>(compiled, params);
+    }
+
+    /**
+     * 统计数量快照的构造方法，见 {@link QueryJoin#countSnapshot()}
+     *
+     * @param source          原查询器
+     * @param countFrom       统计数量的 From 语句
+     * @param countSqlSegment 统计数量的条件语句
+     * @param params          参数的副本
+     */
+    private QueryJoin(QueryJoin<M> source, String countFrom, String countSqlSegment, Map<String, Object> params) {
+        this.master = source.master;
+        this.joinConfig = source.joinConfig;
+        this.queryTables = new TableRegistry();
+        this.predicateColumns = Collections.emptySet();
+        this.appliedSqls = Collections.emptyList();
+        this.rawSqls = Collections.emptyList();
+        super.initNeed();
+        this.paramNameValuePairs = Collections.unmodifiableMap(params);
+        this.disableTenant = true;
+        this.disableLogicDelete = true;
+        this.fetchSize = source.fetchSize;
+        this.pinnedCountFrom = countFrom;
+        this.pinnedCountSqlSegment = countSqlSegment;
+    }
+
+    /**
+     * 分叉的构造方法，见 {@link QueryJoin#fork()}
+     *
+     * @param template 模板查询器
+     */
+    private QueryJoin(QueryJoin<M> template) {
+        // 先生成模板的条件和联合查询的分支，生成的语句已经缓存，参数也已经确定
+        template.lastUnions();
+        MergeSegments segments = template.getExpression();
+        String normal = segments.getNormal().getSqlSegment();
+        String groupBy = segments.getGroupBy().getSqlSegment();
+        String having = segments.getHaving().getSqlSegment();
+        String orderBy = segments.getOrderBy().getSqlSegment();
+
+        this.master = template.master;
+        this.joinConfig = template.joinConfig;
+        this.queryTables = template.queryTables;
+        this.selectOthers = template.selectOthers;
+        this.structureShared = true;
+        template.structureShared = true;
+        this.predicateColumns = new HashSet<>(template.predicateColumns);
+        this.appliedSqls = new ArrayList<>(template.appliedSqls);
+        this.rawSqls = new ArrayList<>(template.rawSqls);
+
+        super.initNeed();
+        super.setEntity(template.getEntity());
+        super.setEntityClass(template.getEntityClass());
+        this.paramNameSeq = new AtomicInteger(template.paramNameSeq.get());
+        this.paramNameValuePairs = new HashMap<>(template.paramNameValuePairs);
+        this.lastSql.setStringValue(template.lastSql.getStringValue());
+        this.sqlComment.setStringValue(template.sqlComment.getStringValue());
+        this.sqlFirst.setStringValue(template.sqlFirst.getStringValue());
+        if (StringUtils.isNotBlank(normal)) {
+            this.expression.add(WrapperKeyword.APPLY, () -> normal);
+        }
+        if (StringUtils.isNotBlank(groupBy)) {
+            this.expression.add(SqlKeyword.GROUP_BY, () -> segmentBody(groupBy, SqlKeyword.GROUP_BY));
+        }
+        if (StringUtils.isNotBlank(having)) {
+            this.expression.add(SqlKeyword.HAVING, () -> segmentBody(having, SqlKeyword.HAVING));
+        }
+        if (StringUtils.isNotBlank(orderBy)) {
+            this.expression.add(SqlKeyword.ORDER_BY, () -> segmentBody(orderBy, SqlKeyword.ORDER_BY));
+        }
+
+        // 分支在生成语句时会修改自身的状态，每个分叉使用各自的分支，分支与分叉共用参数
+        template.unions.forEach(branch -> this.unions.add(this.forkBranch(branch)));
+        template.unionAlls.forEach(branch -> this.unionAlls.add(this.forkBranch(branch)));
+        this.orderItems.addAll(template.orderItems);
+        this.disableTenant = template.disableTenant;
+        this.enableDistinct = template.enableDistinct;
+        this.disableLogicDelete = template.disableLogicDelete;
+        this.fetchSize = template.fetchSize;
+        this.deferredJoin = template.deferredJoin;
+        this.nativePaging = template.nativePaging;
+        this.windowCount = template.windowCount;
+        this.approximateCount = template.approximateCount;
+        this.tenantInjected = template.tenantInjected;
+        this.injectedPlan = template.injectedPlan;
+        this.hint = template.hint;
+        this.plan = template.plan;
+        this.planVersion = template.planVersion;
+    }
+
+    /**
+     * 分叉联合查询的分支，分叉后的分支与本查询共用参数
+     *
+     * @param branch 模板的分支
+     * @return 返回分叉后的分支
+     */
+    private QueryJoin<?> forkBranch(QueryJoin<?> branch) {
+        QueryJoin<?> copy = branch.fork();
+        copy.paramNameSeq = this.paramNameSeq;
+        copy.paramNameValuePairs = this.paramNameValuePairs;
+        return copy;
+    }
+
+    /**
+     * 去掉片段开头的关键字，如 {@code " ORDER BY a ASC"} 去掉后为 {@code "a ASC"}
+     *
+     * @param sql     片段
+     * @param keyword 关键字
+     * @return 返回关键字之后的部分
+     */
+    private static String segmentBody(String sql, SqlKeyword keyword) {
+        String prefix = StrUtil.SPACE.concat(keyword.getSqlSegment()).concat(StrUtil.SPACE);
+        return sql.startsWith(prefix) ? sql.substring(prefix.length()) : sql.trim();
+    }
+
+    /**
+     * 以当前查询器为模板分叉出一个新的查询器，分叉之后两个查询器互不影响
+     * <p>
+     * 关联的表、查询的字段和 From 语句由两个查询器共用，任意一方再修改这些结构时才复制一份；
+     * 已经加入的条件、分组、排序生成一次语句后共用，分叉只复制参数，新的条件加在模板的条件之后；联合查询的分支同样分叉一份。
+     * 适用于先构建好公共的关联和条件，再按需要派生出多个追加了条件、排序或只统计数量的查询
+     * <pre>
+     *     QueryJoin&lt;BaseUser&gt; base = QueryJoin.create(BaseUser.class, joinConfig)
+     *         .leftJoin(BaseRole.class)
+     *         .on(BaseUser::getRoleId, BaseRole::getRoleId)
+     *         .eq(BaseUser::getDeleted, 0);
+     *     int total = base.fork().count();
+     *     List&lt;Map&lt;String, Object&gt;&gt; admins = base.fork().eq(BaseRole::getRoleName, "admin").listMap();
+     * </pre>
+     * 同一个模板可以在多个线程中分叉，但分叉期间不能修改模板
+     *
+     * @return 返回新的查询器
+     */
+    public QueryJoin<M> fork() {
+        synchronized (this) {
+            return new QueryJoin<>(this);
+        }
+    }
+
+    /**
+     * 修改关联的表、查询的字段或 From 语句之前调用，置空执行计划；与分叉的查询器共用结构时，先复制一份
+     */
+    private void beforeStructureChange() {
+        this.plan = null;
+        if (!this.structureShared) {
+            return;
+        }
+
+        TableRegistry tables = this.queryTables.copy();
+        this.master = tables.byAlias(this.master.getAliasName());
+        this.queryTables = tables;
+        this.selectOthers = new HashMap<>(this.selectOthers);
+        this.structureShared = false;
+    }
+
     /**
      * 创建关联查询，需要先从创建主表开始
      *
@@ -365,31 +806,38 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
         }
 
         JoinTableInfo et = new JoinTableInfo(master, true, SelectType.ALL);
-        QueryJoin<M> qj = new QueryJoin<>(et, joinConfig);
-        /// "master_table AS tableAlias"
-        qj.sqlFrom
-                .append(master.getTableName())
-                .append(StrUtil.SPACE)
-                .append(StrUtil.AS)
-                .append(StrUtil.SPACE)
-                .append(et.getAliasName());
         // 主表默认查询全部字段
-        return qj;
+        return new QueryJoin<>(et, joinConfig);
     }
 
-    private void addTable(JoinTableInfo et, Integer index) {
-        String suffix = index == null ? "1" : (++index).toString();
-        String aliasName = et.getAliasName();
-        if (this.queryTables.contains(et)) {
-            String nextName = cn.hutool.core.util.StrUtil.sub(aliasName, 0, index == null ? aliasName.length() : aliasName.length() - 1).concat(suffix);
-            et.setAliasName(nextName);
-            addTable(et, index);
-            return;
-        }
-
+    /**
+     * 加入关联的表，表别名重复时自动追加数字后缀
+     *
+     * @param et 表信息
+     */
+    private void addTable(JoinTableInfo et) {
+        this.beforeStructureChange();
         this.queryTables.add(et);
     }
 
+    /**
+     * 获取已经加入查询的表，按加入顺序排列，只读
+     *
+     * @return 返回已经加入查询的表
+     */
+    public List<JoinTableInfo> getQueryTables() {
+        return this.queryTables.list();
+    }
+
+    /**
+     * 获取已经加入查询的表的索引
+     *
+     * @return 返回表的索引
+     */
+    public TableRegistry getTableRegistry() {
+        return this.queryTables;
+    }
+
     /**
      * 关闭租户条件查询
      * <p>
@@ -399,6 +847,7 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
      */
     public QueryJoin<M> disableTenant() {
         disableTenant = true;
+        this.plan = null;
         return this;
     }
 
@@ -411,6 +860,7 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
      */
     public QueryJoin<M> disableLogicDelete() {
         disableLogicDelete = true;
+        this.plan = null;
         return this;
     }
 
@@ -421,6 +871,78 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
      */
     public QueryJoin<M> enableDistinct() {
         enableDistinct = true;
+        this.plan = null;
+        return this;
+    }
+
+    /**
+     * 使用延迟关联分页，适用于需要任意跳页的深分页
+     * <p>
+     * 先按照全部的条件和排序只分页查询主表的主键，再按照这一页的主键查询需要的字段，
+     * 数据库只需要为这一页的行读取全部的字段和关联表，不会为 OFFSET 跳过的行读取；
+     * 要求每个主表主键最多对应一行结果，即全部的关联都是通过被关联表主键的 LEFT JOIN 或 INNER JOIN（见 {@link JoinClause#isSingleRow()}）；
+     * 有一对多的关联，或者是 DISTINCT、GROUP BY、HAVING 和 UNION 查询时，自动退回到普通分页。
+     * {@code last(...)} 的语句会同时加在两次查询的末尾，优化器提示 {@link QueryJoin#hint(String)} 同样在两次查询中生效
+     *
+     * @return 返回本实例
+     */
+    public QueryJoin<M> deferredJoin() {
+        this.deferredJoin = true;
+        return this;
+    }
+
+    /**
+     * 使用原生分页，分页查询不再经过MyBatis-Plus的分页插件
+     * <p>
+     * 总数使用 {@link JoinMapper#count(QueryJoin)} 统计，数据查询直接在语句末尾追加 {@link Dialect#limit(long, long)}，
+     * 分页插件不会再用 JSqlParser 解析生成的语句；分组、去重需要统计总数时，以及联合查询，仍然使用分页插件
+     *
+     * @return 返回本实例
+     */
+    public QueryJoin<M> nativePaging() {
+        this.nativePaging = true;
+        return this;
+    }
+
+    /**
+     * 分页时使用 {@code COUNT(*) OVER()} 与数据一起查询总数，只需要一次查询
+     * <p>
+     * 需要数据库支持窗口函数，见 {@link Dialect#supportWindowFunction()}，不支持时仍然先统计再查询；
+     * 数据查询与原生分页相同，直接追加 {@link Dialect#limit(long, long)}
+     *
+     * @return 返回本实例
+     */
+    public QueryJoin<M> windowCount() {
+        this.windowCount = true;
+        return this;
+    }
+
+    /**
+     * 为查询添加优化器提示，按照 {@link Dialect#hint(String)} 生成在 {@code SELECT} 之后，数据库不支持提示时忽略
+     * <p>
+     * 如 MySQL 的 {@code hint("JOIN_ORDER(user, dept)")} 生成 {@code SELECT /*+ JOIN_ORDER(user, dept) *&#47; ...}
+     *
+     * @param hint 提示的内容，不能包含注释的结束符
+     * @return 返回本实例
+     */
+    public QueryJoin<M> hint(String hint) {
+        if (hint != null && hint.contains("*/")) {
+            throw new MybatisPlusException("优化器提示不能包含注释的结束符");
+        }
+        this.hint = StrUtil.isBlank(hint) ? null : hint;
+        return this;
+    }
+
+    /**
+     * 统计数量和分页的总数时使用数据库的估算值，适用于数据量很大、只需要大致总数的场景
+     * <p>
+     * 估算值来自 {@link JoinConfig#countEstimator()}，没有配置估算器或者无法估算时仍然精确统计；
+     * 分页对象是 {@link JoinPage} 时，通过 {@link JoinPage#isApproximate()} 判断总数是否是估算值
+     *
+     * @return 返回本实例
+     */
+    public QueryJoin<M> approximateCount() {
+        this.approximateCount = true;
         return this;
     }
 
@@ -461,18 +983,12 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
     @SafeVarargs
     private final <E extends Model<E>> QueryJoin<M> selectAny(SelectType selectType, Class<E>... es) {
         Consumer<JoinTableInfo> consumer = selectType == SelectType.ALL ? JoinTableInfo::selectAll : JoinTableInfo::selectNone;
+        this.beforeStructureChange();
         if (ArrayUtils.isEmpty(es)) {
-            this.queryTables.forEach(consumer);
+            this.queryTables.list().forEach(consumer);
         } else {
             Arrays.stream(es)
-                    .map(e -> {
-                        JoinTableInfo jti = new JoinTableInfo(TableInfoHelper.getTableInfo(e));
-                        return this.queryTables
-                                .stream()
-                                .filter(t -> t.equals(jti))
-                                .findFirst()
-                                .orElse(null);
-                    })
+                    .map(this.queryTables::byEntity)
                     .filter(Objects::nonNull)
                     .forEach(consumer);
         }
@@ -508,6 +1024,7 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
     public final <S extends Model<S>> QueryJoin<M> selects(SFunction<S, ?>... gets) {
         // 不管几个参数，所属的类型都是相同的，那就先解析一个
         if (ArrayUtils.isNotEmpty(gets)) {
+            this.beforeStructureChange();
             ColumnInfo
                     .init(this.queryTables, gets[0])
                     .getJoinTableInfo()
@@ -525,6 +1042,7 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
      * @return 返回本实例
      */
     public <S extends Model<S>> QueryJoin<M> select(SFunction<S, ?> get, String alias) {
+        this.beforeStructureChange();
         ColumnInfo<S> ci = ColumnInfo.init(this.queryTables, get, alias);
 
         if (StrUtil.isBlank(alias)) {
@@ -546,8 +1064,8 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
     protected QueryJoin<M> instance() {
         return new QueryJoin<>(master, joinConfig, getEntity(), getEntityClass(), paramNameSeq, paramNameValuePairs,
                 new MergeSegments(), SharedString.emptyString(), SharedString.emptyString(), SharedString.emptyString(),
-                this.queryTables, this.selectOthers, this.sqlFrom, this.unions, this.unionAlls, this.disableTenant,
-                this.enableDistinct, this.disableLogicDelete);
+                this.queryTables, this.selectOthers, this.unions, this.unionAlls, this.disableTenant,
+                this.enableDistinct, this.disableLogicDelete, this.predicateColumns, this.appliedSqls, this.rawSqls);
     }
 
     /**
@@ -557,25 +1075,86 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
      */
     @Override
     public String getSqlSelect() {
-        StringBuilder sqlSelect = new StringBuilder(enableDistinct ? StrUtil.DISTINCT.concat(StrUtil.SPACE) : StrUtil.EMPTY);
+        String sqlSelect = this.selectOverride;
+        if (sqlSelect == null) {
+            sqlSelect = this.plan().getSqlSelect();
+            sqlSelect = this.extraSelect == null ? sqlSelect : sqlSelect.concat(this.extraSelect);
+        }
 
-        if (!this.selectOthers.isEmpty()) {
-            this.selectOthers.forEach((k, v) -> {
-                if (StrUtil.isBlank(v)) {
-                    sqlSelect.append(k)
-                            .append(StrUtil.COMMA);
-                } else {
-                    sqlSelect.append(v)
-                            .append(StrUtil.SPACE)
-                            .append(StrUtil.AS)
-                            .append(StrUtil.SPACE)
-                            .append(k)
-                            .append(StrUtil.COMMA);
+        if (this.hint == null) {
+            return sqlSelect;
+        }
+        String comment = this.dialect().hint(this.hint);
+        return StrUtil.isEmpty(comment) ? sqlSelect : comment.concat(StrUtil.SPACE).concat(sqlSelect);
+    }
+
+    /**
+     * 获取当前查询结构的执行计划
+     * <p>
+     * 相同结构的查询共用同一份计划，不需要每次都重新渲染查询字段、From 语句和推导租户、逻辑删除条件
+     *
+     * @return 返回执行计划
+     */
+    private QueryPlan plan() {
+        if (this.plan == null || this.planVersion != this.queryTables.version()) {
+            this.planVersion = this.queryTables.version();
+            this.plan = QueryPlanCache.get(this.planKey(), k -> this.buildPlan());
+        }
+        return this.plan;
+    }
+
+    /**
+     * 生成查询结构的指纹，只包含结构，不包含任何条件值
+     * <p>
+     * 只收集结构中各部分的引用，不拼接字符串，见 {@link QueryPlanKey}
+     *
+     * @return 返回指纹
+     */
+    private QueryPlanKey planKey() {
+        List<Object> key = new ArrayList<>(16 + 2 * this.selectOthers.size() + 8 * this.queryTables.size());
+        key.add(this.enableDistinct);
+        key.add(this.disableTenant);
+        key.add(this.disableLogicDelete);
+        if (this.joinConfig != null && !this.disableTenant) {
+            key.add(this.joinConfig.tenantColumn());
+            key.add(this.joinConfig.tenantClass());
+        }
+        key.add(this.selectOthers.size());
+        this.selectOthers.forEach((k, v) -> {
+            key.add(k);
+            key.add(v);
+        });
+        key.add(this.queryTables.size());
+        this.queryTables.list().forEach(jti -> jti.appendPlanKey(key));
+        this.queryTables.joins().forEach(join -> join.appendPlanKey(key));
+        return new QueryPlanKey(key.toArray());
+    }
+
+    /**
+     * 根据当前的结构构建执行计划
+     *
+     * @return 返回执行计划
+     */
+    private QueryPlan buildPlan() {
+        StringBuilder sqlSelect = new StringBuilder(enableDistinct ? StrUtil.DISTINCT.concat(StrUtil.SPACE) : StrUtil.EMPTY);
+
+        if (!this.selectOthers.isEmpty()) {
+            this.selectOthers.forEach((k, v) -> {
+                if (StrUtil.isBlank(v)) {
+                    sqlSelect.append(k)
+                            .append(StrUtil.COMMA);
+                } else {
+                    sqlSelect.append(v)
+                            .append(StrUtil.SPACE)
+                            .append(StrUtil.AS)
+                            .append(StrUtil.SPACE)
+                            .append(k)
+                            .append(StrUtil.COMMA);
                 }
             });
         }
 
-        this.queryTables
+        this.queryTables.list()
                 .forEach(jti -> {
                     String selectString = jti.selectString();
                     if (cn.hutool.core.util.StrUtil.isNotBlank(selectString)) {
@@ -584,49 +1163,23 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
                     }
                 });
 
+        // 如果不是以 ',' 结尾，那肯定就是没查询任何东西，使用查询字段时再抛出异常
+        String select = null;
         if (sqlSelect.toString().endsWith(StrUtil.COMMA)) {
-            int length = sqlSelect.length();
-            sqlSelect.delete(length - 1, length);
-        } else {
-            // 如果不是以 ',' 结尾，那肯定就是没查询任何东西
-            throw new MybatisPlusException("未查询任何字段");
-        }
-
-        return sqlSelect.toString();
-    }
-
-    /**
-     * 拼装条件
-     *
-     * @return 返回条件的sql
-     */
-    @Override
-    public String getCustomSqlSegment() {
-        if (this.queryTables.isEmpty() || (disableLogicDelete && disableTenant)) {
-            return super.getCustomSqlSegment();
-        }
-
-        final List<Serializable> tenants = new ArrayList<>();
-        if (!disableTenant) {
-            tenants.addAll(Optional.of(Optional.of(joinConfig)
-                            .orElse(new JoinConfig.DefaultJoinConfig()).tenants())
-                    .orElse(new ArrayList<>(0)));
+            select = sqlSelect.substring(0, sqlSelect.length() - 1);
         }
-        final String sql = super.getCustomSqlSegment();
 
-        this.queryTables.forEach(table -> {
-            if (!disableTenant) {
+        List<String> tenantColumns = new ArrayList<>();
+        Map<String, Object> logicDeleteColumns = new LinkedHashMap<>();
+        this.queryTables.list().forEach(table -> {
+            if (!disableTenant && joinConfig != null) {
                 Class<?> superClass = table.getTableInfo()
                         .getEntityType()
                         .getSuperclass();
-                String columnStr = table.getAliasName()
-                        .concat(StrUtil.DOT)
-                        .concat(joinConfig.tenantColumn());
-                boolean ten = superClass == joinConfig.tenantClass() && !sql.contains(columnStr);
-                if (tenants.size() == 1) {
-                    eq(ten, columnStr, tenants.get(0));
-                } else {
-                    in(ten, columnStr, tenants);
+                if (superClass == joinConfig.tenantClass()) {
+                    tenantColumns.add(table.getAliasName()
+                            .concat(StrUtil.DOT)
+                            .concat(joinConfig.tenantColumn()));
                 }
             }
 
@@ -637,307 +1190,849 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
                             .concat(StrUtil.DOT)
                             .concat(logicDelete.getColumn());
                     String ld = logicDelete.getLogicNotDeleteValue();
-                    if (NumberUtil.isNumber(ld)) {
-                        eq(!sql.contains(columnStr), columnStr, NumberUtil.parseNumber(ld));
-                    } else {
-                        eq(!sql.contains(columnStr), columnStr, ld);
-                    }
+                    logicDeleteColumns.put(columnStr, NumberUtil.isNumber(ld) ? NumberUtil.parseNumber(ld) : ld);
                 }
             }
         });
 
-        StrBuilder lastSql = cn.hutool.core.util.StrUtil.strBuilder();
-        this.unions.forEach(union -> lastSql.append(StrUtil.SPACE).append(UNION.concat(StrUtil.SPACE).concat(union.getFullSql())));
-        this.unionAlls.forEach(union -> lastSql.append(StrUtil.SPACE).append(UNION_ALL.concat(StrUtil.SPACE).concat(union.getFullSql())));
-        last(cn.hutool.core.util.StrUtil.replace(lastSql, "  ", " "));
-        return super.getCustomSqlSegment();
+        return new QueryPlan(select, this.renderFrom(this.queryTables.joins()), tenantColumns, logicDeleteColumns);
     }
 
     /**
-     * 获取 From 语句
+     * 拼装条件
      *
-     * @return 返回
+     * @return 返回条件的sql
      */
-    public String getFrom() {
-        return sqlFrom.toString();
+    @Override
+    public String getCustomSqlSegment() {
+        if (this.queryTables.isEmpty() || (disableLogicDelete && disableTenant)) {
+            this.lastUnions();
+            return this.overriddenSqlSegment();
+        }
+
+        // 同一个执行计划只追加一次，结构变化后执行计划不同，再追加新加入的表的条件；
+        // 追加的条件同样会记录到条件字段中，不会重复追加
+        final QueryPlan queryPlan = this.plan();
+        if (queryPlan == this.injectedPlan) {
+            this.lastUnions();
+            return this.overriddenSqlSegment();
+        }
+
+        List<Serializable> tenants = null;
+        for (String columnStr : queryPlan.getTenantColumns()) {
+            if (this.hasPredicate(columnStr)) {
+                continue;
+            }
+
+            if (tenants == null) {
+                tenants = new ArrayList<>(Optional.ofNullable(Optional.ofNullable(joinConfig)
+                                .orElse(DEFAULT_CONFIG).tenants())
+                        .orElse(new ArrayList<>(0)));
+                // 编译时只固定租户值的个数，每次执行时再取值
+                tenants = this.compiling ? Slot.tenants(tenants.size()) : tenants;
+            }
+            this.tenantInjected = this.tenantInjected || !this.compiling;
+            if (tenants.size() == 1) {
+                eq(true, columnStr, tenants.get(0));
+            } else {
+                in(true, columnStr, tenants);
+            }
+        }
+        queryPlan.getLogicDeleteColumns().forEach((columnStr, ld) -> eq(!this.hasPredicate(columnStr), columnStr, ld));
+        this.injectedPlan = queryPlan;
+
+        this.lastUnions();
+        return this.overriddenSqlSegment();
     }
 
     /**
-     * 获取完整的sql语句
-     * 字符串截取和拼接可能会有问题，需要寻求MyBatis-Plus的解决方式
+     * 条件中是否已经使用了字段
+     * <p>
+     * 先查找加入条件时记录的字段，再按完整的标识符查找通过 {@code apply} 加入的原始条件
      *
-     * @return 返回
+     * @param columnStr 带表别名的字段
+     * @return true已经使用
      */
-    public String getFullSql() {
-        Map<String, Object> pairs = this.getParamNameValuePairs();
-        String targetSql = getCustomSqlSegment();
-        if (CollectionUtils.isNotEmpty(pairs) && StrUtil.isNotBlank(targetSql)) {
-            for (Map.Entry<String, Object> entry : pairs.entrySet()) {
-                String key = entry.getKey();
-                String keyWorld = String.format(Constants.WRAPPER_PARAM_FORMAT, Constants.WRAPPER, key);
-
-                Object val = entry.getValue();
-                targetSql = targetSql.replace(keyWorld, StringUtils.sqlParam(val));
+    private boolean hasPredicate(String columnStr) {
+        if (this.predicateColumns.contains(columnStr)) {
+            return true;
+        }
+        for (String appliedSql : this.appliedSqls) {
+            if (StrUtil.containsColumn(appliedSql, columnStr)) {
+                return true;
             }
         }
-
-        return StrUtil.SELECT
-                .concat(enableDistinct ? StrUtil.DISTINCT.concat(StrUtil.SPACE) : StrUtil.SPACE)
-                .concat(getSqlSelect())
-                .concat(StrUtil.SPACE)
-                .concat(StrUtil.FROM)
-                .concat(StrUtil.SPACE)
-                .concat(getFrom())
-                .concat(StrUtil.SPACE)
-                .concat(targetSql);
+        return false;
     }
 
     /**
-     * 指定查询的字段，需要注意的是查询的字段前要加表别名，否则会出错，建议不直接使用此函数
-     *
-     * @param columns 需要查询的字段
-     * @return 返回本实例
-     *
-     * @see QueryJoin#select(SFunction)
-     * @see QueryJoin#select(SFunction, String)
+     * 加入条件时记录条件中的字段，用于判断是否需要追加租户、逻辑删除条件
+     * <p>
+     * 普通条件（如 {@code eq}、{@code in}、{@code isNull}）的第一段是字段，只生成字段名，不会生成参数；
+     * 以关键字开头的片段（如嵌套条件、排序、分组）不记录
      */
     @Override
-    public QueryJoin<M> select(String... columns) {
-        if (ArrayUtils.isEmpty(columns)) {
-            return this;
+    protected QueryJoin<M> doIt(boolean condition, ISqlSegment... sqlSegments) {
+        if (condition && sqlSegments.length > 1
+                && !(sqlSegments[0] instanceof SqlKeyword) && !(sqlSegments[0] instanceof WrapperKeyword)) {
+            String columnStr = sqlSegments[0].getSqlSegment();
+            if (columnStr != null) {
+                this.predicateColumns.add(columnStr.trim());
+            }
         }
-
-        Arrays.stream(columns)
-                .forEach(c -> {
-                    if (this.selectOthers.containsKey(c)) {
-                        log.warn("查询的字段[{}]已经存在了查询列表中", c);
-                    } else {
-                        this.selectOthers.put(c, StrUtil.EMPTY);
-                    }
-                });
-
-        return typedThis;
+        return super.doIt(condition, sqlSegments);
     }
 
     /**
-     * 暂时不支持这种查询
-     *
-     * @param entityClass 主实体
-     * @param predicate   查询字段处理器
-     * @return 返回本实例
-     *
-     * @throws UnsupportedOperationException 永久抛出此异常，此函数暂未实现
+     * 模糊查询的值会先拼接上 {@code %} 再作为参数，参数槽位会被转换为字符串，不能用于模糊查询
      */
     @Override
-    public QueryJoin<M> select(Class<M> entityClass, Predicate<TableFieldInfo> predicate) {
-        master.getTableInfo()
-                .getFieldList()
-                .stream()
-                .filter(predicate)
-                .forEach(f -> this.master.selectSome(f.getColumn(), f.getProperty()));
-        return this;
+    protected QueryJoin<M> likeValue(boolean condition, SqlKeyword keyword, String column, Object val, SqlLike sqlLike) {
+        if (condition && val instanceof Slot) {
+            throw new MybatisPlusException(String.format(
+                    "模糊查询不能使用参数槽位[%s]，可以使用 apply(\"%s LIKE {0}\", slot) 并在绑定时传入带%%的值",
+                    ((Slot<?>) val).getName(), column));
+        }
+        return super.likeValue(condition, keyword, column, val, sqlLike);
     }
 
     /**
-     * 清空条件构造器
+     * 加入原始的条件，记录条件的语句，用于判断是否需要追加租户、逻辑删除条件
      */
     @Override
-    public void clear() {
-        super.clear();
-        this.listResult = null;
-        this.pageResult = null;
-        this.sqlFrom.setLength(0);
-        this.queryTables.clear();
-        this.addTable(master, null);
+    public QueryJoin<M> apply(boolean condition, String applySql, Object... value) {
+        if (condition && applySql != null) {
+            this.appliedSqls.add(applySql);
+        }
+        return super.apply(condition, applySql, value);
     }
 
     /**
-     * 通过 WHERE 条件进行关联
-     *
-     * @param tableEntity 需要关联的实体
-     * @param <O>         需要关联的实体类型
-     * @return 返回关联实例进行关系对应
+     * 加入子查询条件，记录子查询的语句，用于判断关联的表是否被使用
      */
-    public <O extends Model<O>> JoinOn<M, O> whereJoin(Class<O> tableEntity) {
-        return joinSelect(tableEntity, JoinType.WHERE);
+    @Override
+    public QueryJoin<M> inSql(boolean condition, String column, String inValue) {
+        this.raw(condition, inValue);
+        return super.inSql(condition, column, inValue);
     }
 
     /**
-     * 通过 JOIN 进行关联
-     *
-     * @param tableEntity 需要关联的实体
-     * @param <O>         需要关联的实体类型
-     * @return 返回关联实例进行关系对应
+     * 加入子查询条件，记录子查询的语句，用于判断关联的表是否被使用
      */
-    public <O extends Model<O>> JoinOn<M, O> join(Class<O> tableEntity) {
-        return joinSelect(tableEntity, JoinType.JOIN);
+    @Override
+    public QueryJoin<M> notInSql(boolean condition, String column, String inValue) {
+        this.raw(condition, inValue);
+        return super.notInSql(condition, column, inValue);
     }
 
     /**
-     * 通过 INNER JOIN 条件进行关联
-     *
-     * @param tableEntity 需要关联的实体
-     * @param <O>         需要关联的实体类型
-     * @return 返回关联实例进行关系对应
+     * 加入 EXISTS 条件，记录子查询的语句，用于判断关联的表是否被使用
      */
-    public <O extends Model<O>> JoinOn<M, O> innerJoin(Class<O> tableEntity) {
-        return joinSelect(tableEntity, JoinType.INNER);
+    @Override
+    public QueryJoin<M> exists(boolean condition, String existsSql) {
+        this.raw(condition, existsSql);
+        return super.exists(condition, existsSql);
     }
 
     /**
-     * 通过 CROSS JOIN 条件进行关联
-     *
-     * @param tableEntity 需要关联的实体
-     * @param <O>         需要关联的实体类型
-     * @return 返回关联实例进行关系对应
+     * 加入 NOT EXISTS 条件，记录子查询的语句，用于判断关联的表是否被使用
      */
-    public <O extends Model<O>> JoinOn<M, O> crossJoin(Class<O> tableEntity) {
-        return joinSelect(tableEntity, JoinType.CROSS);
+    @Override
+    public QueryJoin<M> notExists(boolean condition, String existsSql) {
+        this.raw(condition, existsSql);
+        return super.notExists(condition, existsSql);
     }
 
     /**
-     * 通过 LEFT JOIN 条件进行关联
-     *
-     * @param tableEntity 需要关联的实体
-     * @param <O>         需要关联的实体类型
-     * @return 返回关联实例进行关系对应
+     * 加入 HAVING 条件，记录条件的语句，用于判断关联的表是否被使用
      */
-    public <O extends Model<O>> JoinOn<M, O> leftJoin(Class<O> tableEntity) {
-        return joinSelect(tableEntity, JoinType.LEFT);
+    @Override
+    public QueryJoin<M> having(boolean condition, String sqlHaving, Object... params) {
+        this.raw(condition, sqlHaving);
+        return super.having(condition, sqlHaving, params);
+    }
+
+    private void raw(boolean condition, String sql) {
+        if (condition && sql != null) {
+            this.rawSqls.add(sql);
+        }
     }
 
     /**
-     * 通过 RIGHT JOIN 条件进行关联
-     *
-     * @param tableEntity 需要关联的实体
-     * @param <O>         需要关联的实体类型
-     * @return 返回关联实例进行关系对应
+     * 将联合查询的分支拼接到语句的末尾
      */
-    public <O extends Model<O>> JoinOn<M, O> rightJoin(Class<O> tableEntity) {
-        return joinSelect(tableEntity, JoinType.RIGHT);
+    private void lastUnions() {
+        if (this.unions.isEmpty() && this.unionAlls.isEmpty()) {
+            return;
+        }
+
+        StrBuilder lastSql = cn.hutool.core.util.StrUtil.strBuilder();
+        this.unions.forEach(union -> lastSql.append(StrUtil.SPACE).append(UNION.concat(StrUtil.SPACE).concat(union.getBranchSql())));
+        this.unionAlls.forEach(union -> lastSql.append(StrUtil.SPACE).append(UNION_ALL.concat(StrUtil.SPACE).concat(union.getBranchSql())));
+        last(cn.hutool.core.util.StrUtil.replace(lastSql, "  ", " "));
     }
 
     /**
-     * 通过 JOIN 进行关联
+     * 获取执行期间替换后的条件
      *
-     * @param tableEntity 需要关联的实体
-     * @param <O>         需要关联的实体类型
-     * @return 返回关联实例进行关系对应
+     * @return 返回条件的sql
      */
-    public <O extends Model<O>> JoinOn<M, O> joinSelect(Class<O> tableEntity, JoinType joinType) {
-        TableInfo joinInfo = TableInfoHelper.getTableInfo(tableEntity);
-        if (master == null) {
-            throw new MybatisPlusException("创建关联查询失败，无法获取表类型信息");
+    private String overriddenSqlSegment() {
+        if (this.segmentOverride != null) {
+            return this.segmentOverride;
         }
+        if (this.compiledSqlSegment != null) {
+            return this.limit > 0
+                    ? this.compiledSqlSegment.concat(StrUtil.SPACE).concat(this.dialect().limit(this.limit, this.offset))
+                    : this.compiledSqlSegment;
+        }
+        return this.limit > 0 ? this.limitedSqlSegment() : super.getCustomSqlSegment();
+    }
 
-        JoinTableInfo et = new JoinTableInfo(joinInfo);
-        this.addTable(et, null);
-
-        if (joinType == JoinType.WHERE) {
-            /// ",table_name AS aliasName"
-            this.sqlFrom.append(StrUtil.COMMA);
-        } else {
-            String join;
-            switch (joinType) {
-                case JOIN:
-                    join = StrUtil.JOIN;
-                    break;
-                case INNER:
-                    join = StrUtil.INNER_JOIN;
-                    break;
-                case CROSS:
-                    join = StrUtil.CROSS_JOIN;
-                    break;
-                case LEFT:
-                    join = StrUtil.LEFT_JOIN;
-                    break;
-                case RIGHT:
-                    join = StrUtil.RIGHT_JOIN;
-                    break;
-                default:
-                    throw new UnsupportedOperationException("不支持的join操作：" + joinType);
+    /**
+     * 拼装限制数量的条件，键集分页时在已有的条件之后追加从上一页之后开始的条件
+     *
+     * @return 返回条件的sql
+     */
+    private String limitedSqlSegment() {
+        MergeSegments segments = this.getExpression();
+        StringBuilder sql = new StringBuilder(128);
+        if (!segments.getNormal().isEmpty() || this.seekSegment != null) {
+            sql.append(Constants.WHERE).append(StrUtil.SPACE);
+            if (segments.getNormal().isEmpty()) {
+                sql.append(this.seekSegment);
+            } else {
+                sql.append(segments.getNormal().getSqlSegment());
+                if (this.seekSegment != null) {
+                    sql.append(StrUtil.SPACE).append(StrUtil.AND).append(StrUtil.SPACE).append(this.seekSegment);
+                }
             }
-
-            /// " ${join} table_name AS aliasName"
-            this.sqlFrom
-                    .append(StrUtil.SPACE)
-                    .append(join)
-                    .append(StrUtil.SPACE);
         }
-        this.sqlFrom
-                .append(et.getTableInfo().getTableName())
-                .append(StrUtil.SPACE)
-                .append(StrUtil.AS)
+        // 只有没有 last 语句时才会限制数量，见 QueryJoin#limitable()
+        return sql.append(segments.getGroupBy().getSqlSegment())
+                .append(segments.getHaving().getSqlSegment())
+                .append(this.orderByOverride != null ? this.orderByOverride : segments.getOrderBy().getSqlSegment())
                 .append(StrUtil.SPACE)
-                .append(et.getAliasName());
-        return new JoinOn<>(joinType, sqlFrom, this);
+                .append(this.dialect().limit(this.limit, this.offset))
+                .toString();
     }
 
-    private JoinMapper<?> executeCheck() {
-        if (this.joinConfig == null || this.joinConfig.mapper() == null) {
-            throw new MybatisPlusException("查询连接未设置");
+    /**
+     * 获取 From 语句
+     * <p>
+     * 经过 {@link JoinConfig#joinOptimizers()} 优化，默认不省略关联；配置 {@link org.join.plus.optimize.UnusedJoinEliminator#WITH_DATA} 时省略没有查询字段、没有被使用的主键 LEFT JOIN
+     *
+     * @return 返回
+     */
+    public String getFrom() {
+        if (this.fromOverride != null) {
+            return this.fromOverride;
         }
-
-        return this.joinConfig.mapper();
+        return this.optimizedFrom(JoinContext.Purpose.DATA);
     }
 
     /**
-     * 查询一个结果并返回，如果有多个结果，则抛出异常
+     * 获取统计数量使用的 From 语句
+     * <p>
+     * 经过 {@link JoinConfig#joinOptimizers()} 优化，默认省略不影响数量的关联：通过被关联表的主键进行的 LEFT JOIN，且该表没有在条件、分组、其它关联中使用
      *
-     * @return 返回查询的结果
+     * @return 返回
      */
-    public Map<String, Object> oneMap() {
-        return oneMap(true);
+    public String getCountFrom() {
+        if (this.pinnedCountFrom != null) {
+            return this.pinnedCountFrom;
+        }
+
+        // 先追加租户和逻辑删除条件，这些条件也会使用关联的表
+        this.getCustomSqlSegment();
+        return this.optimizedFrom(JoinContext.Purpose.COUNT);
     }
 
     /**
-     * 查询并返回
+     * 获取统计数量使用的条件，与 {@link QueryJoin#getCustomSqlSegment()} 相同，但不包含排序
      *
-     * @param onlyOne true最多只会有一个结果，如果出现多个则抛出异常，false可能会出现多个结果，但直接取第一个结果
-     * @return 返回查询的结果
+     * @return 返回条件的sql
      */
-    public Map<String, Object> oneMap(boolean onlyOne) {
-        return executeCheck().oneMap(this.last(!onlyOne, "LIMIT 0,1"));
+    public String getCountSqlSegment() {
+        if (this.pinnedCountSqlSegment != null) {
+            return this.pinnedCountSqlSegment;
+        }
+
+        String sql = this.getCustomSqlSegment();
+        MergeSegments segments = this.getExpression();
+        if (segments.getOrderBy().isEmpty() && this.segmentOverride == null && this.limit <= 0) {
+            return sql;
+        }
+
+        StringBuilder countSql = new StringBuilder(sql.length());
+        if (!segments.getNormal().isEmpty()) {
+            countSql.append(Constants.WHERE)
+                    .append(StrUtil.SPACE)
+                    .append(segments.getNormal().getSqlSegment());
+        }
+        return countSql.append(segments.getGroupBy().getSqlSegment())
+                .append(segments.getHaving().getSqlSegment())
+                .append(this.lastSql.getStringValue())
+                .toString();
     }
 
     /**
-     * 查询并返回
+     * 经过 {@link JoinConfig#joinOptimizers()} 依次优化关联后生成 From 语句，没有优化器调整关联时使用缓存的完整语句
      *
-     * @param onlyOne true最多只会有一个结果，如果出现多个则抛出异常，false可能会出现多个结果，但直接取第一个结果
-     * @return 返回查询的结果
+     * @param purpose 语句的用途
+     * @return 返回 From 语句
      */
-    public Map<String, Object> oneMap(JoinMapper<?> superMapper, boolean onlyOne) {
-        return superMapper.oneMap(this.last(!onlyOne, "LIMIT 0,1"));
+    private String optimizedFrom(JoinContext.Purpose purpose) {
+        List<JoinClause> joins = this.queryTables.joins();
+        List<JoinOptimizer> optimizers = Optional.ofNullable(joinConfig).orElse(DEFAULT_CONFIG).joinOptimizers();
+        if (joins.isEmpty() || CollUtil.isEmpty(optimizers)) {
+            return this.fullFrom();
+        }
+
+        JoinContext context = new JoinContext(purpose, () -> this.usedAliases(purpose));
+        List<JoinClause> optimized = joins;
+        for (JoinOptimizer optimizer : optimizers) {
+            optimized = optimizer.optimize(optimized, context);
+        }
+        return optimized == joins ? this.fullFrom() : this.renderFrom(optimized);
     }
 
     /**
-     * 查询并返回
+     * 包含全部关联的 From 语句，保存在执行计划中，相同结构的查询共用
      *
-     * @return 返回查询的结果
+     * @return 返回 From 语句
      */
-    public List<Map<String, Object>> listMap() {
-        return executeCheck().listMap(this);
+    private String fullFrom() {
+        return this.plan().getSqlFrom();
     }
 
     /**
-     * 查询并返回
+     * 按主表和指定的关联生成 From 语句
      *
-     * @return 返回查询的结果
+     * @param joins 关联
+     * @return 返回 From 语句
      */
-    public List<Map<String, Object>> listMap(JoinMapper<?> superMapper) {
-        return superMapper.listMap(this);
+    private String renderFrom(List<JoinClause> joins) {
+        this.sqlFrom.setLength(0);
+        this.queryTables.render(this.sqlFrom, joins);
+        return this.sqlFrom.toString();
     }
 
     /**
-     * 查询分页结果并返回
-     *
-     * @return 返回分页查询的结果
+     * 按照加入时记录的结构收集除 From 之外的语句中使用的表别名，用于判断关联的表是否被使用，不解析语句的文本
+     * <p>
+     * 条件、分组、排序和查询的字段需要是"表别名.字段名"的形式；
+     * 有通过字符串加入的条件、子查询、HAVING、{@code last} 语句，或者无法识别的字段时，无法判断使用了哪些表
+     *
+     * @param purpose 语句的用途，查询数据时包含查询的字段，统计数量时不包含排序
+     * @return 返回使用的表别名，无法判断时返回空
+     */
+    private Set<String> usedAliases(JoinContext.Purpose purpose) {
+        // 先追加租户和逻辑删除条件，这些条件同样会使用关联的表
+        this.getCustomSqlSegment();
+        boolean userLast = this.unions.isEmpty() && this.unionAlls.isEmpty()
+                && StrUtil.isNotEmpty(this.lastSql.getStringValue());
+        if (!this.appliedSqls.isEmpty() || !this.rawSqls.isEmpty() || userLast) {
+            return null;
+        }
+
+        Set<String> aliases = new HashSet<>(8);
+        for (String column : this.predicateColumns) {
+            if (!this.addAlias(aliases, column)) {
+                return null;
+            }
+        }
+        for (ISqlSegment segment : this.getExpression().getGroupBy()) {
+            for (String column : segment.getSqlSegment().split(StrUtil.COMMA)) {
+                if (!this.addAlias(aliases, column)) {
+                    return null;
+                }
+            }
+        }
+        if (purpose == JoinContext.Purpose.COUNT) {
+            return aliases;
+        }
+
+        for (OrderItem orderItem : this.orderItems) {
+            if (!this.addAlias(aliases, orderItem.getColumn())) {
+                return null;
+            }
+        }
+        if (purpose == JoinContext.Purpose.KEY) {
+            return aliases;
+        }
+
+        for (Map.Entry<String, String> select : this.selectOthers.entrySet()) {
+            if (!this.addAlias(aliases, StrUtil.isBlank(select.getValue()) ? select.getKey() : select.getValue())) {
+                return null;
+            }
+        }
+        this.queryTables.list().forEach(table -> {
+            if (table.isSelected()) {
+                aliases.add(table.getAliasName());
+            }
+        });
+        return aliases;
+    }
+
+    /**
+     * 记录"表别名.字段名"形式的字段中的表别名
+     *
+     * @param aliases 使用的表别名
+     * @param column  字段，可以带有字段别名
+     * @return 是这种形式且表别名已经加入查询时返回true，否则无法判断使用了哪个表，返回false
+     */
+    private boolean addAlias(Set<String> aliases, String column) {
+        Matcher matcher = QUALIFIED_COLUMN.matcher(column.trim());
+        if (!matcher.matches() || this.queryTables.byAlias(matcher.group(1)) == null) {
+            return false;
+        }
+        aliases.add(matcher.group(1));
+        return true;
+    }
+
+    /**
+     * 获取完整的sql语句，条件值替换为字面量，用于阅读和记录日志
+     * <p>
+     * 条件值通过 {@link SqlRenderer} 一次扫描完成替换
+     *
+     * @return 返回
+     */
+    public String getFullSql() {
+        String targetSql = SqlRenderer.render(getCustomSqlSegment(), this.getParamNameValuePairs());
+        return StrUtil.SELECT
+                .concat(StrUtil.SPACE)
+                .concat(getSqlSelect())
+                .concat(StrUtil.SPACE)
+                .concat(StrUtil.FROM)
+                .concat(StrUtil.SPACE)
+                .concat(getFrom())
+                .concat(StrUtil.SPACE)
+                .concat(targetSql);
+    }
+
+    /**
+     * 获取作为联合查询分支的sql语句
+     * <p>
+     * 与 {@link QueryJoin#getFullSql()} 不同，条件值保留为占位符；分支与主查询共用参数，占位符按主查询的参数解析，
+     * 条件值变化时语句不变，可以复用预编译的语句
+     *
+     * @return 返回
+     */
+    private String getBranchSql() {
+        return StrUtil.SELECT
+                .concat(StrUtil.SPACE)
+                .concat(getSqlSelect())
+                .concat(StrUtil.SPACE)
+                .concat(StrUtil.FROM)
+                .concat(StrUtil.SPACE)
+                .concat(getFrom())
+                .concat(StrUtil.SPACE)
+                .concat(getCustomSqlSegment());
+    }
+
+    /**
+     * 创建联合查询的分支，分支与本查询共用参数
+     *
+     * @param tableEntity 分支的主表类型
+     * @param <U>         类型
+     * @return 返回分支的查询
+     */
+    private <U extends Model<U>> QueryJoin<U> branch(Class<U> tableEntity) {
+        return this.branch(tableEntity, this.joinConfig);
+    }
+
+    /**
+     * 创建联合查询的分支，分支与本查询共用参数
+     *
+     * @param tableEntity 分支的主表类型
+     * @param joinConfig  分支使用的配置
+     * @param <U>         类型
+     * @return 返回分支的查询
+     */
+    private <U extends Model<U>> QueryJoin<U> branch(Class<U> tableEntity, JoinConfig joinConfig) {
+        QueryJoin<U> queryJoin = QueryJoin.create(tableEntity, joinConfig);
+        queryJoin.paramNameSeq = this.paramNameSeq;
+        queryJoin.paramNameValuePairs = this.paramNameValuePairs;
+        return queryJoin;
+    }
+
+    /**
+     * 指定查询的字段，需要注意的是查询的字段前要加表别名，否则会出错，建议不直接使用此函数
+     *
+     * @param columns 需要查询的字段
+     * @return 返回本实例
+     *
+     * @see QueryJoin#select(SFunction)
+     * @see QueryJoin#select(SFunction, String)
+     */
+    @Override
+    public QueryJoin<M> select(String... columns) {
+        if (ArrayUtils.isEmpty(columns)) {
+            return this;
+        }
+
+        this.beforeStructureChange();
+        Arrays.stream(columns)
+                .forEach(c -> {
+                    if (this.selectOthers.containsKey(c)) {
+                        log.warn("查询的字段[{}]已经存在了查询列表中", c);
+                    } else {
+                        this.selectOthers.put(c, StrUtil.EMPTY);
+                    }
+                });
+
+        return typedThis;
+    }
+
+    /**
+     * 暂时不支持这种查询
+     *
+     * @param entityClass 主实体
+     * @param predicate   查询字段处理器
+     * @return 返回本实例
+     *
+     * @throws UnsupportedOperationException 永久抛出此异常，此函数暂未实现
+     */
+    @Override
+    public QueryJoin<M> select(Class<M> entityClass, Predicate<TableFieldInfo> predicate) {
+        this.beforeStructureChange();
+        master.getTableInfo()
+                .getFieldList()
+                .stream()
+                .filter(predicate)
+                .forEach(f -> this.master.selectSome(f.getColumn(), f.getProperty()));
+        return this;
+    }
+
+    /**
+     * 清空查询器，恢复到刚创建时的状态，之后可以重新构建查询
+     * <p>
+     * 只保留主表，主表恢复为创建时的查询字段；关联、查询字段、条件、联合查询、分页、全部的开关，
+     * 以及执行期间临时固定或替换的语句都会重置。
+     * 继续使用的容器只有参数、条件、关联的表和生成 From 语句的缓冲区，其它语句每次生成新的字符串；
+     * 与分叉的查询器共用的结构不会被清空，而是换成新的容器
+     *
+     * @see QueryJoinPool
+     */
+    @Override
+    public void clear() {
+        super.clear();
+        if (this.structureShared) {
+            this.master = this.master.copy();
+            this.queryTables = new TableRegistry();
+            this.selectOthers = CollectionUtils.newHashMap();
+            this.structureShared = false;
+        } else {
+            this.queryTables.clear();
+            this.selectOthers.clear();
+        }
+        this.plan = null;
+        this.master.selectNone();
+        if (this.master.isMaster()) {
+            this.master.selectAll();
+        }
+        this.addTable(this.master);
+
+        this.unions.clear();
+        this.unionAlls.clear();
+        this.orderItems.clear();
+        this.predicateColumns.clear();
+        this.appliedSqls.clear();
+        this.rawSqls.clear();
+        this.page = null;
+        this.listResult = null;
+        this.pageResult = null;
+        this.compiled = null;
+        this.fetchSize = null;
+        this.hint = null;
+        this.enableDistinct = false;
+        this.deferredJoin = false;
+        this.nativePaging = false;
+        this.windowCount = false;
+        this.approximateCount = false;
+        this.tenantInjected = false;
+        this.injectedPlan = null;
+        this.hydrateType = null;
+        this.extraSelect = null;
+        this.selectOverride = null;
+        this.segmentOverride = null;
+        this.fromOverride = null;
+        this.pinnedCountFrom = null;
+        this.pinnedCountSqlSegment = null;
+        this.seekSegment = null;
+        this.orderByOverride = null;
+        this.limit = 0;
+        this.offset = 0;
+        this.estimateSql = null;
+        this.existsSql = null;
+        this.compiledSqlSegment = null;
+        this.compiledUnlimitable = false;
+        this.compiling = false;
+        this.disableTenant = this.joinConfig != null
+                && (this.joinConfig.tenantClass() == null || StrUtil.isBlank(this.joinConfig.tenantColumn()));
+        this.disableLogicDelete = this.joinConfig != null && !this.joinConfig.hasLogicDelete();
+    }
+
+    /**
+     * 主表的实体类型
+     *
+     * @return 返回实体类型
+     */
+    Class<?> masterType() {
+        return this.master.getTableInfo().getEntityType();
+    }
+
+    /**
+     * 关联查询的配置
+     *
+     * @return 返回配置
+     */
+    JoinConfig joinConfig() {
+        return this.joinConfig;
+    }
+
+    /**
+     * 通过 WHERE 条件进行关联
+     *
+     * @param tableEntity 需要关联的实体
+     * @param <O>         需要关联的实体类型
+     * @return 返回关联实例进行关系对应
+     */
+    public <O extends Model<O>> JoinOn<M, O> whereJoin(Class<O> tableEntity) {
+        return joinSelect(tableEntity, JoinType.WHERE);
+    }
+
+    /**
+     * 通过 JOIN 进行关联
+     *
+     * @param tableEntity 需要关联的实体
+     * @param <O>         需要关联的实体类型
+     * @return 返回关联实例进行关系对应
+     */
+    public <O extends Model<O>> JoinOn<M, O> join(Class<O> tableEntity) {
+        return joinSelect(tableEntity, JoinType.JOIN);
+    }
+
+    /**
+     * 通过 INNER JOIN 条件进行关联
+     *
+     * @param tableEntity 需要关联的实体
+     * @param <O>         需要关联的实体类型
+     * @return 返回关联实例进行关系对应
+     */
+    public <O extends Model<O>> JoinOn<M, O> innerJoin(Class<O> tableEntity) {
+        return joinSelect(tableEntity, JoinType.INNER);
+    }
+
+    /**
+     * 通过 CROSS JOIN 条件进行关联
+     *
+     * @param tableEntity 需要关联的实体
+     * @param <O>         需要关联的实体类型
+     * @return 返回关联实例进行关系对应
+     */
+    public <O extends Model<O>> JoinOn<M, O> crossJoin(Class<O> tableEntity) {
+        return joinSelect(tableEntity, JoinType.CROSS);
+    }
+
+    /**
+     * 通过 LEFT JOIN 条件进行关联
+     *
+     * @param tableEntity 需要关联的实体
+     * @param <O>         需要关联的实体类型
+     * @return 返回关联实例进行关系对应
+     */
+    public <O extends Model<O>> JoinOn<M, O> leftJoin(Class<O> tableEntity) {
+        return joinSelect(tableEntity, JoinType.LEFT);
+    }
+
+    /**
+     * 通过 RIGHT JOIN 条件进行关联
+     *
+     * @param tableEntity 需要关联的实体
+     * @param <O>         需要关联的实体类型
+     * @return 返回关联实例进行关系对应
+     */
+    public <O extends Model<O>> JoinOn<M, O> rightJoin(Class<O> tableEntity) {
+        return joinSelect(tableEntity, JoinType.RIGHT);
+    }
+
+    /**
+     * 通过 JOIN 进行关联
+     *
+     * @param tableEntity 需要关联的实体
+     * @param <O>         需要关联的实体类型
+     * @return 返回关联实例进行关系对应
+     */
+    public <O extends Model<O>> JoinOn<M, O> joinSelect(Class<O> tableEntity, JoinType joinType) {
+        TableInfo joinInfo = TableInfoHelper.getTableInfo(tableEntity);
+        if (master == null) {
+            throw new MybatisPlusException("创建关联查询失败，无法获取表类型信息");
+        }
+
+        JoinTableInfo et = new JoinTableInfo(joinInfo);
+        this.addTable(et);
+        JoinClause joinClause = new JoinClause(joinType, et);
+        this.queryTables.join(joinClause);
+        return new JoinOn<>(joinType, this, joinClause);
+    }
+
+    /**
+     * 编译查询，生成不可修改、可以在多个线程中同时执行的 {@link CompiledQuery}
+     * <p>
+     * 编译时生成全部的语句（包括统计数量的语句）并固定下来，条件值使用 {@link Slot} 的在执行时按名称绑定；
+     * 租户条件同样编译为槽位，每次执行时从 {@link JoinConfig#tenants()} 取值。
+     * 需要在执行之前编译，编译之后不应再修改本查询器，本查询器也不能再直接执行；
+     * 已经生成过语句（如执行过 {@code count()}、{@code listMap()}、{@code getFullSql()}）的查询器中租户值已经固定，编译时抛出异常
+     * <pre>
+     *     CompiledQuery&lt;BaseUser&gt; query = QueryJoin.create(BaseUser.class, joinConfig)
+     *         .eq(BaseUser::getUsername, Slot.of("username", String.class))
+     *         .orderByAsc(BaseUser::getUserId)
+     *         .compile();
+     *     // 在任意线程中执行
+     *     query.listMap(Collections.singletonMap("username", "suyun"));
+     * </pre>
+     *
+     * @return 返回编译的结果，多次编译返回同一个结果
+     */
+    public CompiledQuery<M> compile() {
+        if (this.compiled != null) {
+            return this.compiled;
+        }
+        if (this.tenantInjected) {
+            // 租户值已经作为条件值加入，编译的结果会在其它租户的请求中使用
+            throw new MybatisPlusException("查询器已经生成过语句，租户条件已固定为当前的租户值，需要在执行之前编译");
+        }
+
+        this.compiling = true;
+        try {
+            String sqlSelect = this.getSqlSelect();
+            String from = this.getFrom();
+            String sqlSegment = this.getCustomSqlSegment();
+            String countFrom;
+            String countSqlSegment;
+            if (this.countable()) {
+                countFrom = this.getCountFrom();
+                countSqlSegment = this.getCountSqlSegment();
+            } else {
+                // 分组、去重和联合查询包装为子查询统计
+                countFrom = StrUtil.LEFT_BRACKET.concat(StrUtil.SELECT).concat(StrUtil.SPACE).concat(sqlSelect)
+                        .concat(StrUtil.SPACE).concat(StrUtil.FROM).concat(StrUtil.SPACE).concat(from)
+                        .concat(StrUtil.SPACE).concat(sqlSegment).concat(StrUtil.RIGHT_BRACKET)
+                        .concat(StrUtil.SPACE).concat(StrUtil.AS).concat(StrUtil.SPACE).concat(COUNT_ALIAS);
+                countSqlSegment = StrUtil.EMPTY;
+            }
+            this.compiled = new CompiledQuery<>(this.master, this.joinConfig, sqlSelect, from, sqlSegment,
+                    countFrom, countSqlSegment, this.fetchSize, this.limitable(), this.paramNameValuePairs);
+        } finally {
+            this.compiling = false;
+        }
+        return this.compiled;
+    }
+
+    private JoinMapper<?> executeCheck() {
+        if (this.joinConfig == null || this.joinConfig.mapper() == null) {
+            throw new MybatisPlusException("查询连接未设置");
+        }
+        if (this.compiled != null) {
+            throw new MybatisPlusException("查询器已经编译，需要通过编译的结果执行");
+        }
+
+        return this.joinConfig.mapper();
+    }
+
+    /**
+     * 查询一个结果并返回，如果有多个结果，则抛出异常
+     *
+     * @return 返回查询的结果
+     */
+    public Map<String, Object> oneMap() {
+        return oneMap(true);
+    }
+
+    /**
+     * 查询并返回
+     *
+     * @param onlyOne true最多只会有一个结果，如果出现多个则抛出异常，false可能会出现多个结果，但直接取第一个结果
+     * @return 返回查询的结果
+     */
+    public Map<String, Object> oneMap(boolean onlyOne) {
+        return this.oneMap(executeCheck(), onlyOne);
+    }
+
+    /**
+     * 查询并返回
+     *
+     * @param onlyOne true最多只会有一个结果，如果出现多个则抛出异常，false可能会出现多个结果，但直接取第一个结果
+     * @return 返回查询的结果
+     */
+    public Map<String, Object> oneMap(JoinMapper<?> superMapper, boolean onlyOne) {
+        return this.oneRow(superMapper, onlyOne, null);
+    }
+
+    /**
+     * 查询一行结果，最多只查询两行
+     * <p>
+     * 只需要一个结果时查询一行；需要判断是否有多个结果时查询两行，查询到两行即抛出异常，不会读取全部的结果；
+     * 联合查询和有 {@code last} 语句的查询无法直接追加 LIMIT，仍然查询全部的结果
+     *
+     * @param superMapper 执行的mapper
+     * @param onlyOne     true最多只会有一个结果，如果出现多个则抛出异常，false直接取第一个结果
+     * @param type        结果的实体类型，为空则返回Map
+     * @param <E>         结果的类型
+     * @return 返回查询的结果，没有结果返回空
+     */
+    @SuppressWarnings("unchecked")
+    private <E> E oneRow(JoinMapper<?> superMapper, boolean onlyOne, Class<E> type) {
+        boolean entity = type != null && !Map.class.isAssignableFrom(type);
+        Supplier<List<Map<String, Object>>> executor = () -> entity ? superMapper.listEntity(this) : superMapper.listMap(this);
+        List<Map<String, Object>> rows;
+        if (this.limitable()) {
+            rows = entity
+                    ? this.hydrate(type, () -> this.limited(onlyOne ? 2 : 1, 0, executor))
+                    : this.limited(onlyOne ? 2 : 1, 0, executor);
+        } else {
+            rows = entity ? this.hydrate(type, executor) : executor.get();
+        }
+
+        if (rows == null || rows.isEmpty()) {
+            return null;
+        }
+        if (onlyOne && rows.size() > 1) {
+            throw new TooManyResultsException("期望最多查询到一个结果，但查询到了多个结果");
+        }
+        return entity ? typedRow(rows.get(0), RowMapper.of(type)) : (E) rows.get(0);
+    }
+
+    /**
+     * 查询并返回
+     *
+     * @return 返回查询的结果
+     */
+    public List<Map<String, Object>> listMap() {
+        return executeCheck().listMap(this);
+    }
+
+    /**
+     * 查询并返回
+     *
+     * @return 返回查询的结果
+     */
+    public List<Map<String, Object>> listMap(JoinMapper<?> superMapper) {
+        return superMapper.listMap(this);
+    }
+
+    /**
+     * 查询分页结果并返回
+     *
+     * @return 返回分页查询的结果
      */
     public Page<Map<String, Object>> pagerMap() {
         if (this.page == null) {
             this.page = new Page<>();
         }
-        return executeCheck().pageMap(this.page, this);
+        return this.pageMap(this.page, executeCheck());
     }
 
     /**
@@ -949,7 +2044,7 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
         if (this.page == null) {
             this.page = new Page<>();
         }
-        return superMapper.pageMap(this.page, this);
+        return this.pageMap(this.page, superMapper);
     }
 
     /**
@@ -962,20 +2057,455 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
         if (page == null) {
             page = new Page<>();
         }
-        return executeCheck().pageMap(page, this);
+        return this.pageMap(page, executeCheck());
+    }
+
+    /**
+     * 指定分页条件进行查询
+     * 查询分页结果并返回
+     *
+     * @return 返回分页查询的结果
+     */
+    public Page<Map<String, Object>> pagerMap(Page<?> page, JoinMapper<?> superMapper) {
+        if (page == null) {
+            page = new Page<>();
+        }
+        return this.pageMap(page, superMapper);
+    }
+
+    /**
+     * 执行分页查询，开启了窗口函数统计时一次查询同时获取总数和数据，开启了延迟关联时使用延迟关联
+     *
+     * @param page        分页
+     * @param superMapper 执行的mapper
+     * @return 返回分页查询的结果
+     */
+    private Page<Map<String, Object>> pageMap(Page<?> page, JoinMapper<?> superMapper) {
+        if (this.windowCountable(page)) {
+            return this.windowPage(page, superMapper);
+        }
+        return this.countedPage(page, superMapper, () -> this.pageRecords(page, superMapper, false));
+    }
+
+    /**
+     * 是否可以使用窗口函数统计总数
+     * <p>
+     * 去重发生在窗口函数之后，统计的是去重前的行数，因此不支持；延迟关联和联合查询也不使用
+     *
+     * @param page 分页
+     * @return true可以
+     */
+    private boolean windowCountable(Page<?> page) {
+        return this.windowCount
+                && page.isSearchCount()
+                && page.getSize() > 0
+                && this.joinConfig != null
+                && this.dialect().supportWindowFunction()
+                && !this.approximateCount
+                && !this.enableDistinct
+                && !(this.deferredJoin && this.deferrable())
+                && this.unions.isEmpty()
+                && this.unionAlls.isEmpty();
+    }
+
+    /**
+     * 使用 {@code COUNT(*) OVER()} 在查询数据的同时获取总数，只需要一次查询
+     * <p>
+     * 这一页没有数据时无法获取总数：第一页没有数据则总数为0，否则再单独统计总数；
+     * 结果中没有总数字段（如被结果处理器去掉）或总数无法识别时，也再单独统计总数
+     *
+     * @param page        分页
+     * @param superMapper 执行的mapper
+     * @return 返回分页查询的结果
+     */
+    @SuppressWarnings("unchecked")
+    private Page<Map<String, Object>> windowPage(Page<?> page, JoinMapper<?> superMapper) {
+        List<Map<String, Object>> rows;
+        this.extraSelect = StrUtil.COMMA.concat(this.dialect().windowTotal(WINDOW_TOTAL));
+        try {
+            rows = this.limited(page, () -> superMapper.listMap(this));
+        } finally {
+            this.extraSelect = null;
+        }
+
+        Page<Map<String, Object>> result = (Page<Map<String, Object>>) page;
+        if (rows.isEmpty() && page.offset() == 0) {
+            return result.setTotal(0).setRecords(rows);
+        }
+
+        Long total = null;
+        if (!rows.isEmpty()) {
+            String totalKey = rowKey(rows.get(0), WINDOW_TOTAL);
+            total = windowTotal(rows.get(0).get(totalKey));
+            rows.forEach(row -> row.remove(totalKey));
+        }
+        if (total != null) {
+            return result.setTotal(total).setRecords(rows);
+        }
+        if (this.countable()) {
+            return result.setTotal(superMapper.count(this)).setRecords(rows);
+        }
+        return this.countedPage(page, superMapper, () -> this.pageRecords(page, superMapper, false));
+    }
+
+    /**
+     * 转换窗口函数统计的总数
+     *
+     * @param total 结果中的总数
+     * @return 返回总数，没有总数或无法识别时返回null
+     */
+    private static Long windowTotal(Object total) {
+        if (total instanceof Number) {
+            return ((Number) total).longValue();
+        }
+        if (total == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(String.valueOf(total).trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 统计分页的总数之后再查询分页的数据
+     * <p>
+     * 使用省略了无用关联的 {@link JoinMapper#count(QueryJoin)} 统计，统计期间关闭分页插件的统计；总数为0时不再查询数据。
+     * 配置了 {@link JoinConfig#pageExecutor()} 时，统计和查询数据同时执行
+     *
+     * @param page        分页
+     * @param superMapper 执行的mapper
+     * @param records     查询分页的数据
+     * @return 返回分页查询的结果
+     */
+    @SuppressWarnings("unchecked")
+    private Page<Map<String, Object>> countedPage(Page<?> page, JoinMapper<?> superMapper, Supplier<Page<Map<String, Object>>> records) {
+        if (!page.isSearchCount() || !this.countable()) {
+            return records.get();
+        }
+
+        // 估算值的查询成本很低，不需要同时执行
+        long estimated = this.approximateCount ? this.estimate(superMapper) : -1;
+        Executor executor = this.joinConfig == null ? null : this.joinConfig.pageExecutor();
+        if (estimated < 0 && executor != null && !(this.deferredJoin && this.deferrable())) {
+            return this.concurrentPage(page, superMapper, records, executor);
+        }
+
+        // 使用省略了无用关联的统计语句，分页插件不再统计
+        long total = estimated < 0 ? superMapper.count(this) : estimated;
+        page.setSearchCount(false);
+        try {
+            // 估算值可能已经过时，估算为0时仍然查询数据
+            if (total <= 0 && estimated < 0) {
+                ((Page<Map<String, Object>>) page).setRecords(new ArrayList<>(0));
+                return (Page<Map<String, Object>>) page;
+            }
+            return records.get();
+        } finally {
+            page.setSearchCount(true);
+            page.setTotal(total);
+            if (page instanceof JoinPage) {
+                ((JoinPage<?>) page).setApproximate(estimated >= 0);
+            }
+        }
+    }
+
+    /**
+     * 同时统计分页的总数和查询分页的数据
+     * <p>
+     * 派发之前先生成统计语句和参数的快照，另一个线程只读取快照，当前线程查询数据时修改查询器不会影响统计；
+     * 统计在另一个线程中执行，不会加入当前线程的事务
+     *
+     * @param page        分页
+     * @param superMapper 执行的mapper
+     * @param records     查询分页的数据
+     * @param executor    统计使用的线程池
+     * @return 返回分页查询的结果
+     */
+    private Page<Map<String, Object>> concurrentPage(Page<?> page, JoinMapper<?> superMapper,
+                                                     Supplier<Page<Map<String, Object>>> records, Executor executor) {
+        QueryJoin<M> snapshot = this.countSnapshot();
+
+        long total = 0;
+        page.setSearchCount(false);
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        CompletableFuture<Integer> count = CompletableFuture.supplyAsync(() -> aborted.get() ? 0 : superMapper.count(snapshot), executor);
+        try {
+            Page<Map<String, Object>> result = records.get();
+            total = await(count);
+            return result;
+        } catch (RuntimeException e) {
+            aborted.set(true);
+            throw e;
+        } finally {
+            // 数据查询失败时同样等待统计结束，不在返回之后继续占用连接
+            settle(Collections.singletonList(count));
+            page.setSearchCount(true);
+            page.setTotal(total);
+        }
+    }
+
+    /**
+     * 生成统计数量的快照，统计语句和参数在生成时固定，可以交给其它线程执行
+     * <p>
+     * 快照只能用于 {@link JoinMapper#count(QueryJoin)}，参数是生成时的副本，之后本查询器的修改不会影响快照
+     *
+     * @return 返回只用于统计数量的查询器
+     */
+    QueryJoin<M> countSnapshot() {
+        String countFrom = this.getCountFrom();
+        String countSqlSegment = this.getCountSqlSegment();
+        return new QueryJoin<>(this, countFrom, countSqlSegment, new HashMap<>(this.paramNameValuePairs));
+    }
+
+    /**
+     * 等待另一个线程的查询完成，查询异常时抛出原始的异常
+     *
+     * @param future 另一个线程的查询
+     * @param <T>    查询结果的类型
+     * @return 返回查询结果
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new MybatisPlusException(e.getCause());
+        }
+    }
+
+    /**
+     * 等待另一个线程的查询全部结束，不论成功或失败，不抛出异常
+     * <p>
+     * {@link CompletableFuture#cancel(boolean)} 不会中断已经开始的查询，取消之后查询仍可能在执行
+     *
+     * @param futures 另一个线程的查询
+     */
+    private static void settle(List<? extends CompletableFuture<?>> futures) {
+        if (futures.isEmpty()) {
+            return;
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).handle((r, e) -> null).join();
+    }
+
+    /**
+     * 查询分页的数据，开启了延迟关联时使用延迟关联，开启了原生分页时不经过分页插件
+     *
+     * @param page        分页
+     * @param superMapper 执行的mapper
+     * @param entity      是否直接填充实体，见 {@link JoinMapper#pageEntity(Page, QueryJoin)}
+     * @return 返回分页查询的结果
+     */
+    @SuppressWarnings("unchecked")
+    private Page<Map<String, Object>> pageRecords(Page<?> page, JoinMapper<?> superMapper, boolean entity) {
+        if (this.deferredJoin && this.deferrable()) {
+            return this.deferredPage(page, superMapper);
+        }
+
+        if (this.nativePageable(page)) {
+            List<Map<String, Object>> rows = this.limited(page, () -> entity ? superMapper.listEntity(this) : superMapper.listMap(this));
+            return ((Page<Map<String, Object>>) page).setRecords(rows);
+        }
+        return entity ? superMapper.pageEntity(page, this) : superMapper.pageMap(page, this);
+    }
+
+    /**
+     * 是否可以使用原生分页：开启了原生分页，不是联合查询也没有 {@code last} 语句，且不需要分页插件统计总数
+     *
+     * @param page 分页
+     * @return true可以
+     */
+    private boolean nativePageable(Page<?> page) {
+        return this.nativePaging
+                && this.limitable()
+                && (!page.isSearchCount() || this.countable());
+    }
+
+    /**
+     * 按照分页直接在语句中追加 LIMIT、OFFSET 后执行查询，不经过分页插件
+     *
+     * @param page     分页，页容量小于0时不限制数量
+     * @param executor 执行查询
+     * @return 返回查询结果
+     */
+    private List<Map<String, Object>> limited(Page<?> page, Supplier<List<Map<String, Object>>> executor) {
+        if (page.getSize() < 0) {
+            return executor.get();
+        }
+        return this.limited(page.getSize(), page.offset(), executor);
+    }
+
+    /**
+     * 直接在语句中追加 LIMIT、OFFSET 后执行查询，不经过分页插件
+     *
+     * @param limit    最多查询的数量
+     * @param offset   跳过的数量
+     * @param executor 执行查询
+     * @return 返回查询结果
+     */
+    private List<Map<String, Object>> limited(long limit, long offset, Supplier<List<Map<String, Object>>> executor) {
+        if (!this.limitable()) {
+            // LIMIT 不能追加在联合查询和 last 语句之后，查询全部的结果再截取
+            List<Map<String, Object>> rows = executor.get();
+            if (rows == null || offset >= rows.size()) {
+                return new ArrayList<>(0);
+            }
+            return new ArrayList<>(rows.subList((int) offset, (int) Math.min(rows.size(), offset + limit)));
+        }
+
+        this.limit = limit;
+        this.offset = offset;
+        try {
+            return executor.get();
+        } finally {
+            this.limit = 0;
+            this.offset = 0;
+        }
+    }
+
+    /**
+     * 是否可以在语句的末尾直接追加 {@link Dialect#limit(long, long)}
+     * <p>
+     * 联合查询的分支和 {@code last} 语句（如 {@code FOR UPDATE}、自定义的 LIMIT）都在语句的末尾，
+     * LIMIT 追加在它们之后是错误的语句，追加在它们之前会改变它们的含义
+     *
+     * @return true可以
+     */
+    private boolean limitable() {
+        return this.unions.isEmpty()
+                && this.unionAlls.isEmpty()
+                && StrUtil.isEmpty(this.lastSql.getStringValue())
+                && !this.compiledUnlimitable;
+    }
+
+    /**
+     * 是否可以直接使用 {@link JoinMapper#count(QueryJoin)} 统计分页的总数
+     * <p>
+     * 分组、去重和联合查询的行数与统计语句不一致，交给分页插件统计
+     *
+     * @return true可以
+     */
+    private boolean countable() {
+        MergeSegments segments = this.getExpression();
+        return !this.enableDistinct
+                && segments.getGroupBy().isEmpty()
+                && segments.getHaving().isEmpty()
+                && this.unions.isEmpty()
+                && this.unionAlls.isEmpty();
+    }
+
+    /**
+     * 是否可以使用延迟关联
+     * <p>
+     * 去重针对的是查询的字段而不是主键，只查询主键分页时无法去重，也无法按照其它字段排序，所以去重查询不使用延迟关联；
+     * 一对多的关联会让同一个主键出现在多行中，按主键分页得到的行数和顺序都不对，所以只能有一对一的关联
+     *
+     * @return true可以使用
+     */
+    private boolean deferrable() {
+        MergeSegments segments = this.getExpression();
+        return this.master.getMeta().getKeyColumn() != null
+                && !this.enableDistinct
+                && this.queryTables.joins().stream().allMatch(JoinClause::isSingleRow)
+                && segments.getGroupBy().isEmpty()
+                && segments.getHaving().isEmpty()
+                && this.unions.isEmpty()
+                && this.unionAlls.isEmpty();
+    }
+
+    /**
+     * 延迟关联分页：先分页查询主表的主键，再按主键查询这一页需要的字段
+     *
+     * @param page        分页
+     * @param superMapper 执行的mapper
+     * @return 返回分页查询的结果
+     */
+    @SuppressWarnings("unchecked")
+    private Page<Map<String, Object>> deferredPage(Page<?> page, JoinMapper<?> superMapper) {
+        String keyColumn = this.master.getAliasName().concat(StrUtil.DOT).concat(this.master.getMeta().getKeyColumn());
+        String keySelect = keyColumn.concat(StrUtil.SPACE).concat(StrUtil.AS).concat(StrUtil.SPACE).concat(DEFERRED_KEY);
+
+        Page<Map<String, Object>> keyPage;
+        this.getCustomSqlSegment();
+        this.fromOverride = this.optimizedFrom(JoinContext.Purpose.KEY);
+        this.selectOverride = keySelect;
+        try {
+            if (this.nativePageable(page)) {
+                keyPage = ((Page<Map<String, Object>>) page).setRecords(this.limited(page, () -> superMapper.listMap(this)));
+            } else {
+                keyPage = superMapper.pageMap(page, this);
+            }
+        } finally {
+            this.selectOverride = null;
+            this.fromOverride = null;
+        }
+
+        List<Map<String, Object>> keyRows = keyPage.getRecords();
+        if (keyRows == null || keyRows.isEmpty()) {
+            return keyPage;
+        }
+
+        String keyName = rowKey(keyRows.get(0), DEFERRED_KEY);
+        List<Object> keys = new ArrayList<>(keyRows.size());
+        keyRows.forEach(row -> keys.add(row.get(keyName)));
+
+        int seqFrom = this.paramNameSeq.get();
+        StringJoiner params = new StringJoiner(StrUtil.COMMA + StrUtil.SPACE, "(", ")");
+        keys.forEach(key -> params.add(formatSql("{0}", key)));
+        int seqTo = this.paramNameSeq.get();
+
+        List<Map<String, Object>> rows;
+        this.extraSelect = StrUtil.COMMA.concat(keySelect);
+        this.segmentOverride = Constants.WHERE + StrUtil.SPACE + keyColumn + " IN " + params
+                + this.getExpression().getOrderBy().getSqlSegment() + this.lastSql.getStringValue();
+        try {
+            rows = superMapper.listMap(this);
+        } finally {
+            this.extraSelect = null;
+            this.segmentOverride = null;
+            for (int i = seqFrom + 1; i <= seqTo; i++) {
+                this.paramNameValuePairs.remove(Constants.WRAPPER_PARAM + i);
+            }
+        }
+
+        // 按照主键分页的顺序排列，并去掉附加的主键字段
+        Map<Object, Map<String, Object>> keyed = new HashMap<>(rows.size() * 4 / 3 + 1);
+        if (!rows.isEmpty()) {
+            String rowKeyName = rowKey(rows.get(0), DEFERRED_KEY);
+            rows.forEach(row -> keyed.putIfAbsent(row.remove(rowKeyName), row));
+        }
+        List<Map<String, Object>> records = new ArrayList<>(keys.size());
+        keys.forEach(key -> {
+            Map<String, Object> row = keyed.get(key);
+            if (row != null) {
+                records.add(row);
+            }
+        });
+
+        keyPage.setRecords(records);
+        return keyPage;
     }
 
     /**
-     * 指定分页条件进行查询
-     * 查询分页结果并返回
+     * 获取结果中实际的字段名，部分数据库会改变字段别名的大小写
      *
-     * @return 返回分页查询的结果
+     * @param row   一行结果
+     * @param alias 字段别名
+     * @return 返回实际的字段名
      */
-    public Page<Map<String, Object>> pagerMap(Page<?> page, JoinMapper<?> superMapper) {
-        if (page == null) {
-            page = new Page<>();
+    private static String rowKey(Map<String, Object> row, String alias) {
+        if (row.containsKey(alias)) {
+            return alias;
+        }
+        for (String key : row.keySet()) {
+            if (alias.equalsIgnoreCase(key)) {
+                return key;
+            }
         }
-        return superMapper.pageMap(page, this);
+        return alias;
     }
 
     /**
@@ -996,12 +2526,7 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
      */
     @SuppressWarnings("unchecked")
     public M one(boolean onlyOne) {
-        Map<String, Object> one = oneMap(onlyOne);
-        if (one == null) {
-            return null;
-        }
-
-        return (M) BeanUtil.mapToBean(one, master.getTableInfo().getEntityType(), true, CopyOptions.create());
+        return (M) this.oneRow(executeCheck(), onlyOne, master.getTableInfo().getEntityType());
     }
 
     /**
@@ -1010,18 +2535,7 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
      */
     @SuppressWarnings("unchecked")
     public List<M> entityList() {
-        if (this.listResult == null) {
-            this.listResult = listMap();
-        }
-
-        if (this.listResult.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        List<M> list = new ArrayList<>(this.listResult.size());
-        this.listResult.forEach(map -> list.add((M) BeanUtil.mapToBean(map, master.getTableInfo().getEntityType(), true, CopyOptions.create())));
-
-        return list;
+        return (List<M>) toEntityList(master.getTableInfo().getEntityType());
     }
 
     /**
@@ -1033,12 +2547,7 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
      * @return 返回一个实体对象
      */
     public <E> E oneEntity(Class<E> entityType) {
-        Map<String, Object> one = oneMap();
-        if (one == null) {
-            return null;
-        }
-
-        return BeanUtil.mapToBean(one, entityType, true, CopyOptions.create());
+        return oneEntity(true, entityType);
     }
 
     /**
@@ -1050,12 +2559,7 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
      * @return 返回一个实体对象
      */
     public <E> E oneEntity(boolean onlyOne, Class<E> entityType) {
-        Map<String, Object> one = oneMap(onlyOne);
-        if (one == null) {
-            return null;
-        }
-
-        return BeanUtil.mapToBean(one, entityType, true, CopyOptions.create());
+        return this.oneRow(executeCheck(), onlyOne, entityType);
     }
 
     /**
@@ -1098,6 +2602,12 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
             return Collections.emptyList();
         }
 
+        if (this.listResult == null && !Map.class.isAssignableFrom(listType)) {
+            // 没有已经查询的Map结果时，直接从结果集填充实体
+            List<E> list = typedRows(this.hydrate(listType, () -> executeCheck().listEntity(this)), listType);
+            return list.isEmpty() ? Collections.emptyList() : list;
+        }
+
         if (this.listResult == null) {
             this.listResult = listMap();
         }
@@ -1106,152 +2616,763 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
             return Collections.emptyList();
         }
 
-        List<E> list = new ArrayList<>(this.listResult.size());
-        this.listResult.forEach(map -> list.add(BeanUtil.mapToBean(map, listType, true, CopyOptions.create())));
-
-        return list;
+        return RowMapper.of(listType).mapAll(this.listResult);
+    }
+
+    /**
+     * 指定结果的实体类型执行查询，注册了 {@link org.join.plus.interceptor.JoinInterceptor} 时直接从结果集填充实体
+     *
+     * @param type     实体类型
+     * @param executor 执行查询
+     * @param <R>      查询结果类型
+     * @return 返回查询结果
+     */
+    private <R> R hydrate(Class<?> type, Supplier<R> executor) {
+        this.hydrateType = type;
+        try {
+            return executor.get();
+        } finally {
+            this.hydrateType = null;
+        }
+    }
+
+    /**
+     * 将查询结果转换为指定的实体类型，如果拦截器已经直接填充了实体，则原样返回
+     *
+     * @param rows 查询结果
+     * @param type 实体类型
+     * @param <E>  实体类型
+     * @return 返回实体集合
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> List<E> typedRows(List<?> rows, Class<E> type) {
+        if (rows == null || rows.isEmpty()) {
+            return new ArrayList<>(0);
+        }
+
+        if (type.isInstance(rows.get(0)) || !(rows.get(0) instanceof Map)) {
+            return (List<E>) rows;
+        }
+        return RowMapper.of(type).mapAll((List<Map<String, Object>>) rows);
+    }
+
+    /**
+     * 将结果查询出来之后再填充到新的分页中
+     * 直接返回主实体类型对应的page
+     */
+    @SuppressWarnings("unchecked")
+    public Page<M> entityPage() {
+        return (Page<M>) toEntityPage(master.getTableInfo().getEntityType());
+    }
+
+    /**
+     * 将结果查询出来之后再填充到实体中
+     *
+     * @param pageType 集合实体的类型
+     */
+    public <E> Page<E> toEntityPage(Class<E> pageType) {
+        if (pageType == null) {
+            return new Page<>();
+        }
+
+        if (this.pageResult == null && !Map.class.isAssignableFrom(pageType) && !(this.deferredJoin && this.deferrable())
+                && !this.windowCountable(this.page == null ? new Page<>() : this.page)) {
+            // 没有已经查询的Map结果时，直接从结果集填充实体
+            if (this.page == null) {
+                this.page = new Page<>();
+            }
+            JoinMapper<?> mapper = executeCheck();
+            Page<Map<String, Object>> result = this.countedPage(this.page, mapper,
+                    () -> this.hydrate(pageType, () -> this.pageRecords(this.page, mapper, true)));
+            List<E> records = typedRows(result.getRecords(), pageType);
+            if (records.isEmpty()) {
+                return new Page<>();
+            }
+
+            Page<E> pager = result instanceof JoinPage
+                    ? new JoinPage<E>(result.getCurrent(), result.getSize(), result.getTotal(), result.isSearchCount())
+                    .setApproximate(((JoinPage<?>) result).isApproximate())
+                    : new Page<>(result.getCurrent(), result.getSize(), result.getTotal(), result.isSearchCount());
+            pager.setRecords(records);
+            return pager;
+        }
+
+        if (this.pageResult == null) {
+            this.pageResult = pagerMap();
+        }
+
+        List<Map<String, Object>> records = this.pageResult.getRecords();
+        if (records.isEmpty()) {
+            return new Page<>();
+        }
+
+        Page<E> pager = pageResult instanceof JoinPage
+                ? new JoinPage<E>(pageResult.getCurrent(), pageResult.getSize(), pageResult.getTotal(), pageResult.isSearchCount())
+                .setApproximate(((JoinPage<?>) pageResult).isApproximate())
+                : new Page<>(pageResult.getCurrent(), pageResult.getSize(), pageResult.getTotal(), pageResult.isSearchCount());
+        pager.setRecords(RowMapper.of(pageType).mapAll(records));
+        return pager;
+    }
+
+    /**
+     * 将结果查询出来之后再填充到每个实体中
+     * 直接返回主实体类型对应的列表
+     */
+    @SuppressWarnings("unchecked")
+    public <E, B> List<B> entityValueList(SFunction<E, B> entityColumn) {
+        if (this.listResult == null) {
+            this.listResult = listMap();
+        }
+
+        if (this.listResult.isEmpty()) {
+            return ListUtil.empty();
+        }
+
+        SerializedLambda sl = LambdaUtils.resolve(entityColumn);
+        String fieldName = cn.hutool.core.util.StrUtil.getGeneralField(sl.getImplMethodName());
+        return (List<B>) toValueList(ReflectUtil.getMethod(sl.getImplClass(), sl.getImplMethodName()).getReturnType(), fieldName);
+    }
+
+    /**
+     * 将结果查询出来之后再填充到实体中
+     *
+     * @param valueType 集合元素的类型
+     */
+    public <E> List<E> toValueList(Class<E> valueType) {
+        if (valueType == null) {
+            return ListUtil.empty();
+        }
+
+        if (this.listResult == null) {
+            this.listResult = listMap();
+        }
+
+        if (this.listResult.isEmpty()) {
+            return ListUtil.empty();
+        }
+
+        Map<String, Object> oneMap = CollUtil.getFirst(this.listResult);
+        if (CollUtil.isNotEmpty(oneMap)) {
+            String key = CollUtil.getFirst(oneMap.keySet());
+            return toValueList(valueType, key);
+        }
+
+        return ListUtil.empty();
+    }
+
+    /**
+     * 将结果查询出来之后再填充到实体中
+     *
+     * @param valueType 集合元素的类型
+     * @param column    需要转换的字段名称，会自动转小写
+     */
+    public <E> List<E> toValueList(Class<E> valueType, String column) {
+        if (valueType == null) {
+            return ListUtil.empty();
+        }
+
+        if (this.listResult == null) {
+            this.listResult = listMap();
+        }
+
+        if (this.listResult.isEmpty()) {
+            return ListUtil.empty();
+        }
+
+        List<E> list = new ArrayList<>(this.listResult.size());
+        // column.toLowerCase()  MP查询后返回的map中所有的key都是小写的，所以这里转小写，可能是有问题的
+        this.listResult.forEach(map -> list.add(MapUtil.get(map, column, valueType)));
+
+        return list;
+    }
+
+    /**
+     * 统计数量
+     *
+     * @return 返回统计的数量，没有为0
+     */
+    public int count() {
+        if (this.approximateCount) {
+            return (int) Math.min(this.estimateCount(), Integer.MAX_VALUE);
+        }
+        return executeCheck().count(this);
+    }
+
+    /**
+     * 估算查询结果的数量，见 {@link QueryJoin#approximateCount()}
+     * <p>
+     * 没有配置估算器或者无法估算时，精确统计数量
+     *
+     * @return 返回估算的数量
+     */
+    public long estimateCount() {
+        JoinMapper<?> mapper = executeCheck();
+        long estimated = this.estimate(mapper);
+        return estimated < 0 ? mapper.count(this) : estimated;
+    }
+
+    /**
+     * 使用 {@link JoinConfig#countEstimator()} 估算查询结果的数量
+     * <p>
+     * 分组、去重和联合查询的行数与统计语句不一致，不估算；估算语句执行失败时（如没有 EXPLAIN 的权限、估算器与数据库不匹配）
+     * 记录警告并按无法估算处理，由调用者精确统计。
+     * 注意 PostgreSQL 在事务中执行失败后整个事务都不能再执行语句，需要确保估算器与数据库匹配
+     *
+     * @param superMapper 执行的mapper
+     * @return 返回估算的数量，无法估算时返回小于0的数
+     */
+    private long estimate(JoinMapper<?> superMapper) {
+        CountEstimator estimator = this.joinConfig == null ? null : this.joinConfig.countEstimator();
+        if (estimator == null || !this.countable()) {
+            return -1;
+        }
+
+        // 先生成条件，自动追加的租户、逻辑删除条件不能在之后被移除
+        String querySql = this.probeSql();
+        int seqFrom = this.paramNameSeq.get();
+        this.estimateSql = estimator.estimateSql(querySql, this.master.getMeta().getTableName(), value -> formatSql("{0}", value));
+        int seqTo = this.paramNameSeq.get();
+        try {
+            return estimator.estimate(superMapper.estimateMap(this));
+        } catch (RuntimeException e) {
+            log.warn("估算行数失败，改为精确统计：{}", e.getMessage());
+            return -1;
+        } finally {
+            this.estimateSql = null;
+            for (int i = seqFrom + 1; i <= seqTo; i++) {
+                this.paramNameValuePairs.remove(Constants.WRAPPER_PARAM + i);
+            }
+        }
+    }
+
+    /**
+     * 判断查询结果是否存在
+     *
+     * @return true存在，false不存在
+     *
+     * @since 1.1.0-RELEASE
+     */
+    public boolean contains() {
+        JoinMapper<?> mapper = executeCheck();
+        if (!this.unions.isEmpty() || !this.unionAlls.isEmpty()) {
+            return mapper.count(this) > 0;
+        }
+        if (!this.limitable()) {
+            // last 语句（如 FOR UPDATE）不能放在子查询和统计中，直接执行查询
+            return !this.limited(1, 0, () -> mapper.listMap(this)).isEmpty();
+        }
+
+        // 只需要判断是否存在一行，不需要查询字段和排序，也不需要不影响行数的关联
+        this.existsSql = this.dialect().exists(this.probeSql());
+        try {
+            return Boolean.TRUE.equals(mapper.exists(this));
+        } finally {
+            this.existsSql = null;
+        }
+    }
+
+    /**
+     * 生成不查询字段、不排序的查询语句，省略不影响行数的关联，用于判断是否存在和估算行数
+     *
+     * @return 返回查询语句
+     */
+    private String probeSql() {
+        return StrUtil.SELECT + " 1 " + StrUtil.FROM + StrUtil.SPACE + this.getCountFrom() + StrUtil.SPACE + this.getCountSqlSegment();
+    }
+
+    /**
+     * 获取数据库方言
+     *
+     * @return 返回方言，没有配置时使用默认的方言
+     */
+    private Dialect dialect() {
+        Dialect dialect = Optional.ofNullable(joinConfig).orElse(DEFAULT_CONFIG).dialect();
+        return dialect == null ? MySqlDialect.MYSQL_5 : dialect;
+    }
+
+    /**
+     * 以游标的方式查询，逐行读取结果
+     * <p>
+     * 游标在读取期间需要保持数据库连接，因此必须在同一个会话（如事务）中读取，使用完毕后需要关闭
+     *
+     * @return 返回游标
+     */
+    public Cursor<Map<String, Object>> cursorMap() {
+        return executeCheck().cursorMap(this);
+    }
+
+    /**
+     * 以流的方式查询，逐行读取结果，流关闭时关闭游标
+     * <p>
+     * 与 {@link QueryJoin#cursorMap()} 相同，必须在同一个会话（如事务）中读取
+     * <pre>
+     *     try (Stream&lt;Map&lt;String, Object&gt;&gt; stream = query.streamMap()) {
+     *         stream.forEach(...);
+     *     }
+     * </pre>
+     *
+     * @return 返回结果流
+     */
+    public Stream<Map<String, Object>> streamMap() {
+        return streamOf(cursorMap(), row -> row);
+    }
+
+    /**
+     * 以流的方式查询，逐行读取并按照主表实体返回
+     *
+     * @return 返回结果流
+     * @see QueryJoin#streamMap()
+     */
+    @SuppressWarnings("unchecked")
+    public Stream<M> stream() {
+        return (Stream<M>) stream(master.getTableInfo().getEntityType());
+    }
+
+    /**
+     * 以流的方式查询，逐行读取并填充到实体中
+     *
+     * @param entityType 实体对象的类型
+     * @param <E>        实体对象的类型
+     * @return 返回结果流
+     * @see QueryJoin#streamMap()
+     */
+    public <E> Stream<E> stream(Class<E> entityType) {
+        if (Map.class.isAssignableFrom(entityType)) {
+            return streamOf(cursorMap(), entityType::cast);
+        }
+
+        Cursor<?> cursor = this.hydrate(entityType, () -> executeCheck().cursorMap(this));
+        RowMapper<E> rowMapper = RowMapper.of(entityType);
+        return streamOf(cursor, row -> typedRow(row, rowMapper));
+    }
+
+    /**
+     * 逐行处理查询结果，不保留已经处理的行
+     * <p>
+     * 全部的行在本方法返回前处理完毕，不需要额外保持会话
+     *
+     * @param consumer 每行结果的处理
+     */
+    public void forEachMap(Consumer<Map<String, Object>> consumer) {
+        executeCheck().handleMap(this, (ResultHandler<Map<String, Object>>) context -> consumer.accept(context.getResultObject()));
+    }
+
+    /**
+     * 逐行处理查询结果，并按照主表实体返回
+     *
+     * @param consumer 每行结果的处理
+     * @see QueryJoin#forEachMap(Consumer)
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<M> consumer) {
+        forEach((Class<M>) master.getTableInfo().getEntityType(), consumer);
+    }
+
+    /**
+     * 逐行处理查询结果，并填充到实体中
+     *
+     * @param entityType 实体对象的类型
+     * @param consumer   每行结果的处理
+     * @param <E>        实体对象的类型
+     * @see QueryJoin#forEachMap(Consumer)
+     */
+    public <E> void forEach(Class<E> entityType, Consumer<E> consumer) {
+        if (Map.class.isAssignableFrom(entityType)) {
+            forEachMap(row -> consumer.accept(entityType.cast(row)));
+            return;
+        }
+
+        RowMapper<E> rowMapper = RowMapper.of(entityType);
+        this.hydrate(entityType, () -> {
+            executeCheck().handleMap(this, (ResultHandler<Object>) context -> consumer.accept(typedRow(context.getResultObject(), rowMapper)));
+            return null;
+        });
     }
 
     /**
-     * 将结果查询出来之后再填充到新的分页中
-     * 直接返回主实体类型对应的page
+     * 将一行查询结果转换为指定的实体类型，如果拦截器已经直接填充了实体，则原样返回
+     *
+     * @param row       一行查询结果
+     * @param rowMapper 实体类型的转换器
+     * @param <E>       实体类型
+     * @return 返回实体对象
      */
     @SuppressWarnings("unchecked")
-    public Page<M> entityPage() {
-        if (this.pageResult == null) {
-            this.pageResult = pagerMap();
+    private static <E> E typedRow(Object row, RowMapper<E> rowMapper) {
+        if (row instanceof Map && !rowMapper.getType().isInstance(row)) {
+            return rowMapper.map((Map<String, Object>) row);
         }
+        return (E) row;
+    }
 
-        List<Map<String, Object>> records = this.pageResult.getRecords();
-        if (records.isEmpty()) {
-            return new Page<>();
-        }
+    /**
+     * 将游标包装为流，流关闭时关闭游标
+     *
+     * @param cursor 游标
+     * @param mapper 每行结果的转换
+     * @param <T>    游标的元素类型
+     * @param <E>    流的元素类型
+     * @return 返回流
+     */
+    private static <T, E> Stream<E> streamOf(Cursor<T> cursor, Function<? super T, ? extends E> mapper) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor.iterator(), Spliterator.ORDERED), false)
+                .<E>map(mapper)
+                .onClose(() -> {
+                    try {
+                        cursor.close();
+                    } catch (IOException e) {
+                        throw new MybatisPlusException("关闭游标失败", e);
+                    }
+                });
+    }
 
-        Page<M> pager = new Page<>(pageResult.getCurrent(), pageResult.getSize(), pageResult.getTotal(), pageResult.isSearchCount());
-        List<M> list = new ArrayList<>(records.size());
-        records.forEach(map -> list.add((M) BeanUtil.mapToBean(map, master.getTableInfo().getEntityType(), true, CopyOptions.create())));
+    /**
+     * 只判断是否有下一页的分页查询，不统计总数，适用于不需要显示总数的场景（如滚动加载）
+     * <p>
+     * 多查询一行用于判断是否有下一页，多查询的一行不会返回；分页的总数始终为0，通过 {@link JoinPage#hasNext()} 判断是否有下一页
+     *
+     * @param current 当前页，从1开始
+     * @param size    每页的数量
+     * @return 返回分页结果
+     */
+    public JoinPage<Map<String, Object>> sliceMap(long current, long size) {
+        return this.slice(current, size, null);
+    }
 
-        pager.setRecords(list);
-        return pager;
+    /**
+     * 只判断是否有下一页的分页查询，并填充到实体中，注册了 {@link org.join.plus.interceptor.JoinInterceptor} 时直接从结果集填充实体
+     *
+     * @param pageType 实体对象的类型
+     * @param current  当前页，从1开始
+     * @param size     每页的数量
+     * @param <E>      实体对象的类型
+     * @return 返回分页结果
+     * @see QueryJoin#sliceMap(long, long)
+     */
+    public <E> JoinPage<E> slicePage(Class<E> pageType, long current, long size) {
+        if (Map.class.isAssignableFrom(pageType)) {
+            return this.slice(current, size, null);
+        }
+        return this.hydrate(pageType, () -> this.slice(current, size, pageType));
     }
 
     /**
-     * 将结果查询出来之后再填充到实体中
+     * 执行只判断是否有下一页的分页查询
+     * <p>
+     * 查询 {@code size + 1} 行，查询到多出的一行时说明有下一页；联合查询时经过分页插件，其它查询直接追加 LIMIT、OFFSET
      *
-     * @param pageType 集合实体的类型
+     * @param current  当前页，从1开始
+     * @param size     每页的数量
+     * @param pageType 实体对象的类型，为空则返回Map
+     * @param <E>      实体对象的类型
+     * @return 返回分页结果
      */
-    public <E> Page<E> toEntityPage(Class<E> pageType) {
-        if (pageType == null) {
-            return new Page<>();
+    @SuppressWarnings("unchecked")
+    private <E> JoinPage<E> slice(long current, long size, Class<E> pageType) {
+        if (size <= 0) {
+            throw new MybatisPlusException("分页的每页数量必须大于0");
         }
 
-        if (this.pageResult == null) {
-            this.pageResult = pagerMap();
+        JoinMapper<?> mapper = executeCheck();
+        long offset = current > 1 ? (current - 1) * size : 0;
+        List<Map<String, Object>> rows;
+        if (this.unions.isEmpty() && this.unionAlls.isEmpty()) {
+            rows = this.limited(size + 1, offset, () -> pageType == null ? mapper.listMap(this) : mapper.listEntity(this));
+        } else {
+            Page<Map<String, Object>> probe = new Page<Map<String, Object>>(current, size + 1, false) {
+                private final static long serialVersionUID = 1L;
+
+                @Override
+                public long offset() {
+                    return offset;
+                }
+            };
+            rows = (pageType == null ? mapper.pageMap(probe, this) : mapper.pageEntity(probe, this)).getRecords();
         }
 
-        List<Map<String, Object>> records = this.pageResult.getRecords();
-        if (records.isEmpty()) {
-            return new Page<>();
+        JoinPage<E> pager = new JoinPage<>(Math.max(current, 1), size, 0, false);
+        if (rows == null || rows.isEmpty()) {
+            return pager;
         }
 
-        Page<E> pager = new Page<>(pageResult.getCurrent(), pageResult.getSize(), pageResult.getTotal(), pageResult.isSearchCount());
-        List<E> list = new ArrayList<>(records.size());
-        records.forEach(map -> list.add(BeanUtil.mapToBean(map, pageType, true, CopyOptions.create())));
+        boolean hasNext = rows.size() > size;
+        List<Map<String, Object>> records = new ArrayList<>(hasNext ? rows.subList(0, (int) size) : rows);
+        pager.setRecords(pageType == null ? (List<E>) records : typedRows(records, pageType));
+        return pager.setHasNext(hasNext);
+    }
 
-        pager.setRecords(list);
-        return pager;
+    /**
+     * 键集分页查询，按照排序字段从上一页的最后一行之后开始查询，不统计总数
+     * <p>
+     * 排序字段来自 {@code orderByAsc}、{@code orderByDesc}，排序字段中没有主表的主键时，自动追加主键升序作为唯一的排序依据；
+     * 无论查询到第几页，都只需要从索引定位到上一页之后，不会像 OFFSET 一样扫描并丢弃前面的行。
+     * <p>
+     * 排序字段的值不能为空值；不支持 UNION 查询
+     *
+     * @param token 上一页返回的 {@link JoinPage#getNextToken()}，为空则查询第一页
+     * @param size  每页的数量
+     * @return 返回分页结果，没有下一页时令牌为空
+     */
+    public JoinPage<Map<String, Object>> keysetMap(String token, long size) {
+        return this.keyset(token, size);
     }
 
     /**
-     * 将结果查询出来之后再填充到每个实体中
-     * 直接返回主实体类型对应的列表
+     * 键集分页查询，并填充到实体中
+     *
+     * @param pageType 实体对象的类型
+     * @param token    上一页返回的 {@link JoinPage#getNextToken()}，为空则查询第一页
+     * @param size     每页的数量
+     * @param <E>      实体对象的类型
+     * @return 返回分页结果，没有下一页时令牌为空
+     * @see QueryJoin#keysetMap(String, long)
      */
-    @SuppressWarnings("unchecked")
-    public <E, B> List<B> entityValueList(SFunction<E, B> entityColumn) {
-        if (this.listResult == null) {
-            this.listResult = listMap();
-        }
+    public <E> JoinPage<E> keysetPage(Class<E> pageType, String token, long size) {
+        JoinPage<Map<String, Object>> result = this.keyset(token, size);
+        JoinPage<E> pager = new JoinPage<>(result.getCurrent(), result.getSize(), result.getTotal(), false);
+        pager.setRecords(RowMapper.of(pageType).mapAll(result.getRecords()));
+        return pager.setNextToken(result.getNextToken()).setHasNext(result.hasNext());
+    }
 
-        if (this.listResult.isEmpty()) {
-            return ListUtil.empty();
-        }
+    /**
+     * 按键集分页逐页处理全部的查询结果，每一页的查询成本相同
+     *
+     * @param size     每页的数量
+     * @param consumer 每页结果的处理
+     * @see QueryJoin#keysetMap(String, long)
+     */
+    public void forEachPage(long size, Consumer<JoinPage<Map<String, Object>>> consumer) {
+        String token = null;
+        do {
+            JoinPage<Map<String, Object>> pager = this.keysetMap(token, size);
+            if (pager.getRecords().isEmpty()) {
+                return;
+            }
+            consumer.accept(pager);
+            token = pager.getNextToken();
+        } while (token != null);
+    }
 
-        SerializedLambda sl = LambdaUtils.resolve(entityColumn);
-        String fieldName = cn.hutool.core.util.StrUtil.getGeneralField(sl.getImplMethodName());
-        return (List<B>) toValueList(ReflectUtil.getMethod(sl.getImplClass(), sl.getImplMethodName()).getReturnType(), fieldName);
+    /**
+     * 按键集分页逐页处理全部的查询结果，并填充到实体中
+     *
+     * @param pageType 实体对象的类型
+     * @param size     每页的数量
+     * @param consumer 每页结果的处理
+     * @param <E>      实体对象的类型
+     * @see QueryJoin#forEachPage(long, Consumer)
+     */
+    public <E> void forEachPage(Class<E> pageType, long size, Consumer<JoinPage<E>> consumer) {
+        String token = null;
+        do {
+            JoinPage<E> pager = this.keysetPage(pageType, token, size);
+            if (pager.getRecords().isEmpty()) {
+                return;
+            }
+            consumer.accept(pager);
+            token = pager.getNextToken();
+        } while (token != null);
     }
 
     /**
-     * 将结果查询出来之后再填充到实体中
+     * 执行键集分页查询
      *
-     * @param valueType 集合元素的类型
+     * @param token 上一页的令牌，为空则查询第一页
+     * @param size  每页的数量
+     * @return 返回分页结果
      */
-    public <E> List<E> toValueList(Class<E> valueType) {
-        if (valueType == null) {
-            return ListUtil.empty();
+    private JoinPage<Map<String, Object>> keyset(String token, long size) {
+        if (size <= 0) {
+            throw new MybatisPlusException("键集分页的每页数量必须大于0");
+        }
+        if (!this.limitable()) {
+            throw new MybatisPlusException("键集分页不支持联合查询和 last 语句");
         }
 
-        if (this.listResult == null) {
-            this.listResult = listMap();
+        List<OrderItem> orders = this.keysetOrders();
+        String signature = keysetSignature(orders);
+        Object[] values = StrUtil.isBlank(token) ? null : SeekToken.decode(signature, orders.size(), token);
+
+        int seqFrom = this.paramNameSeq.get();
+        this.seekSegment = values == null ? null : this.seekPredicate(orders, values);
+        int seqTo = this.paramNameSeq.get();
+        this.extraSelect = seekSelect(orders);
+        this.orderByOverride = orderBySql(orders);
+        // 多查询一行，用于判断是否还有下一页
+        this.limit = size + 1;
+
+        List<Map<String, Object>> rows;
+        try {
+            rows = executeCheck().listMap(this);
+        } finally {
+            this.extraSelect = null;
+            this.seekSegment = null;
+            this.orderByOverride = null;
+            this.limit = 0;
+            // 每页的条件值只使用一次，逐页遍历时不能一直累积
+            for (int i = seqFrom + 1; i <= seqTo; i++) {
+                this.paramNameValuePairs.remove(Constants.WRAPPER_PARAM + i);
+            }
         }
 
-        if (this.listResult.isEmpty()) {
-            return ListUtil.empty();
+        JoinPage<Map<String, Object>> pager = new JoinPage<>(1, size, 0, false);
+        if (rows == null || rows.isEmpty()) {
+            return pager;
         }
 
-        Map<String, Object> oneMap = CollUtil.getFirst(this.listResult);
-        if (CollUtil.isNotEmpty(oneMap)) {
-            String key = CollUtil.getFirst(oneMap.keySet());
-            return toValueList(valueType, key);
+        boolean hasNext = rows.size() > size;
+        int count = hasNext ? (int) size : rows.size();
+        String[] keys = seekKeys(rows.get(0), orders.size());
+        Map<String, Object> last = rows.get(count - 1);
+        Object[] lastValues = new Object[orders.size()];
+        for (int i = 0; i < keys.length; i++) {
+            lastValues[i] = keys[i] == null ? null : last.get(keys[i]);
+        }
+        // 结果可能是会话缓存中的同一批行，不能直接去掉排序字段
+        List<Map<String, Object>> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(withoutSeekKeys(rows.get(i), keys));
         }
 
-        return ListUtil.empty();
+        pager.setRecords(records);
+        if (hasNext) {
+            pager.setNextToken(SeekToken.encode(signature, lastValues)).setHasNext(true);
+        }
+        return pager;
     }
 
     /**
-     * 将结果查询出来之后再填充到实体中
+     * 生成附加查询排序字段的语句，排序字段的别名按顺序编号
      *
-     * @param valueType 集合元素的类型
-     * @param column    需要转换的字段名称，会自动转小写
+     * @param orders 排序字段
+     * @return 返回附加查询的字段
      */
-    public <E> List<E> toValueList(Class<E> valueType, String column) {
-        if (valueType == null) {
-            return ListUtil.empty();
+    private static String seekSelect(List<OrderItem> orders) {
+        StringBuilder select = new StringBuilder(32 * orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            select.append(StrUtil.COMMA)
+                    .append(orders.get(i).getColumn())
+                    .append(StrUtil.SPACE)
+                    .append(StrUtil.AS)
+                    .append(StrUtil.SPACE)
+                    .append(SEEK_ALIAS)
+                    .append(i);
         }
+        return select.toString();
+    }
 
-        if (this.listResult == null) {
-            this.listResult = listMap();
-        }
+    /**
+     * 生成排序语句，与条件构造器生成的排序语句格式相同
+     * " ORDER BY column_name_1 ASC,column_name_2 DESC"
+     *
+     * @param orders 排序字段
+     * @return 返回排序语句
+     */
+    private static String orderBySql(List<OrderItem> orders) {
+        StringJoiner sql = new StringJoiner(StrUtil.COMMA, StrUtil.SPACE + SqlKeyword.ORDER_BY.getSqlSegment() + StrUtil.SPACE, StrUtil.EMPTY);
+        orders.forEach(o -> sql.add(o.getColumn() + StrUtil.SPACE + (o.isAsc() ? SqlKeyword.ASC : SqlKeyword.DESC).getSqlSegment()));
+        return sql.toString();
+    }
 
-        if (this.listResult.isEmpty()) {
-            return ListUtil.empty();
+    /**
+     * 获取附加查询的排序字段在结果中的字段名
+     * <p>
+     * 部分数据库会改变字段别名的大小写，按实际的字段名读取
+     *
+     * @param row  一行结果
+     * @param size 排序字段的数量
+     * @return 返回字段名，下标与排序字段的顺序一致
+     */
+    private static String[] seekKeys(Map<String, Object> row, int size) {
+        String[] keys = new String[size];
+        for (String key : row.keySet()) {
+            if (key.regionMatches(true, 0, SEEK_ALIAS, 0, SEEK_ALIAS.length())) {
+                keys[Integer.parseInt(key.substring(SEEK_ALIAS.length()))] = key;
+            }
         }
+        return keys;
+    }
 
-        List<E> list = new ArrayList<>(this.listResult.size());
-        // column.toLowerCase()  MP查询后返回的map中所有的key都是小写的，所以这里转小写，可能是有问题的
-        this.listResult.forEach(map -> list.add(MapUtil.get(map, column, valueType)));
+    /**
+     * 获取键集分页的排序字段，排序字段中没有主表的主键时，追加主键升序
+     * <p>
+     * 追加的主键只用于本次查询，不会加入查询器的排序
+     *
+     * @return 返回排序字段
+     */
+    private List<OrderItem> keysetOrders() {
+        List<OrderItem> orders = new ArrayList<>(this.orderItems.size() + 1);
+        orders.addAll(this.orderItems);
+        String keyColumn = this.master.getMeta().getKeyColumn();
+        if (keyColumn != null) {
+            String column = this.master.getAliasName().concat(StrUtil.DOT).concat(keyColumn);
+            if (orders.stream().noneMatch(o -> column.equals(o.getColumn()))) {
+                orders.add(OrderItem.asc(column));
+            }
+        }
 
-        return list;
+        if (orders.isEmpty()) {
+            throw new MybatisPlusException("键集分页需要排序字段或主表主键");
+        }
+        return orders;
     }
 
     /**
-     * 统计数量
+     * 生成排序字段的签名，用于校验令牌
      *
-     * @return 返回统计的数量，没有为0
+     * @param orders 排序字段
+     * @return 返回签名
      */
-    public int count() {
-        return executeCheck().count(this);
+    private static String keysetSignature(List<OrderItem> orders) {
+        StringBuilder text = new StringBuilder(64);
+        orders.forEach(o -> text.append(o.getColumn()).append(o.isAsc() ? '+' : '-'));
+        return Integer.toHexString(text.toString().hashCode());
     }
 
     /**
-     * 判断查询结果是否存在
-     *
-     * @return true存在，false不存在
+     * 生成从上一页的最后一行之后开始的条件
+     * <p>
+     * 排序方向全部相同时使用行值比较 {@code (c1, c2) > (?, ?)}，可以直接利用联合索引定位；
+     * 方向不同时展开为 {@code c1 > ? OR (c1 = ? AND c2 < ?)}
      *
-     * @since 1.1.0-RELEASE
+     * @param orders 排序字段
+     * @param values 上一页最后一行的排序字段值
+     * @return 返回条件的sql
      */
-    public boolean contains() {
-        return count() > 0;
+    String seekPredicate(List<OrderItem> orders, Object[] values) {
+        boolean asc = orders.get(0).isAsc();
+        boolean sameDirection = orders.stream().allMatch(o -> o.isAsc() == asc);
+        StringBuilder sql = new StringBuilder(64 * orders.size());
+        if (sameDirection) {
+            StringJoiner columns = new StringJoiner(StrUtil.COMMA + StrUtil.SPACE, "(", ")");
+            StringJoiner params = new StringJoiner(StrUtil.COMMA + StrUtil.SPACE, "(", ")");
+            for (int i = 0; i < orders.size(); i++) {
+                columns.add(orders.get(i).getColumn());
+                params.add(formatSql("{0}", values[i]));
+            }
+            return sql.append(columns).append(asc ? " > " : " < ").append(params).toString();
+        }
+
+        sql.append('(');
+        for (int i = 0; i < orders.size(); i++) {
+            if (i > 0) {
+                sql.append(" OR ");
+            }
+            sql.append('(');
+            for (int j = 0; j < i; j++) {
+                sql.append(orders.get(j).getColumn())
+                        .append(" = ")
+                        .append(formatSql("{0}", values[j]))
+                        .append(StrUtil.SPACE)
+                        .append(StrUtil.AND)
+                        .append(StrUtil.SPACE);
+            }
+            sql.append(orders.get(i).getColumn())
+                    .append(orders.get(i).isAsc() ? " > " : " < ")
+                    .append(formatSql("{0}", values[i]))
+                    .append(')');
+        }
+        return sql.append(')').toString();
     }
 
     /**
@@ -1309,7 +3430,10 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
     public <L extends Model<L>, B extends Model<B>> QueryJoin<M> eqAs(SFunction<L, ?> left, String leftAs, SFunction<B, ?> right, String rightAs) {
         ColumnInfo<L> ciLeft = ColumnInfo.init(this.queryTables, left, leftAs);
         ColumnInfo<B> ciRight = ColumnInfo.init(this.queryTables, right, rightAs);
-        apply(ciLeft
+        // 两个字段都按条件字段记录，不作为原始条件
+        this.predicateColumns.add(ciLeft.cndColumnStr());
+        this.predicateColumns.add(ciRight.cndColumnStr());
+        super.apply(true, ciLeft
                 .cndColumnStr()
                 .concat(StrUtil.SPACE)
                 .concat(Constants.EQUALS)
@@ -2671,6 +4795,24 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
         return this.orderByDesc(cnd, transToStr(columns));
     }
 
+    /**
+     * 排序，同时记录排序字段，用于键集分页
+     *
+     * @param condition 是否执行
+     * @param isAsc     是否是升序
+     * @param columns   排序字段
+     * @return 返回本实例
+     */
+    @Override
+    public QueryJoin<M> orderBy(boolean condition, boolean isAsc, String... columns) {
+        if (condition && ArrayUtils.isNotEmpty(columns)) {
+            for (String column : columns) {
+                this.orderItems.add(isAsc ? OrderItem.asc(column) : OrderItem.desc(column));
+            }
+        }
+        return super.orderBy(condition, isAsc, columns);
+    }
+
     @Override
     public QueryJoin<M> select(Predicate<TableFieldInfo> predicate) {
         return select(null, predicate);
@@ -2695,6 +4837,270 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
         return new String[0];
     }
 
+    /**
+     * 分散执行联合查询：主查询和每个联合查询的分支同时执行，结果在内存中合并
+     * <p>
+     * 主查询在当前线程执行，分支在 {@link JoinConfig#pageExecutor()} 中执行，每个分支使用自己的连接，分支不会加入当前线程的事务；
+     * 没有配置线程池时，主查询和分支在当前线程依次执行，同样加入当前线程的事务。
+     * 分支可以命中不同的索引，也可以通过 {@link QueryJoin#UNION_ALL(Class, JoinConfig, Consumer)} 查询不同的数据源。
+     * <p>
+     * 主查询有排序字段时，每个分支按自己的排序字段排序后逐个归并，分支的排序字段数量和方向必须与主查询一致，
+     * 归并时按Java的比较规则比较排序字段的值，字符串的顺序可能与数据库的排序规则不同；
+     * 存在 {@code UNION} 分支时，主查询和 {@code UNION} 分支的结果去重，{@code UNION ALL} 分支的结果不去重。
+     * <p>
+     * 全部分支的结果都会先加载到内存中再归并：只有 {@code UNION ALL} 分支且限制了数量时，最多加载 分支数 × {@code limit} 行；
+     * 存在 {@code UNION} 分支时加载全部的结果；有排序字段时返回的每一行是去掉附加排序字段的副本，去重的集合引用返回的行
+     *
+     * @return 返回合并后的结果
+     */
+    public List<Map<String, Object>> scatterListMap() {
+        return this.scatter(0);
+    }
+
+    /**
+     * 分散执行联合查询，最多返回指定数量的结果
+     * <p>
+     * 只有 {@code UNION ALL} 分支时，每个分支只查询前 {@code limit} 行，归并后取前 {@code limit} 行；
+     * 存在 {@code UNION} 分支时需要全部的结果才能去重，不限制分支的数量
+     *
+     * @param limit 最多返回的数量
+     * @return 返回合并后的结果
+     * @see QueryJoin#scatterListMap()
+     */
+    public List<Map<String, Object>> scatterListMap(long limit) {
+        if (limit <= 0) {
+            throw new MybatisPlusException("最多返回的数量必须大于0");
+        }
+        return this.scatter(limit);
+    }
+
+    /**
+     * 分散执行联合查询，并填充到实体中
+     *
+     * @param listType 集合实体的类型
+     * @param limit    最多返回的数量
+     * @param <E>      集合实体的类型
+     * @return 返回合并后的结果
+     * @see QueryJoin#scatterListMap(long)
+     */
+    public <E> List<E> toScatterList(Class<E> listType, long limit) {
+        List<Map<String, Object>> rows = this.scatterListMap(limit);
+        return Map.class.isAssignableFrom(listType) ? new ArrayList<>(typedRows(rows, listType)) : RowMapper.of(listType).mapAll(rows);
+    }
+
+    /**
+     * 执行分散的联合查询
+     *
+     * @param limit 最多返回的数量，为0时不限制
+     * @return 返回合并后的结果
+     */
+    private List<Map<String, Object>> scatter(long limit) {
+        JoinMapper<?> mapper = executeCheck();
+        if (this.unions.isEmpty() && this.unionAlls.isEmpty()) {
+            return limit > 0 ? this.limited(limit, 0, () -> mapper.listMap(this)) : mapper.listMap(this);
+        }
+
+        List<QueryJoin<?>> unionList = new ArrayList<>(this.unions);
+        List<QueryJoin<?>> unionAllList = new ArrayList<>(this.unionAlls);
+        List<QueryJoin<?>> branches = new ArrayList<>(1 + unionList.size() + unionAllList.size());
+        branches.add(this);
+        branches.addAll(unionList);
+        branches.addAll(unionAllList);
+        for (QueryJoin<?> branch : branches) {
+            if (branch.orderItems.size() != this.orderItems.size()) {
+                throw new MybatisPlusException("联合查询的分支的排序字段与主查询不一致");
+            }
+            for (int i = 0; i < this.orderItems.size(); i++) {
+                if (branch.orderItems.get(i).isAsc() != this.orderItems.get(i).isAsc()) {
+                    throw new MybatisPlusException("联合查询的分支的排序方向与主查询不一致");
+                }
+            }
+        }
+
+        // 主查询和 UNION 分支需要去重，去重需要全部的结果
+        int distinct = unionList.isEmpty() ? 0 : 1 + unionList.size();
+        long branchLimit = distinct == 0 ? limit : 0;
+        Executor executor = this.joinConfig == null ? null : this.joinConfig.pageExecutor();
+        String last = this.lastSql.getStringValue();
+        List<List<Map<String, Object>>> results = new ArrayList<>(branches.size());
+        List<CompletableFuture<List<Map<String, Object>>>> futures = new ArrayList<>(branches.size() - 1);
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        try {
+            // 派发之前生成全部的语句，分支与主查询共用参数，执行期间只读取
+            this.unions.clear();
+            this.unionAlls.clear();
+            this.lastSql.toEmpty();
+            branches.forEach(branch -> branch.pin(branchLimit));
+
+            if (executor == null) {
+                // 没有配置线程池时在当前线程依次执行，分支同样加入当前线程的事务
+                for (QueryJoin<?> branch : branches) {
+                    results.add(branch.executeCheck().listMap(branch));
+                }
+                return merge(results, distinct, this.orderItems, limit);
+            }
+
+            for (QueryJoin<?> branch : branches.subList(1, branches.size())) {
+                // 已经失败时还没开始的分支不再查询
+                futures.add(CompletableFuture.supplyAsync(() -> aborted.get()
+                        ? Collections.<Map<String, Object>>emptyList() : branch.executeCheck().listMap(branch), executor));
+            }
+            results.add(mapper.listMap(this));
+            for (CompletableFuture<List<Map<String, Object>>> future : futures) {
+                results.add(await(future));
+            }
+        } catch (RuntimeException e) {
+            aborted.set(true);
+            throw e;
+        } finally {
+            // 分支执行期间读取固定的语句和共用的参数，全部结束之后才能取消固定
+            settle(futures);
+            branches.forEach(QueryJoin::unpin);
+            this.unions.addAll(unionList);
+            this.unionAlls.addAll(unionAllList);
+            this.lastSql.setStringValue(last);
+        }
+        return merge(results, distinct, this.orderItems, limit);
+    }
+
+    /**
+     * 固定分散执行时的语句，附加查询排序字段
+     *
+     * @param limit 限制查询的数量，为0时不限制
+     */
+    private void pin(long limit) {
+        this.extraSelect = this.orderItems.isEmpty() ? null : seekSelect(this.orderItems);
+        this.limit = limit;
+        String select = this.plan().getSqlSelect();
+        String from = this.getFrom();
+        String segment = this.getCustomSqlSegment();
+        this.selectOverride = this.extraSelect == null ? select : select.concat(this.extraSelect);
+        this.fromOverride = from;
+        this.segmentOverride = segment;
+    }
+
+    /**
+     * 取消固定的语句
+     */
+    private void unpin() {
+        this.extraSelect = null;
+        this.limit = 0;
+        this.selectOverride = null;
+        this.fromOverride = null;
+        this.segmentOverride = null;
+    }
+
+    /**
+     * 归并每个分支已经排好序的结果
+     *
+     * @param results  每个分支的结果
+     * @param distinct 前几个分支的结果需要去重
+     * @param orders   排序字段，为空则按分支的顺序依次合并
+     * @param limit    最多返回的数量，为0时不限制
+     * @return 返回归并后的结果
+     */
+    private static List<Map<String, Object>> merge(List<List<Map<String, Object>>> results, int distinct,
+                                                   List<OrderItem> orders, long limit) {
+        // 结果可能是 MyBatis 会话中缓存的结果，不能修改，只读取排序字段的值
+        int size = orders.size();
+        List<Object[][]> values = new ArrayList<>(results.size());
+        List<String[]> branchKeys = new ArrayList<>(results.size());
+        for (List<Map<String, Object>> rows : results) {
+            Object[][] rowValues = new Object[rows.size()][];
+            String[] keys = rows.isEmpty() ? new String[0] : seekKeys(rows.get(0), size);
+            for (int i = 0; i < rows.size(); i++) {
+                rowValues[i] = new Object[size];
+                for (int j = 0; j < keys.length; j++) {
+                    rowValues[i][j] = keys[j] == null ? null : rows.get(i).get(keys[j]);
+                }
+            }
+            values.add(rowValues);
+            branchKeys.add(keys);
+        }
+
+        int[] positions = new int[results.size()];
+        PriorityQueue<Integer> heads = new PriorityQueue<>(Math.max(results.size(), 1), (a, b) -> {
+            Object[] va = values.get(a)[positions[a]];
+            Object[] vb = values.get(b)[positions[b]];
+            for (int i = 0; i < size; i++) {
+                int c = compareValues(va[i], vb[i]);
+                if (c != 0) {
+                    return orders.get(i).isAsc() ? c : -c;
+                }
+            }
+            return Integer.compare(a, b);
+        });
+        for (int i = 0; i < results.size(); i++) {
+            if (!results.get(i).isEmpty()) {
+                heads.add(i);
+            }
+        }
+
+        List<Map<String, Object>> merged = new ArrayList<>();
+        Set<Map<String, Object>> seen = distinct > 0 ? new HashSet<>() : Collections.emptySet();
+        while (!heads.isEmpty() && (limit <= 0 || merged.size() < limit)) {
+            int branch = heads.poll();
+            Map<String, Object> row = withoutSeekKeys(results.get(branch).get(positions[branch]), branchKeys.get(branch));
+            if (branch >= distinct || seen.add(row)) {
+                merged.add(row);
+            }
+            if (++positions[branch] < results.get(branch).size()) {
+                heads.add(branch);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * 复制一行结果，去掉附加查询的排序字段
+     *
+     * @param row  一行结果
+     * @param keys 排序字段的别名
+     * @return 返回复制的结果，没有排序字段时返回原来的结果
+     */
+    private static Map<String, Object> withoutSeekKeys(Map<String, Object> row, String[] keys) {
+        if (keys.length == 0) {
+            return row;
+        }
+        Map<String, Object> copy = new HashMap<>(row);
+        for (String key : keys) {
+            if (key != null) {
+                copy.remove(key);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * 比较排序字段的值，空值最小；不同类型的数字按数值比较
+     *
+     * @param a 值
+     * @param b 值
+     * @return 返回比较结果
+     */
+    @SuppressWarnings("unchecked")
+    private static int compareValues(Object a, Object b) {
+        if (a == b) {
+            return 0;
+        }
+        if (a == null) {
+            return -1;
+        }
+        if (b == null) {
+            return 1;
+        }
+        if (a instanceof Number && b instanceof Number && a.getClass() != b.getClass()) {
+            return new BigDecimal(a.toString()).compareTo(new BigDecimal(b.toString()));
+        }
+        if (a instanceof Comparable && a.getClass().isInstance(b)) {
+            return ((Comparable<Object>) a).compareTo(b);
+        }
+        if (b instanceof Comparable && b.getClass().isInstance(a)) {
+            return -((Comparable<Object>) b).compareTo(a);
+        }
+        return a.toString().compareTo(b.toString());
+    }
+
     /**
      * 联合查询 UNION
      *
@@ -2703,7 +5109,7 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
      * @return 返回多表查询对象
      */
     public <U extends Model<U>> QueryJoin<M> UNION(Class<U> tableEntity, Consumer<QueryJoin<U>> queryJoinConsumer) {
-        QueryJoin<U> queryJoin = QueryJoin.create(tableEntity, this.joinConfig);
+        QueryJoin<U> queryJoin = this.branch(tableEntity);
         queryJoinConsumer.accept(queryJoin);
         this.unions.add(queryJoin);
         return this;
@@ -2717,7 +5123,25 @@ public class QueryJoin<M extends Model<M>> extends AbstractWrapper<M, String, Qu
      * @return 返回多表查询对象
      */
     public <U extends Model<U>> QueryJoin<M> UNION_ALL(Class<U> tableEntity, Consumer<QueryJoin<U>> queryJoinConsumer) {
-        QueryJoin<U> queryJoin = QueryJoin.create(tableEntity, this.joinConfig);
+        QueryJoin<U> queryJoin = this.branch(tableEntity);
+        queryJoinConsumer.accept(queryJoin);
+        this.unionAlls.add(queryJoin);
+        return this;
+    }
+
+    /**
+     * 联合查询 UNION ALL，分支使用自己的配置
+     * <p>
+     * 分散执行时（见 {@link QueryJoin#scatterListMap()}），分支使用配置中的mapper执行，可以查询不同的数据源；
+     * 作为一条语句执行时，与 {@link QueryJoin#UNION_ALL(Class, Consumer)} 相同
+     *
+     * @param tableEntity 需要联合查询的多表查询的主表类型
+     * @param joinConfig  分支使用的配置
+     * @param <U>         类型
+     * @return 返回多表查询对象
+     */
+    public <U extends Model<U>> QueryJoin<M> UNION_ALL(Class<U> tableEntity, JoinConfig joinConfig, Consumer<QueryJoin<U>> queryJoinConsumer) {
+        QueryJoin<U> queryJoin = this.branch(tableEntity, joinConfig);
         queryJoinConsumer.accept(queryJoin);
         this.unionAlls.add(queryJoin);
         return this;
@@ -0,0 +1,130 @@
+package org.join.plus.query;
+
+import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
+import com.baomidou.mybatisplus.extension.activerecord.Model;
+import org.join.plus.config.JoinConfig;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Function;
+
+/**
+ * 关联查询器的复用池，同一个主表、同一个配置的查询器用完后清空放回，下次直接取出重新构建
+ * <p>
+ * 放回时通过 {@link QueryJoin#clear()} 恢复到刚创建时的状态，参数、条件、关联的表和生成 From 语句的缓冲区清空后继续使用；
+ * 空闲的查询器保存在有界的队列中，不与线程绑定，平台线程和虚拟线程都可以使用，超出数量的查询器直接丢弃。
+ * 放回之后不能再使用该查询器，也不能再使用它缓存的结果；同一个查询器不能重复放回
+ * <pre>
+ *     private final QueryJoinPool&lt;BaseUser&gt; userQueries = new QueryJoinPool&lt;&gt;(BaseUser.class, joinConfig);
+ *
+ *     List&lt;Map&lt;String, Object&gt;&gt; users = userQueries.execute(query -&gt; query
+ *         .leftJoin(BaseRole.class)
+ *         .on(BaseUser::getRoleId, BaseRole::getRoleId)
+ *         .eq(BaseUser::getUsername, username)
+ *         .listMap());
+ * </pre>
+ *
+ * @author suyun
+ * @date 2026-10-17 23:20
+ */
+public class QueryJoinPool<M extends Model<M>> {
+
+    /**
+     * 主表
+     */
+    private final Class<M> masterTable;
+
+    /**
+     * 关联查询的配置
+     */
+    private final JoinConfig joinConfig;
+
+    /**
+     * 空闲的查询器
+     */
+    private final ArrayBlockingQueue<QueryJoin<M>> idle;
+
+    public QueryJoinPool(Class<M> masterTable, JoinConfig joinConfig) {
+        this(masterTable, joinConfig, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * 创建复用池
+     *
+     * @param masterTable 主表类
+     * @param joinConfig  关联查询的配置
+     * @param maxIdle     最多保留的空闲查询器数量
+     */
+    public QueryJoinPool(Class<M> masterTable, JoinConfig joinConfig, int maxIdle) {
+        if (maxIdle <= 0) {
+            throw new MybatisPlusException("最多保留的空闲查询器数量必须大于0");
+        }
+        this.masterTable = masterTable;
+        this.joinConfig = joinConfig;
+        this.idle = new ArrayBlockingQueue<>(maxIdle);
+    }
+
+    /**
+     * 取出一个查询器，没有空闲的则新建
+     *
+     * @return 返回刚创建状态的查询器
+     */
+    public QueryJoin<M> borrow() {
+        QueryJoin<M> queryJoin = this.idle.poll();
+        if (queryJoin == null) {
+            return QueryJoin.create(this.masterTable, this.joinConfig);
+        }
+
+        synchronized (queryJoin) {
+            queryJoin.pooled = false;
+        }
+        return queryJoin;
+    }
+
+    /**
+     * 清空查询器并放回，空闲的查询器已满时直接丢弃；已经放回的查询器再次放回时抛出异常
+     *
+     * @param queryJoin 从本池中取出的查询器
+     */
+    public void release(QueryJoin<M> queryJoin) {
+        if (queryJoin == null) {
+            return;
+        }
+        if (queryJoin.masterType() != this.masterTable || queryJoin.joinConfig() != this.joinConfig) {
+            throw new MybatisPlusException("查询器的主表或配置与复用池不一致");
+        }
+        synchronized (queryJoin) {
+            if (queryJoin.pooled) {
+                throw new MybatisPlusException("查询器已经放回复用池，不能重复放回");
+            }
+            queryJoin.pooled = true;
+        }
+
+        queryJoin.clear();
+        this.idle.offer(queryJoin);
+    }
+
+    /**
+     * 取出一个查询器执行，执行完毕后放回
+     *
+     * @param action 构建并执行查询，返回的结果中不能引用查询器
+     * @param <R>    查询结果类型
+     * @return 返回查询结果
+     */
+    public <R> R execute(Function<QueryJoin<M>, R> action) {
+        QueryJoin<M> queryJoin = this.borrow();
+        try {
+            return action.apply(queryJoin);
+        } finally {
+            this.release(queryJoin);
+        }
+    }
+
+    /**
+     * 当前空闲的查询器数量
+     *
+     * @return 返回数量
+     */
+    public int idleSize() {
+        return this.idle.size();
+    }
+}
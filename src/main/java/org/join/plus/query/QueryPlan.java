@@ -0,0 +1,65 @@
+package org.join.plus.query;
+
+import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 关联查询的执行计划，同一结构的查询共用同一份计划
+ * <p>
+ * 只保存与结构相关、与条件值无关的内容：渲染好的查询字段和完整的 From 语句，以及需要自动追加的租户和逻辑删除字段
+ *
+ * @author suyun
+ * @date 2026-10-17 10:12
+ */
+@Getter
+public class QueryPlan implements Serializable {
+    private final static long serialVersionUID = 1L;
+
+    /**
+     * 渲染好的查询字段，不包含 SELECT 关键字，没有查询任何字段时为空
+     */
+    @Getter(AccessLevel.NONE)
+    private final String sqlSelect;
+
+    /**
+     * 包含全部关联的 From 语句，不包含 FROM 关键字
+     */
+    private final String sqlFrom;
+
+    /**
+     * 需要追加租户条件的字段，ex：tableAlias.tenant_id
+     */
+    private final List<String> tenantColumns;
+
+    /**
+     * 需要追加逻辑未删除条件的字段和值
+     * key：tableAlias.column_name
+     * value：逻辑未删除的值，数字会预先转换
+     */
+    private final Map<String, Object> logicDeleteColumns;
+
+    public QueryPlan(String sqlSelect, String sqlFrom, List<String> tenantColumns, Map<String, Object> logicDeleteColumns) {
+        this.sqlSelect = sqlSelect;
+        this.sqlFrom = sqlFrom;
+        this.tenantColumns = Collections.unmodifiableList(tenantColumns);
+        this.logicDeleteColumns = Collections.unmodifiableMap(logicDeleteColumns);
+    }
+
+    /**
+     * 获取渲染好的查询字段
+     *
+     * @return 返回查询字段，不包含 SELECT 关键字
+     */
+    public String getSqlSelect() {
+        if (this.sqlSelect == null) {
+            throw new MybatisPlusException("未查询任何字段");
+        }
+        return this.sqlSelect;
+    }
+}
@@ -0,0 +1,119 @@
+package org.join.plus.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 执行计划的全局缓存
+ * <p>
+ * key为查询结构的指纹（见 {@link QueryPlanKey}），不包含任何条件值；
+ * 查找不加锁，超出上限时由一个线程淘汰一批最久没有使用的执行计划，淘汰是近似的 LRU
+ *
+ * @author suyun
+ * @date 2026-10-17 10:12
+ */
+public final class QueryPlanCache {
+
+    /**
+     * 缓存的上限，超出后淘汰最久没有使用的执行计划，防止动态拼接的查询把缓存撑爆，
+     * 同时常用的执行计划不会因为偶尔出现的查询被一起清空
+     */
+    private final static int MAX_SIZE = 2048;
+
+    /**
+     * 每次淘汰的数量，淘汰之后留出空间，不需要每次放入都淘汰
+     */
+    private final static int EVICT_SIZE = MAX_SIZE / 8;
+
+    private final static Map<QueryPlanKey, Entry> PLANS = new ConcurrentHashMap<>(64);
+
+    /**
+     * 访问的时钟，每次命中时记录到缓存项中
+     */
+    private final static AtomicLong CLOCK = new AtomicLong();
+
+    /**
+     * 是否有线程正在淘汰
+     */
+    private final static AtomicBoolean EVICTING = new AtomicBoolean();
+
+    private QueryPlanCache() {
+    }
+
+    /**
+     * 获取执行计划，不存在则构建
+     * <p>
+     * 构建在缓存之外执行，同一个指纹同时构建时保留先放入缓存的执行计划
+     *
+     * @param key     查询结构的指纹
+     * @param builder 构建执行计划
+     * @return 返回执行计划
+     */
+    public static QueryPlan get(QueryPlanKey key, Function<QueryPlanKey, QueryPlan> builder) {
+        Entry entry = PLANS.get(key);
+        if (entry != null) {
+            entry.lastUsed = CLOCK.incrementAndGet();
+            return entry.plan;
+        }
+
+        Entry created = new Entry(builder.apply(key), CLOCK.incrementAndGet());
+        entry = PLANS.putIfAbsent(key, created);
+        if (entry != null) {
+            return entry.plan;
+        }
+        if (PLANS.size() > MAX_SIZE) {
+            evict();
+        }
+        return created.plan;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public static void clear() {
+        PLANS.clear();
+    }
+
+    /**
+     * 淘汰最久没有使用的执行计划，已经有线程在淘汰时直接返回
+     */
+    private static void evict() {
+        if (!EVICTING.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Map.Entry<QueryPlanKey, Entry>> entries = new ArrayList<>(PLANS.entrySet());
+            int count = entries.size() - MAX_SIZE + EVICT_SIZE;
+            if (count <= 0) {
+                return;
+            }
+            entries.sort((a, b) -> Long.compare(a.getValue().lastUsed, b.getValue().lastUsed));
+            for (int i = 0; i < count && i < entries.size(); i++) {
+                Map.Entry<QueryPlanKey, Entry> eldest = entries.get(i);
+                PLANS.remove(eldest.getKey(), eldest.getValue());
+            }
+        } finally {
+            EVICTING.set(false);
+        }
+    }
+
+    /**
+     * 缓存项，记录最后一次使用的时钟
+     */
+    private final static class Entry {
+
+        private final QueryPlan plan;
+
+        private volatile long lastUsed;
+
+        private Entry(QueryPlan plan, long lastUsed) {
+            this.plan = plan;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.join.plus.query;
+
+import java.util.Arrays;
+
+/**
+ * 执行计划的指纹，由查询结构的各个部分组成（开关、实体类型、表别名、字段名和关联条件），不包含任何条件值
+ * <p>
+ * 只保存各部分的引用，不拼接字符串；哈希值在创建时计算一次，字段名等字符串的哈希值由 {@link String} 自身缓存，
+ * 同一结构的查询使用的字段名通常是同一个实例，比较时可以直接按引用命中
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+public final class QueryPlanKey {
+
+    private final Object[] parts;
+
+    private final int hash;
+
+    public QueryPlanKey(Object[] parts) {
+        this.parts = parts;
+        this.hash = Arrays.hashCode(parts);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof QueryPlanKey)) {
+            return false;
+        }
+        QueryPlanKey that = (QueryPlanKey) o;
+        return this.hash == that.hash && Arrays.equals(this.parts, that.parts);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+}
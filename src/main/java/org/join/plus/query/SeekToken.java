@@ -0,0 +1,178 @@
+package org.join.plus.query;
+
+import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
+
+import java.io.UnsupportedEncodingException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * 键集分页的续页令牌，保存上一页最后一行的排序字段值
+ * <p>
+ * 令牌只包含带类型标记的文本，解析时只会还原为固定的几种值类型，不使用Java反序列化；
+ * 令牌中带有排序字段的签名，排序字段不一致的令牌会被拒绝
+ *
+ * @author suyun
+ * @date 2026-10-17 17:05
+ */
+final class SeekToken {
+
+    private final static String SEPARATOR = ",";
+
+    private final static String ENCODING = StandardCharsets.UTF_8.name();
+
+    private SeekToken() {
+    }
+
+    /**
+     * 生成令牌
+     *
+     * @param signature 排序字段的签名
+     * @param values    排序字段的值，与排序字段的顺序一致
+     * @return 返回令牌
+     */
+    static String encode(String signature, Object[] values) {
+        StringBuilder text = new StringBuilder(64).append(signature);
+        for (Object value : values) {
+            text.append(SEPARATOR).append(encodeValue(value));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析令牌
+     *
+     * @param signature 排序字段的签名
+     * @param size      排序字段的数量
+     * @param token     令牌
+     * @return 返回排序字段的值
+     */
+    static Object[] decode(String signature, int size, String token) {
+        String text;
+        try {
+            text = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new MybatisPlusException("无效的分页令牌", e);
+        }
+
+        String[] parts = text.split(SEPARATOR, -1);
+        if (parts.length != size + 1 || !signature.equals(parts[0])) {
+            throw new MybatisPlusException("分页令牌与当前查询的排序字段不一致");
+        }
+
+        Object[] values = new Object[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = decodeValue(parts[i + 1]);
+        }
+        return values;
+    }
+
+    private static String encodeValue(Object value) {
+        char tag;
+        String text;
+        if (value == null) {
+            throw new MybatisPlusException("键集分页的排序字段不能为空值");
+        } else if (value instanceof String) {
+            tag = 'S';
+            text = (String) value;
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            tag = 'L';
+            text = value.toString();
+        } else if (value instanceof BigDecimal) {
+            tag = 'D';
+            text = ((BigDecimal) value).toPlainString();
+        } else if (value instanceof BigInteger) {
+            tag = 'I';
+            text = value.toString();
+        } else if (value instanceof Double || value instanceof Float) {
+            tag = 'F';
+            text = value.toString();
+        } else if (value instanceof Boolean) {
+            tag = 'B';
+            text = value.toString();
+        } else if (value instanceof Timestamp) {
+            tag = 'T';
+            text = ((Timestamp) value).toLocalDateTime().toString();
+        } else if (value instanceof java.sql.Date) {
+            tag = 'd';
+            text = ((java.sql.Date) value).toLocalDate().toString();
+        } else if (value instanceof java.sql.Time) {
+            tag = 't';
+            text = ((java.sql.Time) value).toLocalTime().toString();
+        } else if (value instanceof Date) {
+            tag = 'U';
+            text = String.valueOf(((Date) value).getTime());
+        } else if (value instanceof LocalDateTime) {
+            tag = 'X';
+            text = value.toString();
+        } else if (value instanceof LocalDate) {
+            tag = 'x';
+            text = value.toString();
+        } else if (value instanceof LocalTime) {
+            tag = 'y';
+            text = value.toString();
+        } else {
+            throw new MybatisPlusException(String.format("键集分页不支持的排序字段类型[%s]", value.getClass().getName()));
+        }
+
+        try {
+            return tag + URLEncoder.encode(text, ENCODING);
+        } catch (UnsupportedEncodingException e) {
+            throw new MybatisPlusException(e);
+        }
+    }
+
+    private static Object decodeValue(String part) {
+        if (part.isEmpty()) {
+            throw new MybatisPlusException("无效的分页令牌");
+        }
+
+        try {
+            String text = URLDecoder.decode(part.substring(1), ENCODING);
+            switch (part.charAt(0)) {
+                case 'S':
+                    return text;
+                case 'L':
+                    return Long.valueOf(text);
+                case 'D':
+                    return new BigDecimal(text);
+                case 'I':
+                    return new BigInteger(text);
+                case 'F':
+                    return Double.valueOf(text);
+                case 'B':
+                    return Boolean.valueOf(text);
+                case 'T':
+                    return Timestamp.valueOf(LocalDateTime.parse(text));
+                case 'd':
+                    return java.sql.Date.valueOf(LocalDate.parse(text));
+                case 't':
+                    return java.sql.Time.valueOf(LocalTime.parse(text));
+                case 'U':
+                    return new Date(Long.parseLong(text));
+                case 'X':
+                    return LocalDateTime.parse(text);
+                case 'x':
+                    return LocalDate.parse(text);
+                case 'y':
+                    return LocalTime.parse(text);
+                default:
+                    throw new MybatisPlusException("无效的分页令牌");
+            }
+        } catch (UnsupportedEncodingException | RuntimeException e) {
+            if (e instanceof MybatisPlusException) {
+                throw (MybatisPlusException) e;
+            }
+            throw new MybatisPlusException("无效的分页令牌", e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.join.plus.query;
+
+import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
+import lombok.Getter;
+import org.join.plus.common.StrUtil;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 编译查询时的参数槽位，代替条件值加入条件，执行编译结果时再按名称绑定实际的值
+ * <p>
+ * 槽位只能作为单个条件值使用，如 {@code eq}、{@code ne}、{@code gt}、{@code apply} 的参数；
+ * {@code in} 的值的个数会影响语句，不能使用槽位；{@code like} 系列会在值的前后拼接 {@code %}，使用槽位时抛出异常，
+ * 需要模糊查询时使用 {@code apply("tableAlias.column_name LIKE {0}", slot)}，绑定时传入带 {@code %} 的值。
+ * 包含槽位的查询器只能通过 {@link QueryJoin#compile()} 执行
+ * <pre>
+ *     CompiledQuery&lt;BaseUser&gt; query = QueryJoin.create(BaseUser.class, joinConfig)
+ *         .eq(BaseUser::getUsername, Slot.of("username", String.class))
+ *         .compile();
+ *     query.listMap(Collections.singletonMap("username", "suyun"));
+ * </pre>
+ *
+ * @author suyun
+ * @date 2026-10-17 22:40
+ */
+@Getter
+public final class Slot<T> implements Serializable {
+    private final static long serialVersionUID = 1L;
+
+    /**
+     * 槽位的名称
+     */
+    private final String name;
+
+    /**
+     * 值的类型，为空则不检查
+     */
+    private final Class<T> type;
+
+    /**
+     * 租户值的序号，不是租户槽位时小于0
+     */
+    private final int tenantIndex;
+
+    private Slot(String name, Class<T> type, int tenantIndex) {
+        this.name = name;
+        this.type = type;
+        this.tenantIndex = tenantIndex;
+    }
+
+    /**
+     * 创建不检查类型的槽位
+     *
+     * @param name 槽位的名称
+     * @return 返回槽位
+     */
+    public static Slot<Object> of(String name) {
+        return of(name, null);
+    }
+
+    /**
+     * 创建指定类型的槽位，绑定的值不是该类型时抛出异常
+     *
+     * @param name 槽位的名称
+     * @param type 值的类型
+     * @param <T>  值的类型
+     * @return 返回槽位
+     */
+    public static <T> Slot<T> of(String name, Class<T> type) {
+        if (StrUtil.isBlank(name)) {
+            throw new MybatisPlusException("参数槽位的名称不能为空");
+        }
+        return new Slot<>(name, type, -1);
+    }
+
+    /**
+     * 创建租户条件的槽位，执行时按序号从 {@link org.join.plus.config.JoinConfig#tenants()} 取值
+     *
+     * @param size 租户值的个数
+     * @return 返回槽位
+     */
+    static List<Serializable> tenants(int size) {
+        List<Serializable> slots = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            slots.add(new Slot<>(StrUtil.EMPTY, null, i));
+        }
+        return slots;
+    }
+
+    /**
+     * 是否是租户条件的槽位
+     *
+     * @return true是
+     */
+    boolean isTenant() {
+        return this.tenantIndex >= 0;
+    }
+
+    /**
+     * 检查绑定的值的类型
+     *
+     * @param value 绑定的值
+     * @return 返回绑定的值
+     */
+    Object check(Object value) {
+        if (value != null && this.type != null && !this.type.isInstance(value)) {
+            throw new MybatisPlusException(String.format("参数[%s]的类型应为[%s]，实际为[%s]",
+                    this.name, this.type.getName(), value.getClass().getName()));
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return isTenant() ? "Slot(tenant#" + this.tenantIndex + ")" : "Slot(" + this.name + ")";
+    }
+}
@@ -0,0 +1,97 @@
+package org.join.plus.benchmark;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import org.join.plus.entity.RelUserDept;
+import org.join.plus.entity.RelUserRole;
+import org.join.plus.entity.TbRole;
+import org.join.plus.entity.TbUser;
+import org.join.plus.query.QueryJoin;
+import org.join.plus.query.QueryJoinPool;
+import org.join.plus.support.TestTables;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 重复构建4张表的关联查询：每次新建查询器与从 {@link QueryJoinPool} 复用查询器的耗时和内存分配
+ * <p>
+ * 通过 {@link GCProfiler} 输出每次构建分配的字节数（{@code gc.alloc.rate.norm}），
+ * 先执行 {@code mvn test-compile}，再在IDE中运行 {@link QueryJoinPoolBenchmark#main(String[])}，
+ * 或者使用测试的classpath执行 {@code java org.join.plus.benchmark.QueryJoinPoolBenchmark}
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryJoinPoolBenchmark {
+
+    private QueryJoinPool<TbUser> pool;
+
+    @Setup
+    public void setup() {
+        TestTables.init(new MybatisConfiguration());
+        this.pool = new QueryJoinPool<>(TbUser.class, null, 1);
+    }
+
+    /**
+     * 每次新建查询器
+     */
+    @Benchmark
+    public void create(Blackhole blackhole) {
+        build(QueryJoin.create(TbUser.class, null), blackhole);
+    }
+
+    /**
+     * 从复用池中取出查询器，构建之后清空放回
+     */
+    @Benchmark
+    public void pooled(Blackhole blackhole) {
+        QueryJoin<TbUser> queryJoin = this.pool.borrow();
+        try {
+            build(queryJoin, blackhole);
+        } finally {
+            this.pool.release(queryJoin);
+        }
+    }
+
+    /**
+     * 构建4张表的关联查询并生成语句
+     *
+     * @param queryJoin 查询器
+     * @param blackhole 接收生成的语句
+     */
+    private static void build(QueryJoin<TbUser> queryJoin, Blackhole blackhole) {
+        queryJoin.selects(TbUser::getId, TbUser::getName)
+                .leftJoin(RelUserRole.class)
+                .on(TbUser::getId, RelUserRole::getUserId)
+                .leftJoin(TbRole.class)
+                .on(RelUserRole::getRoleId, TbRole::getId)
+                .select(TbRole::getRoleName)
+                .innerJoin(RelUserDept.class)
+                .on(TbUser::getId, RelUserDept::getUserId)
+                .select(RelUserDept::getDeptId)
+                .eq(TbUser::getUserSex, "1")
+                .like(TbUser::getName, "suyun")
+                .orderByDesc(TbUser::getId);
+        blackhole.consume(queryJoin.getSqlSelect());
+        blackhole.consume(queryJoin.getFrom());
+        blackhole.consume(queryJoin.getCustomSqlSegment());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(QueryJoinPoolBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
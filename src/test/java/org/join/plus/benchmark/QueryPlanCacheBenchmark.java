@@ -0,0 +1,86 @@
+package org.join.plus.benchmark;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import org.join.plus.entity.RelUserDept;
+import org.join.plus.entity.RelUserRole;
+import org.join.plus.entity.TbRole;
+import org.join.plus.entity.TbUser;
+import org.join.plus.query.QueryJoin;
+import org.join.plus.query.QueryPlanCache;
+import org.join.plus.support.TestTables;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 相同结构的4张表关联查询命中 {@link QueryPlanCache} 时生成查询字段和 From 语句的耗时，单线程与多线程同时查找缓存
+ * <p>
+ * 运行方式与 {@link QueryJoinPoolBenchmark} 相同
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryPlanCacheBenchmark {
+
+    @Setup
+    public void setup() {
+        TestTables.init(new MybatisConfiguration());
+        QueryPlanCache.clear();
+    }
+
+    /**
+     * 单线程查找执行计划
+     */
+    @Benchmark
+    public void single(Blackhole blackhole) {
+        render(blackhole);
+    }
+
+    /**
+     * 4个线程同时查找执行计划
+     */
+    @Benchmark
+    @Threads(4)
+    public void contended(Blackhole blackhole) {
+        render(blackhole);
+    }
+
+    /**
+     * 构建4张表的关联查询，每张表都指定了查询的字段，生成查询字段和 From 语句
+     *
+     * @param blackhole 接收生成的语句
+     */
+    private static void render(Blackhole blackhole) {
+        QueryJoin<TbUser> queryJoin = QueryJoin.create(TbUser.class, null)
+                .selects(TbUser::getId, TbUser::getName, TbUser::getUserMobile, TbUser::getUserSex)
+                .leftJoin(RelUserRole.class)
+                .on(TbUser::getId, RelUserRole::getUserId)
+                .select(RelUserRole::getRoleId, "roleId")
+                .leftJoin(TbRole.class)
+                .on(RelUserRole::getRoleId, TbRole::getId)
+                .select(TbRole::getRoleName)
+                .leftJoin(RelUserDept.class)
+                .on(TbUser::getId, RelUserDept::getUserId)
+                .select(RelUserDept::getDeptId);
+        blackhole.consume(queryJoin.getSqlSelect());
+        blackhole.consume(queryJoin.getFrom());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(QueryPlanCacheBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,104 @@
+package org.join.plus.common;
+
+import org.apache.ibatis.session.SqlSession;
+import org.join.plus.support.H2Database;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 验证 {@link SqlRenderer#render(String, Map)} 生成的字面量：引号、转义、日期时间、集合和空值比较
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+class SqlRendererTest {
+
+    @Test
+    void stringsAreQuotedAndEscaped() {
+        assertEquals("name = 'tom'", render("name = {A}", "tom"));
+        assertEquals("name = 'O''Brien'", render("name = {A}", "O'Brien"));
+        assertEquals("name = ''''", render("name = {A}", "'"));
+        assertEquals("path = 'a\\b'", render("path = {A}", "a\\b"));
+    }
+
+    @Test
+    void numbersAndBooleansAreNotQuoted() {
+        assertEquals("id = 1 AND rate = 1.50 AND ok = true", render("id = {A} AND rate = {B} AND ok = {C}",
+                1, new BigDecimal("1.50"), true));
+    }
+
+    @Test
+    void datesAreQuotedInSqlFormat() {
+        LocalDateTime time = LocalDateTime.of(2026, 10, 17, 23, 50, 1);
+
+        assertEquals("t = '2026-10-17 23:50:01.0'", render("t = {A}", time));
+        assertEquals("t = '2026-10-17 23:50:01.0'", render("t = {A}", Timestamp.valueOf(time)));
+        assertEquals("t = '2026-10-17 23:50:01.0'", render("t = {A}", new Date(Timestamp.valueOf(time).getTime())));
+        assertEquals("d = '2026-10-17'", render("d = {A}", LocalDate.of(2026, 10, 17)));
+        assertEquals("d = '2026-10-17'", render("d = {A}", java.sql.Date.valueOf("2026-10-17")));
+        assertEquals("t = '23:50:01'", render("t = {A}", LocalTime.of(23, 50, 1)));
+    }
+
+    @Test
+    void collectionsAreExpanded() {
+        assertEquals("id IN (1, 2, 3)", render("id IN {A}", Arrays.asList(1, 2, 3)));
+        assertEquals("name IN ('a', 'b''c', NULL)", render("name IN {A}", Arrays.asList("a", "b'c", null)));
+        assertEquals("id IN ()", render("id IN {A}", Collections.emptyList()));
+    }
+
+    @Test
+    void nullComparisonIsMarked() {
+        assertTrue(render("name = {A}", (Object) null).startsWith("name = NULL /*"));
+        assertTrue(render("name <> {A}", (Object) null).startsWith("name <> NULL /*"));
+        assertEquals("name <=> NULL", render("name <=> {A}", (Object) null));
+        assertEquals("COALESCE(name, NULL)", render("COALESCE(name, {A})", (Object) null));
+    }
+
+    @Test
+    void placeholdersWithAttributesAndUnknownNames() {
+        Map<String, Object> params = new HashMap<>();
+        params.put("A", 1);
+
+        assertEquals("id = 1", SqlRenderer.render("id = #{ew.paramNameValuePairs.A,jdbcType=INTEGER}", params));
+        assertEquals("id = #{ew.paramNameValuePairs.B}", SqlRenderer.render("id = #{ew.paramNameValuePairs.B}", params));
+    }
+
+    @Test
+    void renderedLiteralsAreExecutable() throws Exception {
+        String sql = render("SELECT COUNT(*) FROM tb_user WHERE name IN {A} AND id > {B}",
+                Arrays.asList("user1", "O'Brien", "user2"), 1L);
+        try (SqlSession session = H2Database.create("renderer", false).openSession();
+             Statement statement = session.getConnection().createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+        }
+    }
+
+    /**
+     * 将语句中的 {A}、{B}... 替换为占位符后渲染，参数依次命名为 A、B...
+     */
+    private static String render(String sql, Object... values) {
+        Map<String, Object> params = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            String name = String.valueOf((char) ('A' + i));
+            params.put(name, values[i]);
+            sql = sql.replace("{" + name + "}", "#{ew.paramNameValuePairs." + name + "}");
+        }
+        return SqlRenderer.render(sql, params);
+    }
+}
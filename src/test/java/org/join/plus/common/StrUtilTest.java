@@ -0,0 +1,45 @@
+package org.join.plus.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 验证 {@link StrUtil#containsColumn(CharSequence, String)} 按完整的标识符匹配字段
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+class StrUtilTest {
+
+    @Test
+    void matchesWholeColumn() {
+        assertTrue(StrUtil.containsColumn("tbUser.user_id = 1", "tbUser.user_id"));
+        assertTrue(StrUtil.containsColumn("(tbUser.user_id IN (1, 2))", "tbUser.user_id"));
+        assertTrue(StrUtil.containsColumn("a = 1 AND tbUser.user_id=2", "tbUser.user_id"));
+    }
+
+    @Test
+    void rejectsLongerIdentifiers() {
+        assertFalse(StrUtil.containsColumn("tbUser.user_id2 = 1", "tbUser.user_id"));
+        assertFalse(StrUtil.containsColumn("xtbUser.user_id = 1", "tbUser.user_id"));
+        assertFalse(StrUtil.containsColumn("db.tbUser.user_id = 1", "tbUser.user_id"));
+        assertFalse(StrUtil.containsColumn("tbUser.user_id_old = 1", "tbUser.user_id"));
+    }
+
+    @Test
+    void ignoresCaseAndQuotes() {
+        assertTrue(StrUtil.containsColumn("TBUSER.USER_ID = 1", "tbUser.user_id"));
+        assertTrue(StrUtil.containsColumn("`tbUser`.`user_id` = 1", "tbUser.user_id"));
+        assertTrue(StrUtil.containsColumn("\"tbUser\".\"user_id\" = 1", "tbUser.user_id"));
+        assertTrue(StrUtil.containsColumn("[tbUser].[user_id] = 1", "tbUser.user_id"));
+        assertFalse(StrUtil.containsColumn("`tbUser`.`user_id2` = 1", "tbUser.user_id"));
+    }
+
+    @Test
+    void emptyInput() {
+        assertFalse(StrUtil.containsColumn("", "tbUser.user_id"));
+        assertFalse(StrUtil.containsColumn(null, "tbUser.user_id"));
+        assertFalse(StrUtil.containsColumn("tbUser.user_id = 1", ""));
+    }
+}
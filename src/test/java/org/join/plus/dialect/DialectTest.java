@@ -0,0 +1,74 @@
+package org.join.plus.dialect;
+
+import org.join.plus.estimate.H2CountEstimator;
+import org.join.plus.estimate.MySqlCountEstimator;
+import org.join.plus.estimate.PostgreSqlCountEstimator;
+import org.join.plus.support.TestJoinConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 验证内置方言生成的 LIMIT、EXISTS、窗口函数和优化器提示，以及按方言选择的默认估算器
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+class DialectTest {
+
+    private final static String QUERY = "SELECT 1 FROM tb_user AS tbUser WHERE tbUser.id = 1";
+
+    @Test
+    void mySql5() {
+        Dialect dialect = MySqlDialect.MYSQL_5;
+
+        assertEquals("LIMIT 10", dialect.limit(10, 0));
+        assertEquals("LIMIT 10 OFFSET 20", dialect.limit(10, 20));
+        assertEquals("SELECT EXISTS(" + QUERY + ")", dialect.exists(QUERY));
+        assertEquals("/*+ NO_INDEX_MERGE(tbUser) */", dialect.hint("NO_INDEX_MERGE(tbUser)"));
+        assertFalse(dialect.supportWindowFunction());
+    }
+
+    @Test
+    void mySql8() {
+        Dialect dialect = MySqlDialect.MYSQL_8;
+
+        assertEquals("LIMIT 10", dialect.limit(10, 0));
+        assertEquals("LIMIT 10 OFFSET 20", dialect.limit(10, 20));
+        assertEquals("SELECT EXISTS(" + QUERY + ")", dialect.exists(QUERY));
+        assertEquals("/*+ NO_INDEX_MERGE(tbUser) */", dialect.hint("NO_INDEX_MERGE(tbUser)"));
+        assertTrue(dialect.supportWindowFunction());
+        assertEquals("COUNT(*) OVER() AS join_total", dialect.windowTotal("join_total"));
+    }
+
+    @Test
+    void postgreSql() {
+        Dialect dialect = PostgreSqlDialect.INSTANCE;
+
+        assertEquals("LIMIT 10", dialect.limit(10, 0));
+        assertEquals("LIMIT 10 OFFSET 20", dialect.limit(10, 20));
+        assertEquals("SELECT EXISTS(" + QUERY + ")", dialect.exists(QUERY));
+        assertEquals("", dialect.hint("NO_INDEX_MERGE(tbUser)"));
+        assertTrue(dialect.supportWindowFunction());
+    }
+
+    @Test
+    void h2() {
+        Dialect dialect = H2Dialect.INSTANCE;
+
+        assertEquals("FETCH FIRST 10 ROWS ONLY", dialect.limit(10, 0));
+        assertEquals("OFFSET 20 ROWS FETCH FIRST 10 ROWS ONLY", dialect.limit(10, 20));
+        assertEquals("SELECT EXISTS(" + QUERY + ")", dialect.exists(QUERY));
+        assertEquals("", dialect.hint("NO_INDEX_MERGE(tbUser)"));
+        assertTrue(dialect.supportWindowFunction());
+    }
+
+    @Test
+    void defaultEstimatorFollowsDialect() {
+        assertSame(MySqlCountEstimator.INSTANCE, new TestJoinConfig(null).dialect(MySqlDialect.MYSQL_5).countEstimator());
+        assertSame(MySqlCountEstimator.INSTANCE, new TestJoinConfig(null).dialect(MySqlDialect.MYSQL_8).countEstimator());
+        assertSame(PostgreSqlCountEstimator.INSTANCE, new TestJoinConfig(null).dialect(PostgreSqlDialect.INSTANCE).countEstimator());
+        assertSame(H2CountEstimator.INSTANCE, new TestJoinConfig(null).dialect(H2Dialect.INSTANCE).countEstimator());
+        assertNull(new TestJoinConfig(null).dialect((limit, offset) -> "").countEstimator());
+    }
+}
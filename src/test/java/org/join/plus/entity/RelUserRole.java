@@ -0,0 +1,24 @@
+package org.join.plus.entity;
+
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.extension.activerecord.Model;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 测试使用的实体，对应 rel_user_role
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+@Data
+@TableName("rel_user_role")
+@EqualsAndHashCode(callSuper = true)
+public class RelUserRole extends Model<RelUserRole> {
+
+    @TableId
+    private Integer id;
+    private Integer userId;
+    private Integer roleId;
+}
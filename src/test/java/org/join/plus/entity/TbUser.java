@@ -0,0 +1,25 @@
+package org.join.plus.entity;
+
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.extension.activerecord.Model;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 测试使用的实体，对应 tb_user
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+@Data
+@TableName("tb_user")
+@EqualsAndHashCode(callSuper = true)
+public class TbUser extends Model<TbUser> {
+
+    @TableId
+    private Integer id;
+    private String name;
+    private String userMobile;
+    private String userSex;
+}
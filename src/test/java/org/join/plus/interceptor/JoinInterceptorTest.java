@@ -0,0 +1,91 @@
+package org.join.plus.interceptor;
+
+import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
+import lombok.Data;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.session.SqlSession;
+import org.join.plus.entity.TbUser;
+import org.join.plus.query.QueryJoin;
+import org.join.plus.support.H2Database;
+import org.join.plus.support.TestJoinConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在 H2 数据库中验证 {@link JoinInterceptor} 直接从结果集填充实体
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+class JoinInterceptorTest {
+
+    private static SqlSession session;
+
+    @BeforeAll
+    static void setUp() {
+        session = H2Database.create("interceptor", true).openSession(true);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        session.close();
+    }
+
+    @Test
+    void resultSetIsHydratedWithConversion() {
+        List<UserRow> rows = query().toEntityList(UserRow.class);
+
+        assertEquals(H2Database.USERS, rows.size());
+        UserRow row = rows.get(0);
+        assertEquals(10L, row.getId());
+        assertEquals(0, row.getUserSex());
+        assertEquals("user10", row.getName());
+        assertEquals(1, rows.get(1).getUserSex());
+    }
+
+    @Test
+    void unknownColumnsAreIgnored() {
+        UserId row = query().eq(TbUser::getId, 3).oneEntity(UserId.class);
+
+        assertEquals(3, row.getId());
+    }
+
+    @Test
+    void unconvertibleValueFails() {
+        PersistenceException e = assertThrows(PersistenceException.class, () -> query().toEntityList(WrongType.class));
+
+        assertTrue(e.getCause() instanceof MybatisPlusException, String.valueOf(e.getCause()));
+        assertTrue(e.getCause().getMessage().contains("name"), e.getCause().getMessage());
+    }
+
+    private static QueryJoin<TbUser> query() {
+        return QueryJoin.create(TbUser.class, new TestJoinConfig(session)).orderByDesc(TbUser::getId);
+    }
+
+    @Data
+    public static class UserRow {
+
+        private long id;
+
+        private String name;
+
+        private Integer userSex;
+    }
+
+    @Data
+    public static class UserId {
+
+        private int id;
+    }
+
+    @Data
+    public static class WrongType {
+
+        private Integer name;
+    }
+}
@@ -0,0 +1,110 @@
+package org.join.plus.mapping;
+
+import cn.hutool.core.bean.BeanUtil;
+import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 验证 {@link RowMapper} 和 {@link PropertyWriter} 将一行结果写入实体：字段匹配、类型转换、基本类型、空值和无法转换的值
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+class RowMapperTest {
+
+    @Test
+    void columnsMatchByNameCamelCaseAndIgnoringCase() {
+        Map<String, Object> row = row("id", 1, "user_mobile", "138", "USERNAME", "tom", "unknown", "x");
+
+        Row bean = RowMapper.of(Row.class).map(row);
+
+        assertEquals(1, bean.getId());
+        assertEquals("138", bean.getUserMobile());
+        assertEquals("tom", bean.getUserName());
+    }
+
+    @Test
+    void valuesAreConvertedToPropertyType() {
+        Row bean = RowMapper.of(Row.class).map(row("id", 7L, "score", "12", "amount", 3, "userMobile", 138));
+
+        assertEquals(7, bean.getId());
+        assertEquals(12, bean.getScore());
+        assertEquals(new BigDecimal("3"), bean.getAmount());
+        assertEquals("138", bean.getUserMobile());
+    }
+
+    @Test
+    void nullIsNotWritten() {
+        Row bean = RowMapper.of(Row.class).map(row("id", null, "score", null, "userName", null));
+
+        assertEquals(0, bean.getId());
+        assertEquals(Row.DEFAULT_SCORE, bean.getScore());
+        assertNull(bean.getUserName());
+    }
+
+    @Test
+    void unconvertibleValueNamesColumnAndProperty() {
+        MybatisPlusException e = assertThrows(MybatisPlusException.class,
+                () -> RowMapper.of(Row.class).map(row("score_value", "abc")));
+
+        assertTrue(e.getMessage().contains("score_value"), e.getMessage());
+        assertTrue(e.getMessage().contains("scoreValue"), e.getMessage());
+    }
+
+    @Test
+    void writerWithoutSetterWritesField() {
+        PropertyWriter writer = PropertyWriter.of(BeanUtil.getBeanDesc(Row.class).getProp("hidden"));
+        Row bean = new Row();
+
+        writer.forColumn("hidden").write(bean, 5L);
+
+        assertEquals(5, bean.hidden());
+        assertNull(PropertyWriter.of(BeanUtil.getBeanDesc(Row.class).getProp("constant")));
+    }
+
+    private static Map<String, Object> row(Object... pairs) {
+        Map<String, Object> row = new HashMap<>(pairs.length);
+        for (int i = 0; i < pairs.length; i += 2) {
+            row.put((String) pairs[i], pairs[i + 1]);
+        }
+        return row;
+    }
+
+    @Data
+    public static class Row {
+
+        private final static Integer DEFAULT_SCORE = -1;
+
+        private int id;
+
+        private String userName;
+
+        private String userMobile;
+
+        private Integer score = DEFAULT_SCORE;
+
+        private Integer scoreValue;
+
+        private BigDecimal amount;
+
+        private final String constant = "constant";
+
+        @Getter(AccessLevel.NONE)
+        @Setter(AccessLevel.NONE)
+        private int hidden;
+
+        int hidden() {
+            return this.hidden;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.join.plus.optimize;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import org.join.plus.entity.RelUserDept;
+import org.join.plus.entity.RelUserRole;
+import org.join.plus.entity.TbRole;
+import org.join.plus.entity.TbUser;
+import org.join.plus.query.QueryJoin;
+import org.join.plus.support.TestJoinConfig;
+import org.join.plus.support.TestTables;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 验证 {@link UnusedJoinEliminator} 省略的关联，按加入时记录的字段判断关联的表是否被使用
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+class UnusedJoinEliminatorTest {
+
+    @BeforeAll
+    static void setUp() {
+        TestTables.init(new MybatisConfiguration());
+    }
+
+    @Test
+    void unusedLeftJoinOnKeyIsRemoved() {
+        QueryJoin<TbUser> query = query()
+                .leftJoin(RelUserDept.class)
+                .on(TbUser::getId, RelUserDept::getId)
+                .eq(TbUser::getName, "user1");
+
+        assertFalse(query.getCountFrom().contains("rel_user_dept"));
+    }
+
+    @Test
+    void innerJoinIsKept() {
+        QueryJoin<TbUser> query = query()
+                .innerJoin(RelUserDept.class)
+                .on(TbUser::getId, RelUserDept::getId);
+
+        assertTrue(query.getCountFrom().contains("rel_user_dept"));
+    }
+
+    @Test
+    void joinOnNonKeyIsKept() {
+        QueryJoin<TbUser> query = query()
+                .leftJoin(RelUserRole.class)
+                .on(TbUser::getId, RelUserRole::getUserId);
+
+        assertTrue(query.getCountFrom().contains("rel_user_role"));
+    }
+
+    @Test
+    void joinUsedByConditionIsKept() {
+        QueryJoin<TbUser> query = query()
+                .leftJoin(RelUserDept.class)
+                .on(TbUser::getId, RelUserDept::getId)
+                .eq(RelUserDept::getDeptId, 1);
+
+        assertTrue(query.getCountFrom().contains("rel_user_dept"));
+    }
+
+    @Test
+    void joinUsedByOtherJoinIsKept() {
+        QueryJoin<TbUser> query = query()
+                .leftJoin(RelUserDept.class)
+                .on(TbUser::getId, RelUserDept::getId)
+                .leftJoin(TbRole.class)
+                .on(RelUserDept::getDeptId, TbRole::getId)
+                .eq(TbRole::getRoleName, "admin");
+
+        String countFrom = query.getCountFrom();
+        assertTrue(countFrom.contains("rel_user_dept"));
+        assertTrue(countFrom.contains("tb_role"));
+    }
+
+    @Test
+    void chainOfUnusedJoinsIsRemoved() {
+        QueryJoin<TbUser> query = query()
+                .leftJoin(RelUserDept.class)
+                .on(TbUser::getId, RelUserDept::getId)
+                .leftJoin(TbRole.class)
+                .on(RelUserDept::getDeptId, TbRole::getId);
+
+        String countFrom = query.getCountFrom();
+        assertFalse(countFrom.contains("rel_user_dept"));
+        assertFalse(countFrom.contains("tb_role"));
+    }
+
+    @Test
+    void rawSqlKeepsAllJoins() {
+        QueryJoin<TbUser> applied = query()
+                .leftJoin(RelUserDept.class)
+                .on(TbUser::getId, RelUserDept::getId)
+                .apply("dept_id = {0}", 1);
+        assertTrue(applied.getCountFrom().contains("rel_user_dept"));
+
+        QueryJoin<TbUser> subquery = query()
+                .leftJoin(RelUserDept.class)
+                .on(TbUser::getId, RelUserDept::getId)
+                .inSql(TbUser::getId, "SELECT user_id FROM rel_user_role");
+        assertTrue(subquery.getCountFrom().contains("rel_user_dept"));
+    }
+
+    @Test
+    void dataIsNotOptimizedByDefault() {
+        QueryJoin<TbUser> query = query()
+                .leftJoin(RelUserDept.class)
+                .on(TbUser::getId, RelUserDept::getId);
+
+        assertTrue(query.getFrom().contains("rel_user_dept"));
+        assertFalse(query.getCountFrom().contains("rel_user_dept"));
+    }
+
+    @Test
+    void unselectedJoinIsRemovedFromDataWhenEnabled() {
+        QueryJoin<TbUser> query = dataQuery()
+                .leftJoin(RelUserDept.class)
+                .on(TbUser::getId, RelUserDept::getId);
+
+        assertFalse(query.getFrom().contains("rel_user_dept"));
+    }
+
+    @Test
+    void selectedJoinIsKeptInData() {
+        QueryJoin<TbUser> query = dataQuery()
+                .leftJoin(RelUserDept.class)
+                .on(TbUser::getId, RelUserDept::getId)
+                .select(RelUserDept::getDeptId);
+        assertTrue(query.getFrom().contains("rel_user_dept"));
+
+        QueryJoin<TbUser> aliased = dataQuery()
+                .leftJoin(RelUserDept.class)
+                .on(TbUser::getId, RelUserDept::getId)
+                .select(RelUserDept::getDeptId, "dept");
+        assertTrue(aliased.getFrom().contains("rel_user_dept"));
+
+        QueryJoin<TbUser> quotedColumn = dataQuery()
+                .leftJoin(RelUserDept.class)
+                .on(TbUser::getId, RelUserDept::getId)
+                .select("relUserDept.`dept_id` AS deptId");
+        assertTrue(quotedColumn.getFrom().contains("rel_user_dept"));
+    }
+
+    @Test
+    void unrecognizedAliasKeepsAllJoinsInData() {
+        // 带引号或者大小写不同的表别名无法按字段识别，按使用了处理
+        for (String column : new String[]{"`relUserDept`.dept_id", "\"relUserDept\".dept_id", "RELUSERDEPT.dept_id AS deptId", "dept_id"}) {
+            QueryJoin<TbUser> query = dataQuery()
+                    .leftJoin(RelUserDept.class)
+                    .on(TbUser::getId, RelUserDept::getId)
+                    .select(column);
+            assertTrue(query.getFrom().contains("rel_user_dept"), column);
+        }
+
+        QueryJoin<TbUser> subquery = dataQuery()
+                .leftJoin(RelUserDept.class)
+                .on(TbUser::getId, RelUserDept::getId)
+                .exists("SELECT 1 FROM rel_user_role WHERE rel_user_role.user_id = relUserDept.user_id");
+        assertTrue(subquery.getFrom().contains("rel_user_dept"));
+    }
+
+    private static QueryJoin<TbUser> query() {
+        return QueryJoin.create(TbUser.class, new TestJoinConfig(null));
+    }
+
+    private static QueryJoin<TbUser> dataQuery() {
+        return QueryJoin.create(TbUser.class, new TestJoinConfig(null)
+                .joinOptimizers(Collections.singletonList(UnusedJoinEliminator.WITH_DATA)));
+    }
+}
@@ -0,0 +1,154 @@
+package org.join.plus.query;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.join.plus.config.JoinConfig;
+import org.join.plus.dialect.Dialect;
+import org.join.plus.dialect.H2Dialect;
+import org.join.plus.entity.TbUser;
+import org.join.plus.estimate.CountEstimator;
+import org.join.plus.estimate.H2CountEstimator;
+import org.join.plus.mapper.JoinMapper;
+import org.join.plus.support.TbUserMapper;
+import org.join.plus.support.TestTables;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在 H2 数据库中验证估算数量：{@link QueryJoin#approximateCount()} 的 {@code count()} 和分页
+ * <p>
+ * H2 的估算值是主表的大致行数，不考虑查询条件，因此带条件时估算值与精确的数量不同
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+class ApproximateCountTest {
+
+    private final static int USERS = 25;
+
+    private static SqlSession session;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:approximate;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE tb_user (id INT PRIMARY KEY, name VARCHAR(32), user_mobile VARCHAR(16), user_sex VARCHAR(1))");
+            for (int i = 1; i <= USERS; i++) {
+                statement.execute("INSERT INTO tb_user VALUES (" + i + ", 'user" + i + "', '1380000" + i + "', '" + (i % 2) + "')");
+            }
+        }
+
+        MybatisConfiguration configuration = new MybatisConfiguration();
+        configuration.setEnvironment(new Environment("test", new JdbcTransactionFactory(), dataSource));
+        MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
+        interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.H2));
+        configuration.addInterceptor(interceptor);
+        configuration.addMapper(TbUserMapper.class);
+        TestTables.init(configuration);
+        session = new MybatisSqlSessionFactoryBuilder().build(configuration).openSession(true);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        session.close();
+    }
+
+    @Test
+    void countUsesEstimate() {
+        assertEquals(13, query(config(null)).count());
+        assertEquals(USERS, query(config(null)).approximateCount().count());
+    }
+
+    @Test
+    void pageTotalIsEstimate() {
+        JoinPage<Map<String, Object>> page = new JoinPage<>(1, 10);
+        query(config(null)).approximateCount().pagerMap(page);
+
+        assertEquals(USERS, page.getTotal());
+        assertTrue(page.isApproximate());
+        assertEquals(10, page.getRecords().size());
+    }
+
+    @Test
+    void pageTotalIsExactWithoutApproximateCount() {
+        JoinPage<Map<String, Object>> page = new JoinPage<>(2, 10);
+        query(config(null)).pagerMap(page);
+
+        assertEquals(13, page.getTotal());
+        assertFalse(page.isApproximate());
+        assertEquals(3, page.getRecords().size());
+    }
+
+    @Test
+    void failedEstimateFallsBackToExactCount() {
+        CountEstimator broken = new H2CountEstimator() {
+            @Override
+            public String estimateSql(String querySql, String table, Function<Object, String> binder) {
+                return "SELECT ROW_COUNT_ESTIMATE FROM NOT_A_TABLE";
+            }
+        };
+        assertEquals(13, query(config(broken)).approximateCount().count());
+
+        JoinPage<Map<String, Object>> page = new JoinPage<>(1, 10);
+        query(config(broken)).approximateCount().pagerMap(page);
+        assertEquals(13, page.getTotal());
+        assertFalse(page.isApproximate());
+    }
+
+    @Test
+    void groupedQueryIsNotEstimated() {
+        JoinPage<Map<String, Object>> page = new JoinPage<>(1, 10);
+        QueryJoin.create(TbUser.class, config(null))
+                .selectNone()
+                .select(TbUser::getUserSex)
+                .groupBy(TbUser::getUserSex)
+                .approximateCount()
+                .pagerMap(page);
+
+        assertEquals(2, page.getTotal());
+        assertFalse(page.isApproximate());
+    }
+
+    /**
+     * 13个性别为1的用户
+     */
+    private static QueryJoin<TbUser> query(JoinConfig joinConfig) {
+        return QueryJoin.create(TbUser.class, joinConfig).eq(TbUser::getUserSex, "1").orderByAsc(TbUser::getId);
+    }
+
+    private static JoinConfig config(CountEstimator estimator) {
+        return new JoinConfig() {
+            @Override
+            public JoinMapper<?> mapper() {
+                return session.getMapper(TbUserMapper.class);
+            }
+
+            @Override
+            public Dialect dialect() {
+                return H2Dialect.INSTANCE;
+            }
+
+            @Override
+            public CountEstimator countEstimator() {
+                return estimator == null ? JoinConfig.super.countEstimator() : estimator;
+            }
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package org.join.plus.query;
+
+import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
+import com.baomidou.mybatisplus.extension.activerecord.Model;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import org.apache.ibatis.session.SqlSession;
+import org.join.plus.entity.TbUser;
+import org.join.plus.support.H2Database;
+import org.join.plus.support.TestJoinConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在 H2 数据库中验证编译的查询 {@link QueryJoin#compile()}：按名称绑定槽位、缺少或多余的槽位、每次执行时取租户值和分组统计
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+class CompiledQueryTest {
+
+    private static SqlSession session;
+
+    @BeforeAll
+    static void setUp() {
+        session = H2Database.create("compiled", false).openSession(true);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        session.close();
+    }
+
+    @Test
+    void slotsBindByName() {
+        CompiledQuery<TbUser> compiled = QueryJoin.create(TbUser.class, new TestJoinConfig(session))
+                .gt(TbUser::getId, Slot.of("minId", Integer.class))
+                .eq(TbUser::getUserSex, Slot.of("sex"))
+                .orderByAsc(TbUser::getId)
+                .compile();
+
+        assertEquals(Arrays.asList(5, 7, 9), ids(compiled.listMap(values("sex", "1", "minId", 4))));
+        assertEquals(Arrays.asList(8, 10), ids(compiled.listMap(values("minId", 6, "sex", "0"))));
+        assertEquals(2, compiled.count(values("minId", 6, "sex", "0")));
+    }
+
+    @Test
+    void missingExtraOrMistypedSlotFails() {
+        CompiledQuery<TbUser> compiled = QueryJoin.create(TbUser.class, new TestJoinConfig(session))
+                .gt(TbUser::getId, Slot.of("minId", Integer.class))
+                .compile();
+
+        assertThrows(MybatisPlusException.class, () -> compiled.listMap(Collections.emptyMap()));
+        assertThrows(MybatisPlusException.class, () -> compiled.listMap(values("minId", 1, "maxId", 5)));
+        assertThrows(MybatisPlusException.class, () -> compiled.listMap(values("minId", "1")));
+    }
+
+    @Test
+    void tenantsAreResolvedPerCall() {
+        TestJoinConfig config = new TestJoinConfig(session).tenant(Model.class, "user_sex", "1");
+        CompiledQuery<TbUser> compiled = QueryJoin.create(TbUser.class, config).orderByAsc(TbUser::getId).compile();
+
+        assertEquals(Arrays.asList(1, 3, 5, 7, 9), ids(compiled.listMap(null)));
+        config.tenant(Model.class, "user_sex", "0");
+        assertEquals(Arrays.asList(2, 4, 6, 8, 10), ids(compiled.listMap(null)));
+        assertEquals(5, compiled.count(null));
+        // 租户值的个数决定了编译的条件
+        config.tenant(Model.class, "user_sex", "0", "1");
+        assertThrows(MybatisPlusException.class, () -> compiled.listMap(null));
+    }
+
+    @Test
+    void executedQueryCannotBeCompiled() {
+        QueryJoin<TbUser> executed = QueryJoin.create(TbUser.class, new TestJoinConfig(session).tenant(Model.class, "user_sex", "1"));
+        executed.count();
+        assertThrows(MybatisPlusException.class, executed::compile);
+
+        QueryJoin<TbUser> query = QueryJoin.create(TbUser.class, new TestJoinConfig(session));
+        query.compile();
+        assertThrows(MybatisPlusException.class, query::listMap);
+    }
+
+    @Test
+    void groupedQueryCountsGroups() {
+        CompiledQuery<TbUser> compiled = QueryJoin.create(TbUser.class, new TestJoinConfig(session))
+                .select(TbUser::getUserSex)
+                .gt(TbUser::getId, Slot.of("minId"))
+                .groupBy(TbUser::getUserSex)
+                .orderByAsc(TbUser::getUserSex)
+                .compile();
+
+        assertEquals(2, compiled.count(values("minId", 0)));
+        assertEquals(1, compiled.count(values("minId", 9)));
+        Page<Map<String, Object>> page = compiled.pageMap(new Page<>(2, 1), values("minId", 0));
+        assertEquals(2, page.getTotal());
+        assertEquals("1", page.getRecords().get(0).get("userSex"));
+    }
+
+    private static Map<String, Object> values(Object... pairs) {
+        Map<String, Object> values = new HashMap<>(pairs.length);
+        for (int i = 0; i < pairs.length; i += 2) {
+            values.put((String) pairs[i], pairs[i + 1]);
+        }
+        return values;
+    }
+
+    private static List<Object> ids(List<Map<String, Object>> rows) {
+        return rows.stream().map(row -> row.get("id")).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,92 @@
+package org.join.plus.query;
+
+import org.apache.ibatis.session.SqlSessionManager;
+import org.join.plus.entity.RelUserRole;
+import org.join.plus.entity.TbUser;
+import org.join.plus.support.H2Database;
+import org.join.plus.support.TestJoinConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在 H2 数据库中验证配置了 {@link org.join.plus.config.JoinConfig#pageExecutor()} 时同时统计总数和查询数据
+ * <p>
+ * 统计在另一个线程中执行，使用 {@link SqlSessionManager} 让每次执行各自打开会话
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+class ConcurrentPageTest {
+
+    private static SqlSessionManager session;
+
+    private static ExecutorService executor;
+
+    @BeforeAll
+    static void setUp() {
+        session = SqlSessionManager.newInstance(H2Database.create("concurrent", false));
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void concurrentPageMatchesSequentialPage() {
+        for (int i = 0; i < 50; i++) {
+            long current = i % 4 + 1;
+            JoinPage<Map<String, Object>> concurrent = page(query(new TestJoinConfig(session).pageExecutor(executor)), current);
+            JoinPage<Map<String, Object>> sequential = page(query(new TestJoinConfig(session)), current);
+
+            assertEquals(sequential.getTotal(), concurrent.getTotal());
+            assertEquals(sequential.getRecords(), concurrent.getRecords());
+        }
+    }
+
+    @Test
+    void countedWithConditionsAndJoin() {
+        JoinPage<Map<String, Object>> page = page(query(new TestJoinConfig(session).pageExecutor(executor))
+                .gt(TbUser::getId, 2), 1);
+
+        // 3..10 中偶数的用户关联了两个角色
+        assertEquals(12, page.getTotal());
+        assertEquals(3, page.getRecords().size());
+    }
+
+    @Test
+    void snapshotIsNotAffectedByLaterChanges() {
+        QueryJoin<TbUser> query = query(new TestJoinConfig(session)).eq(TbUser::getUserSex, "1");
+        QueryJoin<TbUser> snapshot = query.countSnapshot();
+        String countSqlSegment = snapshot.getCountSqlSegment();
+        Map<String, Object> params = snapshot.getParamNameValuePairs();
+
+        query.eq(TbUser::getName, "user1").getCustomSqlSegment();
+
+        assertEquals(countSqlSegment, snapshot.getCountSqlSegment());
+        assertEquals(1, params.size());
+        assertNotSame(query.getParamNameValuePairs(), params);
+        assertThrows(UnsupportedOperationException.class, () -> params.put("x", 1));
+    }
+
+    private static QueryJoin<TbUser> query(TestJoinConfig config) {
+        return QueryJoin.create(TbUser.class, config)
+                .leftJoin(RelUserRole.class).on(TbUser::getId, RelUserRole::getUserId)
+                .orderByAsc(TbUser::getId)
+                .orderByAsc(RelUserRole::getRoleId);
+    }
+
+    private static JoinPage<Map<String, Object>> page(QueryJoin<TbUser> query, long current) {
+        JoinPage<Map<String, Object>> page = new JoinPage<>(current, 3);
+        query.pagerMap(page);
+        return page;
+    }
+}
@@ -0,0 +1,84 @@
+package org.join.plus.query;
+
+import org.apache.ibatis.session.SqlSession;
+import org.join.plus.entity.RelUserDept;
+import org.join.plus.entity.RelUserRole;
+import org.join.plus.entity.TbUser;
+import org.join.plus.support.H2Database;
+import org.join.plus.support.TestJoinConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在 H2 数据库中验证延迟关联分页 {@link QueryJoin#deferredJoin()} 与普通分页的结果相同
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+class DeferredJoinTest {
+
+    /**
+     * 用户与角色关联的行数，偶数id的用户有两个角色
+     */
+    private final static int ROLES = H2Database.USERS + H2Database.USERS / 2;
+
+    private static SqlSession session;
+
+    @BeforeAll
+    static void setUp() {
+        session = H2Database.create("deferred", false).openSession(true);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        session.close();
+    }
+
+    @Test
+    void oneToOneJoinIsDeferred() {
+        Supplier<QueryJoin<TbUser>> query = () -> QueryJoin.create(TbUser.class, new TestJoinConfig(session))
+                .leftJoin(RelUserDept.class)
+                .on(TbUser::getId, RelUserDept::getId)
+                .select(RelUserDept::getDeptId)
+                .orderByDesc(TbUser::getId);
+
+        List<Map<String, Object>> deferred = page(query.get().deferredJoin(), 2, 3, H2Database.USERS);
+        assertEquals(page(query.get(), 2, 3, H2Database.USERS), deferred);
+        assertEquals(3, deferred.size());
+        assertEquals(7, deferred.get(0).get("id"));
+        assertEquals(3, deferred.get(0).get("deptId"));
+    }
+
+    @Test
+    void oneToManyJoinIsNotDeferred() {
+        Supplier<QueryJoin<TbUser>> query = () -> QueryJoin.create(TbUser.class, new TestJoinConfig(session))
+                .leftJoin(RelUserRole.class)
+                .on(TbUser::getId, RelUserRole::getUserId)
+                .select(RelUserRole::getRoleId)
+                .orderByAsc(TbUser::getId)
+                .orderByAsc(RelUserRole::getRoleId);
+
+        // 用户2有两个角色，第一页的4行是用户1、用户2的两行、用户3
+        List<Map<String, Object>> deferred = page(query.get().deferredJoin(), 1, 4, ROLES);
+        assertEquals(page(query.get(), 1, 4, ROLES), deferred);
+        assertEquals(4, deferred.size());
+        assertEquals(2, deferred.get(1).get("id"));
+        assertEquals(2, deferred.get(2).get("id"));
+        assertNotEquals(deferred.get(1).get("roleId"), deferred.get(2).get("roleId"));
+        assertEquals(3, deferred.get(3).get("id"));
+    }
+
+    private static List<Map<String, Object>> page(QueryJoin<TbUser> query, long current, long size, long total) {
+        JoinPage<Map<String, Object>> page = new JoinPage<>(current, size);
+        query.pagerMap(page);
+        assertEquals(total, page.getTotal());
+        return page.getRecords();
+    }
+}
@@ -0,0 +1,122 @@
+package org.join.plus.query;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import org.join.plus.config.JoinConfig;
+import org.join.plus.entity.RelUserDept;
+import org.join.plus.entity.RelUserRole;
+import org.join.plus.entity.TbRole;
+import org.join.plus.entity.TbUser;
+import org.join.plus.optimize.UnusedJoinEliminator;
+import org.join.plus.support.TestJoinConfig;
+import org.join.plus.support.TestTables;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 验证 {@link QueryJoin#fork()} 分叉的查询器与模板互不影响，包括联合查询的分支
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+class ForkTest {
+
+    @BeforeAll
+    static void setUp() {
+        TestTables.init(new MybatisConfiguration());
+    }
+
+    @Test
+    void forkRendersLikeTemplate() {
+        QueryJoin<TbUser> template = template();
+        String sql = sql(template);
+        int params = template.getParamNameValuePairs().size();
+
+        QueryJoin<TbUser> fork = template.fork();
+        assertEquals(unwrap(sql), unwrap(sql(fork)));
+        assertEquals(params, fork.getParamNameValuePairs().size());
+    }
+
+    @Test
+    void forkChangesDoNotLeakIntoTemplate() {
+        QueryJoin<TbUser> template = template();
+        String sql = sql(template);
+        int params = template.getParamNameValuePairs().size();
+
+        QueryJoin<TbUser> fork = template.fork()
+                .leftJoin(RelUserDept.class)
+                .on(TbUser::getId, RelUserDept::getUserId)
+                .select(RelUserDept::getDeptId)
+                .eq(RelUserDept::getDeptId, 2);
+        String forkSql = sql(fork);
+
+        assertTrue(forkSql.contains("rel_user_dept"));
+        assertEquals(params + 1, fork.getParamNameValuePairs().size());
+        assertEquals(sql(template.fork()), sql(template.fork()));
+        assertEquals(sql, sql(template));
+        assertEquals(params, template.getParamNameValuePairs().size());
+        assertFalse(template.getFrom().contains("rel_user_dept"));
+    }
+
+    @Test
+    void forksWithUnionsRenderConcurrently() throws Exception {
+        // 省略查询数据时没有使用的关联，分支每次都通过自身的缓冲区生成 From 语句
+        TestJoinConfig config = new TestJoinConfig(null)
+                .joinOptimizers(Collections.singletonList(UnusedJoinEliminator.WITH_DATA));
+        QueryJoin<TbUser> template = template(config);
+        String expected = sql(template.fork());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                futures.add(executor.submit(() -> sql(template.fork())));
+            }
+            for (Future<String> future : futures) {
+                assertEquals(expected, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static QueryJoin<TbUser> template() {
+        return template(null);
+    }
+
+    private static QueryJoin<TbUser> template(JoinConfig config) {
+        return QueryJoin.create(TbUser.class, config)
+                .selects(TbUser::getId, TbUser::getName)
+                .leftJoin(RelUserRole.class)
+                .on(TbUser::getId, RelUserRole::getUserId)
+                .eq(RelUserRole::getRoleId, 1)
+                .UNION(TbUser.class, branch -> branch
+                        .selects(TbUser::getId, TbUser::getName)
+                        .leftJoin(RelUserRole.class)
+                        .on(TbUser::getId, RelUserRole::getUserId)
+                        .leftJoin(TbRole.class)
+                        .on(RelUserRole::getRoleId, TbRole::getId)
+                        .leftJoin(RelUserDept.class)
+                        .on(TbUser::getId, RelUserDept::getId)
+                        .eq(TbRole::getRoleName, "admin"));
+    }
+
+    /**
+     * 分叉时模板的条件作为一个整体加入，外面会多一层括号
+     */
+    private static String unwrap(String sql) {
+        return sql.replace("((", "(").replace("))", ")");
+    }
+
+    private static String sql(QueryJoin<TbUser> query) {
+        return query.getSqlSelect() + " FROM " + query.getFrom() + " " + query.getCustomSqlSegment();
+    }
+}
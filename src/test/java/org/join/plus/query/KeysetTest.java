@@ -0,0 +1,150 @@
+package org.join.plus.query;
+
+import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
+import com.baomidou.mybatisplus.core.metadata.OrderItem;
+import org.apache.ibatis.session.SqlSession;
+import org.join.plus.entity.TbUser;
+import org.join.plus.support.H2Database;
+import org.join.plus.support.TestJoinConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在 H2 数据库中验证键集分页 {@link QueryJoin#keysetMap(String, long)}：续页条件、追加的主键、空值和令牌校验
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+class KeysetTest {
+
+    private final static Pattern PARAM = Pattern.compile("#\\{ew\\.paramNameValuePairs\\.(\\w+)}");
+
+    private static SqlSession session;
+
+    @BeforeAll
+    static void setUp() {
+        session = H2Database.create("keyset", false).openSession(false);
+    }
+
+    @AfterEach
+    void rollback() {
+        session.rollback(true);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        session.close();
+    }
+
+    @Test
+    void sameDirectionUsesRowValueComparison() {
+        QueryJoin<TbUser> query = query();
+        String sql = query.seekPredicate(Arrays.asList(OrderItem.desc("tbUser.user_sex"), OrderItem.desc("tbUser.id")),
+                new Object[]{"1", 5L});
+
+        assertEquals("(tbUser.user_sex, tbUser.id) < (1, 5)", render(query, sql));
+    }
+
+    @Test
+    void mixedDirectionExpandsToOr() {
+        QueryJoin<TbUser> query = query();
+        String sql = query.seekPredicate(Arrays.asList(OrderItem.asc("tbUser.user_sex"), OrderItem.desc("tbUser.id")),
+                new Object[]{"1", 5L});
+
+        assertEquals("((tbUser.user_sex > 1) OR (tbUser.user_sex = 1 AND tbUser.id < 5))", render(query, sql));
+    }
+
+    @Test
+    void pagesMatchOrderedList() {
+        assertEquals(ids(query().orderByAsc(TbUser::getUserSex).orderByDesc(TbUser::getId).listMap()),
+                keysetIds(query().orderByAsc(TbUser::getUserSex).orderByDesc(TbUser::getId), 3));
+        assertEquals(ids(query().orderByDesc(TbUser::getUserSex).orderByDesc(TbUser::getId).listMap()),
+                keysetIds(query().orderByDesc(TbUser::getUserSex).orderByDesc(TbUser::getId), 3));
+    }
+
+    @Test
+    void masterKeyBreaksTies() {
+        // 只有两种性别，追加的主键保证相同性别的行不会重复或遗漏
+        List<Object> ids = keysetIds(query().orderByDesc(TbUser::getUserSex), 3);
+
+        assertEquals(Arrays.asList(1, 3, 5, 7, 9, 2, 4, 6, 8, 10), ids);
+    }
+
+    @Test
+    void seekColumnsAreRemovedWithoutTouchingCachedRows() {
+        JoinPage<Map<String, Object>> first = query().orderByAsc(TbUser::getId).keysetMap(null, 3);
+        // 同一个会话中相同的查询命中本地缓存，返回同一批行
+        JoinPage<Map<String, Object>> second = query().orderByAsc(TbUser::getId).keysetMap(null, 3);
+
+        assertEquals(first.getRecords(), second.getRecords());
+        assertEquals(first.getNextToken(), second.getNextToken());
+        first.getRecords().forEach(row -> assertTrue(row.keySet().stream().noneMatch(key -> key.startsWith("join_seek_")), row.toString()));
+    }
+
+    @Test
+    void nullSortValueIsRejected() throws Exception {
+        try (Statement statement = session.getConnection().createStatement()) {
+            statement.execute("INSERT INTO tb_user VALUES (0, NULL, NULL, NULL)");
+        }
+
+        MybatisPlusException e = assertThrows(MybatisPlusException.class,
+                () -> query().orderByAsc(TbUser::getName).keysetMap(null, 1));
+        assertTrue(e.getMessage().contains("空值"), e.getMessage());
+    }
+
+    @Test
+    void foreignOrTamperedTokenIsRejected() {
+        String token = query().orderByAsc(TbUser::getId).keysetMap(null, 3).getNextToken();
+        assertNotNull(token);
+
+        assertThrows(MybatisPlusException.class, () -> query().orderByDesc(TbUser::getId).keysetMap(token, 3));
+        assertThrows(MybatisPlusException.class, () -> query().orderByAsc(TbUser::getName).keysetMap(token, 3));
+        assertThrows(MybatisPlusException.class, () -> query().orderByAsc(TbUser::getId).keysetMap("not a token!", 3));
+
+        String text = new String(Base64.getUrlDecoder().decode(token));
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(text.replace(",L", ",Q").getBytes());
+        assertThrows(MybatisPlusException.class, () -> query().orderByAsc(TbUser::getId).keysetMap(tampered, 3));
+        String extra = Base64.getUrlEncoder().withoutPadding().encodeToString((text + ",L1").getBytes());
+        assertThrows(MybatisPlusException.class, () -> query().orderByAsc(TbUser::getId).keysetMap(extra, 3));
+    }
+
+    private static QueryJoin<TbUser> query() {
+        return QueryJoin.create(TbUser.class, new TestJoinConfig(session));
+    }
+
+    private static List<Object> keysetIds(QueryJoin<TbUser> query, long size) {
+        List<Object> ids = new ArrayList<>();
+        query.forEachPage(size, page -> ids.addAll(ids(page.getRecords())));
+        return ids;
+    }
+
+    private static List<Object> ids(List<Map<String, Object>> rows) {
+        return rows.stream().map(row -> row.get("id")).collect(Collectors.toList());
+    }
+
+    /**
+     * 将语句中的参数替换为参数值，便于比较
+     */
+    private static String render(QueryJoin<?> query, String sql) {
+        Matcher matcher = PARAM.matcher(sql);
+        StringBuffer text = new StringBuffer();
+        while (matcher.find()) {
+            matcher.appendReplacement(text, String.valueOf(query.getParamNameValuePairs().get(matcher.group(1))));
+        }
+        return matcher.appendTail(text).toString();
+    }
+}
@@ -0,0 +1,110 @@
+package org.join.plus.query;
+
+import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
+import org.apache.ibatis.exceptions.TooManyResultsException;
+import org.apache.ibatis.session.SqlSession;
+import org.join.plus.dialect.H2Dialect;
+import org.join.plus.entity.TbUser;
+import org.join.plus.support.H2Database;
+import org.join.plus.support.TestJoinConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在 H2 数据库中验证直接追加 LIMIT 的查询：查询一个结果、判断是否存在，以及有 {@code last} 语句时不追加 LIMIT
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+class LimitTest {
+
+    private static SqlSession session;
+
+    @BeforeAll
+    static void setUp() {
+        session = H2Database.create("limit", false).openSession(false);
+    }
+
+    @AfterEach
+    void rollback() {
+        session.rollback(true);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        session.close();
+    }
+
+    @Test
+    void oneRowRejectsManyResults() {
+        assertThrows(TooManyResultsException.class, () -> query(new TestJoinConfig(session)).oneMap());
+        assertThrows(TooManyResultsException.class, () -> query(new TestJoinConfig(session)).one());
+        assertEquals(10, query(new TestJoinConfig(session)).oneMap(false).get("id"));
+        assertEquals(3, query(new TestJoinConfig(session)).eq(TbUser::getId, 3).one().getId());
+    }
+
+    @Test
+    void lastIsNotFollowedByLimit() {
+        QueryJoin<TbUser> query = query(new TestJoinConfig(session)).last("FOR UPDATE");
+
+        assertThrows(TooManyResultsException.class, query::oneMap);
+        assertEquals(10, query(new TestJoinConfig(session)).last("FOR UPDATE").oneMap(false).get("id"));
+        JoinPage<Map<String, Object>> slice = query(new TestJoinConfig(session)).last("FOR UPDATE").sliceMap(2, 3);
+        assertEquals(ids(7, 6, 5), slice.getRecords().stream().map(row -> row.get("id")).collect(Collectors.toList()));
+        assertTrue(query(new TestJoinConfig(session)).last("FOR UPDATE").contains());
+        assertThrows(MybatisPlusException.class, () -> query(new TestJoinConfig(session)).last("FOR UPDATE").keysetMap(null, 3));
+    }
+
+    @Test
+    void compiledLastIsNotFollowedByLimit() {
+        CompiledQuery<TbUser> compiled = query(new TestJoinConfig(session)).last("FOR UPDATE").compile();
+
+        assertThrows(TooManyResultsException.class, () -> compiled.oneMap(Collections.emptyMap()));
+    }
+
+    @Test
+    void containsUsesDialectExists() {
+        RecordingDialect dialect = new RecordingDialect();
+        TestJoinConfig config = new TestJoinConfig(session).dialect(dialect);
+
+        assertTrue(query(config).eq(TbUser::getId, 3).contains());
+        assertFalse(query(config).eq(TbUser::getId, 99).contains());
+        assertEquals(2, dialect.exists.size());
+        dialect.exists.forEach(sql -> assertTrue(sql.startsWith("SELECT EXISTS(SELECT 1 FROM"), sql));
+    }
+
+    private static QueryJoin<TbUser> query(TestJoinConfig config) {
+        return QueryJoin.create(TbUser.class, config).orderByDesc(TbUser::getId);
+    }
+
+    private static List<Object> ids(Object... ids) {
+        List<Object> list = new ArrayList<>(ids.length);
+        Collections.addAll(list, ids);
+        return list;
+    }
+
+    /**
+     * 记录生成的判断是否存在的语句
+     */
+    private static class RecordingDialect extends H2Dialect {
+
+        private final List<String> exists = new ArrayList<>();
+
+        @Override
+        public String exists(String querySql) {
+            String sql = super.exists(querySql);
+            this.exists.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.join.plus.query;
+
+import org.apache.ibatis.session.SqlSession;
+import org.join.plus.entity.RelUserDept;
+import org.join.plus.entity.RelUserRole;
+import org.join.plus.entity.TbUser;
+import org.join.plus.support.H2Database;
+import org.join.plus.support.TestJoinConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在 H2 数据库中验证 {@link QueryJoinPool} 放回再取出的查询器与新建的查询器生成相同的语句和参数
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+class QueryJoinPoolTest {
+
+    private static SqlSession session;
+
+    private static TestJoinConfig config;
+
+    @BeforeAll
+    static void setUp() {
+        session = H2Database.create("pool", false).openSession(true);
+        config = new TestJoinConfig(session);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        session.close();
+    }
+
+    @Test
+    void executedBuilderRendersLikeNew() {
+        QueryJoinPool<TbUser> pool = new QueryJoinPool<>(TbUser.class, config, 1);
+        QueryJoin<TbUser> used = pool.borrow();
+        joined(used);
+        // 执行期间会临时固定或替换语句
+        used.listMap();
+        used.count();
+        used.contains();
+        used.oneMap(false);
+        used.sliceMap(2, 2);
+        used.keysetMap(null, 2);
+        used.pagerMap(new JoinPage<>(2, 2));
+        used.windowCount().pagerMap(new JoinPage<>(1, 2));
+        used.deferredJoin().nativePaging().hint("NO_INDEX_MERGE(tbUser)").fetchSize(5).pagerMap(new JoinPage<>(2, 2));
+        pool.release(used);
+
+        assertRendersLikeNew(pool, QueryJoinPoolTest::joined);
+    }
+
+    @Test
+    void unionBuilderRendersLikeNew() {
+        QueryJoinPool<TbUser> pool = new QueryJoinPool<>(TbUser.class, config, 1);
+        QueryJoin<TbUser> used = pool.borrow();
+        unions(used);
+        used.listMap();
+        used.pagerMap(new JoinPage<>(1, 3));
+        used.scatterListMap();
+        pool.release(used);
+
+        assertRendersLikeNew(pool, QueryJoinPoolTest::unions);
+        assertRendersLikeNew(pool, QueryJoinPoolTest::joined);
+    }
+
+    @Test
+    void compiledBuilderRendersLikeNew() {
+        QueryJoinPool<TbUser> pool = new QueryJoinPool<>(TbUser.class, config, 1);
+        QueryJoin<TbUser> used = pool.borrow();
+        joined(used).last("FOR UPDATE").compile().listMap(null);
+        pool.release(used);
+
+        assertRendersLikeNew(pool, QueryJoinPoolTest::joined);
+    }
+
+    @Test
+    void forkKeepsSharedStructureAfterRelease() {
+        QueryJoinPool<TbUser> pool = new QueryJoinPool<>(TbUser.class, config, 1);
+        QueryJoin<TbUser> template = pool.borrow();
+        QueryJoin<TbUser> fork = joined(template).fork();
+        String forkSql = fork.getFullSql();
+        List<?> forkRows = fork.listMap();
+        pool.release(template);
+
+        QueryJoin<TbUser> reused = pool.borrow();
+        assertSame(template, reused);
+        reused.leftJoin(RelUserDept.class).on(TbUser::getId, RelUserDept::getUserId).eq(RelUserDept::getDeptId, 1).listMap();
+
+        assertEquals(forkSql, fork.getFullSql());
+        assertEquals(forkRows, fork.listMap());
+        pool.release(reused);
+        assertRendersLikeNew(pool, QueryJoinPoolTest::joined);
+    }
+
+    /**
+     * 从池中取出查询器构建，与新建的查询器比较语句、参数和结果，之后放回
+     */
+    private static void assertRendersLikeNew(QueryJoinPool<TbUser> pool, Consumer<QueryJoin<TbUser>> builder) {
+        QueryJoin<TbUser> fresh = QueryJoin.create(TbUser.class, config);
+        builder.accept(fresh);
+        QueryJoin<TbUser> reused = pool.borrow();
+        builder.accept(reused);
+        try {
+            assertEquals(fresh.getSqlSelect(), reused.getSqlSelect());
+            assertEquals(fresh.getFrom(), reused.getFrom());
+            assertEquals(fresh.getCustomSqlSegment(), reused.getCustomSqlSegment());
+            assertEquals(fresh.getCountFrom(), reused.getCountFrom());
+            assertEquals(fresh.getCountSqlSegment(), reused.getCountSqlSegment());
+            assertEquals(fresh.getParamNameValuePairs(), reused.getParamNameValuePairs());
+            assertEquals(fresh.getFullSql(), reused.getFullSql());
+            assertEquals(fresh.listMap(), reused.listMap());
+        } finally {
+            pool.release(reused);
+        }
+    }
+
+    private static QueryJoin<TbUser> joined(QueryJoin<TbUser> query) {
+        return query.leftJoin(RelUserRole.class).on(TbUser::getId, RelUserRole::getUserId)
+                .select(RelUserRole::getRoleId)
+                .in(TbUser::getId, Arrays.asList(2, 3, 4, 5, 6, 7))
+                .eq(TbUser::getUserSex, "0")
+                .orderByDesc(TbUser::getId);
+    }
+
+    private static void unions(QueryJoin<TbUser> query) {
+        query.lt(TbUser::getId, 4)
+                .UNION_ALL(TbUser.class, branch -> branch.gt(TbUser::getId, 8));
+    }
+}
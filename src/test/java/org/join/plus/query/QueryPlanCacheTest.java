@@ -0,0 +1,62 @@
+package org.join.plus.query;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import org.join.plus.entity.RelUserDept;
+import org.join.plus.entity.RelUserRole;
+import org.join.plus.entity.TbUser;
+import org.join.plus.support.TestTables;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 验证相同结构的查询从 {@link QueryPlanCache} 中共用查询字段和 From 语句，结构不同时不会命中
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+class QueryPlanCacheTest {
+
+    @BeforeAll
+    static void setUp() {
+        TestTables.init(new MybatisConfiguration());
+        QueryPlanCache.clear();
+    }
+
+    @Test
+    void sameShapeSharesPlan() {
+        QueryJoin<TbUser> first = query().eq(TbUser::getName, "user1");
+        QueryJoin<TbUser> second = query().eq(TbUser::getName, "user2");
+
+        assertSame(first.getSqlSelect(), second.getSqlSelect());
+        assertSame(first.getFrom(), second.getFrom());
+    }
+
+    @Test
+    void differentShapeMisses() {
+        QueryJoin<TbUser> selected = query().select(RelUserRole::getRoleId);
+        assertNotEquals(query().getSqlSelect(), selected.getSqlSelect());
+
+        QueryJoin<TbUser> otherOn = QueryJoin.create(TbUser.class, null)
+                .leftJoin(RelUserRole.class)
+                .on(TbUser::getId, RelUserRole::getId);
+        assertNotEquals(query().getFrom(), otherOn.getFrom());
+    }
+
+    @Test
+    void joinAddedAfterRenderingIsRendered() {
+        QueryJoin<TbUser> query = query();
+        String from = query.getFrom();
+
+        query.leftJoin(RelUserDept.class).on(TbUser::getId, RelUserDept::getUserId);
+        assertNotEquals(from, query.getFrom());
+        assertTrue(query.getFrom().contains("rel_user_dept"));
+    }
+
+    private static QueryJoin<TbUser> query() {
+        return QueryJoin.create(TbUser.class, null)
+                .leftJoin(RelUserRole.class)
+                .on(TbUser::getId, RelUserRole::getUserId);
+    }
+}
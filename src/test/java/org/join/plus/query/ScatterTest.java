@@ -0,0 +1,120 @@
+package org.join.plus.query;
+
+import org.apache.ibatis.session.SqlSession;
+import org.join.plus.entity.TbUser;
+import org.join.plus.support.H2Database;
+import org.join.plus.support.TestJoinConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在 H2 数据库中验证分散执行的联合查询 {@link QueryJoin#scatterListMap()} 的归并、去重、限制数量和失败
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+class ScatterTest {
+
+    private static SqlSession session;
+
+    @BeforeAll
+    static void setUp() {
+        session = H2Database.create("scatter", false).openSession(false);
+    }
+
+    @AfterEach
+    void rollback() {
+        session.rollback(true);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        session.close();
+    }
+
+    @Test
+    void branchesAreMergedInOrder() {
+        QueryJoin<TbUser> query = QueryJoin.create(TbUser.class, new TestJoinConfig(session))
+                .in(TbUser::getId, 1, 3, 5)
+                .orderByDesc(TbUser::getId)
+                .UNION_ALL(TbUser.class, branch -> branch
+                        .in(TbUser::getId, 2, 4, 6)
+                        .orderByDesc(TbUser::getId));
+
+        assertEquals(Arrays.asList(6, 5, 4, 3, 2, 1), ids(query.scatterListMap()));
+    }
+
+    @Test
+    void unionIsDistinctAndUnionAllIsNot() {
+        QueryJoin<TbUser> union = QueryJoin.create(TbUser.class, new TestJoinConfig(session))
+                .le(TbUser::getId, 4)
+                .orderByAsc(TbUser::getId)
+                .UNION(TbUser.class, branch -> branch
+                        .between(TbUser::getId, 3, 6)
+                        .orderByAsc(TbUser::getId));
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), ids(union.scatterListMap()));
+
+        QueryJoin<TbUser> unionAll = QueryJoin.create(TbUser.class, new TestJoinConfig(session))
+                .le(TbUser::getId, 4)
+                .orderByAsc(TbUser::getId)
+                .UNION_ALL(TbUser.class, branch -> branch
+                        .between(TbUser::getId, 3, 6)
+                        .orderByAsc(TbUser::getId));
+        assertEquals(Arrays.asList(1, 2, 3, 3, 4, 4, 5, 6), ids(unionAll.scatterListMap()));
+    }
+
+    @Test
+    void limitKeepsFirstRows() {
+        QueryJoin<TbUser> query = QueryJoin.create(TbUser.class, new TestJoinConfig(session))
+                .le(TbUser::getId, 5)
+                .orderByDesc(TbUser::getId)
+                .UNION_ALL(TbUser.class, branch -> branch
+                        .gt(TbUser::getId, 5)
+                        .orderByDesc(TbUser::getId));
+
+        assertEquals(Arrays.asList(10, 9, 8), ids(query.scatterListMap(3)));
+    }
+
+    @Test
+    void branchFailureIsRaisedAndQueryIsRestored() {
+        QueryJoin<TbUser> query = QueryJoin.create(TbUser.class, new TestJoinConfig(session).pageExecutor(Runnable::run))
+                .orderByAsc(TbUser::getId)
+                .UNION_ALL(TbUser.class, branch -> branch
+                        .apply("no_such_column = 1")
+                        .orderByAsc(TbUser::getId));
+
+        assertThrows(RuntimeException.class, query::scatterListMap);
+        assertTrue(query.getCustomSqlSegment().contains("UNION ALL"));
+    }
+
+    @Test
+    void branchesJoinCallerTransactionWithoutExecutor() throws SQLException {
+        try (Statement statement = session.getConnection().createStatement()) {
+            statement.execute("INSERT INTO tb_user VALUES (11, 'user11', '13800011', '1')");
+        }
+
+        QueryJoin<TbUser> query = QueryJoin.create(TbUser.class, new TestJoinConfig(session))
+                .eq(TbUser::getId, 1)
+                .orderByAsc(TbUser::getId)
+                .UNION_ALL(TbUser.class, branch -> branch
+                        .eq(TbUser::getId, 11)
+                        .orderByAsc(TbUser::getId));
+
+        assertEquals(Arrays.asList(1, 11), ids(query.scatterListMap()));
+    }
+
+    private static List<Object> ids(List<Map<String, Object>> rows) {
+        return rows.stream().map(row -> row.get("id")).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,131 @@
+package org.join.plus.query;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.SqlSession;
+import org.join.plus.entity.TbUser;
+import org.join.plus.interceptor.JoinInterceptor;
+import org.join.plus.support.H2Database;
+import org.join.plus.support.TestJoinConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在 H2 数据库中验证流式查询：流关闭时关闭游标和结果集，{@link QueryJoin#fetchSize(int)} 经过 {@link JoinInterceptor} 设置到语句上
+ * <p>
+ * 记录用的拦截器在 {@link JoinInterceptor} 之后注册，位于外层，读取到的是 {@link JoinInterceptor} 处理之后的语句和游标
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+class StreamTest {
+
+    private final static Recorder RECORDER = new Recorder();
+
+    private static SqlSession session;
+
+    @BeforeAll
+    static void setUp() {
+        session = H2Database.create("stream", true).openSession(true);
+        session.getConfiguration().addInterceptor(RECORDER);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        session.close();
+    }
+
+    @BeforeEach
+    void reset() {
+        RECORDER.fetchSize = null;
+        RECORDER.cursor = null;
+        RECORDER.resultSet = null;
+    }
+
+    @Test
+    void closingStreamClosesCursor() throws SQLException {
+        List<Object> ids;
+        try (Stream<Map<String, Object>> stream = query().streamMap()) {
+            // 只读取一部分，剩余的行由关闭流时释放
+            ids = stream.limit(3).map(row -> row.get("id")).collect(Collectors.toList());
+            assertTrue(RECORDER.cursor.isOpen());
+        }
+
+        assertEquals(3, ids.size());
+        assertFalse(RECORDER.cursor.isOpen());
+        assertTrue(RECORDER.resultSet.isClosed());
+    }
+
+    @Test
+    void closingEntityStreamClosesCursor() throws SQLException {
+        List<TbUser> users;
+        try (Stream<TbUser> stream = query().stream()) {
+            users = stream.limit(2).collect(Collectors.toList());
+        }
+
+        assertEquals(10, users.get(0).getId());
+        assertFalse(RECORDER.cursor.isOpen());
+        assertTrue(RECORDER.resultSet.isClosed());
+    }
+
+    @Test
+    void fetchSizeReachesStatement() {
+        try (Stream<Map<String, Object>> stream = query().fetchSize(7).streamMap()) {
+            assertEquals(10, stream.count());
+        }
+        assertEquals(7, RECORDER.fetchSize);
+
+        query().fetchSize(3).listMap();
+        assertEquals(3, RECORDER.fetchSize);
+    }
+
+    private static QueryJoin<TbUser> query() {
+        return QueryJoin.create(TbUser.class, new TestJoinConfig(session)).orderByDesc(TbUser::getId);
+    }
+
+    /**
+     * 记录语句的 fetchSize 和返回的游标
+     */
+    @Intercepts({
+            @Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}),
+            @Signature(type = ResultSetHandler.class, method = "handleCursorResultSets", args = {Statement.class})
+    })
+    public static class Recorder implements Interceptor {
+
+        private Integer fetchSize;
+
+        private Cursor<?> cursor;
+
+        private ResultSet resultSet;
+
+        @Override
+        public Object intercept(Invocation invocation) throws Throwable {
+            Object result = invocation.proceed();
+            if (result instanceof Statement) {
+                this.fetchSize = ((Statement) result).getFetchSize();
+            } else if (result instanceof Cursor) {
+                this.cursor = (Cursor<?>) result;
+                this.resultSet = ((Statement) invocation.getArgs()[0]).getResultSet();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.join.plus.query;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.extension.activerecord.Model;
+import org.join.plus.entity.RelUserRole;
+import org.join.plus.entity.TbUser;
+import org.join.plus.support.TestJoinConfig;
+import org.join.plus.support.TestTables;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 验证租户条件只追加一次，结构变化后只为新加入的表追加，通过 {@code apply} 加入的条件按完整的字段判断
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+class TenantInjectionTest {
+
+    @BeforeAll
+    static void setUp() {
+        TestTables.init(new MybatisConfiguration());
+    }
+
+    @Test
+    void injectionIsIdempotent() {
+        QueryJoin<TbUser> query = query().eq(TbUser::getName, "user1");
+
+        String first = query.getCustomSqlSegment();
+        int params = query.getParamNameValuePairs().size();
+        String second = query.getCustomSqlSegment();
+
+        assertEquals(first, second);
+        assertEquals(params, query.getParamNameValuePairs().size());
+        assertEquals(2, params);
+        assertEquals(1, count(first, "tbUser.tenant_id"));
+    }
+
+    @Test
+    void joinAddedAfterInjectionIsInjected() {
+        QueryJoin<TbUser> query = query();
+        query.getCustomSqlSegment();
+        assertEquals(1, query.getParamNameValuePairs().size());
+
+        query.leftJoin(RelUserRole.class).on(TbUser::getId, RelUserRole::getUserId);
+        String sql = query.getCustomSqlSegment();
+
+        assertEquals(1, count(sql, "tbUser.tenant_id"));
+        assertEquals(1, count(sql, "relUserRole.tenant_id"));
+        assertEquals(sql, query.getCustomSqlSegment());
+    }
+
+    @Test
+    void appliedColumnMatchesWholeIdentifier() {
+        QueryJoin<TbUser> similar = query().apply("tbUser.tenant_id2 = {0}", 1);
+        assertEquals(1, count(similar.getCustomSqlSegment(), "tbUser.tenant_id "));
+
+        QueryJoin<TbUser> quoted = query().apply("`tbUser`.`TENANT_ID` = {0}", 1);
+        assertEquals(0, count(quoted.getCustomSqlSegment(), "tbUser.tenant_id"));
+    }
+
+    private static QueryJoin<TbUser> query() {
+        return QueryJoin.create(TbUser.class, new TestJoinConfig(null).tenant(Model.class, "tenant_id", 7));
+    }
+
+    private static int count(String sql, String part) {
+        int count = 0;
+        for (int i = sql.indexOf(part); i >= 0; i = sql.indexOf(part, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
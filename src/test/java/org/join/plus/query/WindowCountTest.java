@@ -0,0 +1,65 @@
+package org.join.plus.query;
+
+import org.apache.ibatis.session.SqlSession;
+import org.join.plus.entity.TbUser;
+import org.join.plus.support.H2Database;
+import org.join.plus.support.TestJoinConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在 H2 数据库中验证窗口函数统计总数 {@link QueryJoin#windowCount()} 与先统计再查询的结果相同
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+class WindowCountTest {
+
+    private static SqlSession session;
+
+    @BeforeAll
+    static void setUp() {
+        session = H2Database.create("window", false).openSession(true);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        session.close();
+    }
+
+    @Test
+    void windowPageMatchesCountedPage() {
+        JoinPage<Map<String, Object>> window = page(query().windowCount(), 2, 3);
+        JoinPage<Map<String, Object>> counted = page(query(), 2, 3);
+
+        assertEquals(H2Database.USERS, window.getTotal());
+        assertEquals(counted.getRecords(), window.getRecords());
+        assertEquals(7, window.getRecords().get(0).get("id"));
+    }
+
+    @Test
+    void emptyPageSizeIsNotWindowCounted() {
+        JoinPage<Map<String, Object>> window = page(query().windowCount(), 1, 0);
+        JoinPage<Map<String, Object>> counted = page(query(), 1, 0);
+
+        assertEquals(H2Database.USERS, window.getTotal());
+        // 每页0行时不查询数据，不能使用窗口函数查询出整张表
+        assertEquals(counted.getRecords(), window.getRecords());
+        assertTrue(window.getRecords().isEmpty());
+    }
+
+    private static QueryJoin<TbUser> query() {
+        return QueryJoin.create(TbUser.class, new TestJoinConfig(session)).orderByDesc(TbUser::getId);
+    }
+
+    private static JoinPage<Map<String, Object>> page(QueryJoin<TbUser> query, long current, long size) {
+        JoinPage<Map<String, Object>> page = new JoinPage<>(current, size);
+        query.pagerMap(page);
+        return page;
+    }
+}
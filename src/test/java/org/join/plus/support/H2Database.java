@@ -0,0 +1,80 @@
+package org.join.plus.support;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.join.plus.interceptor.JoinInterceptor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 测试使用的 H2 内存数据库，每个名称对应一个独立的数据库；不把标识符转为大写，查询结果中的字段名与别名一致
+ * <p>
+ * 数据：
+ * <ul>
+ *     <li>tb_user：id 为 1-10 的用户，名称为 user + id，id 为奇数的用户性别为 1</li>
+ *     <li>tb_role：1 admin、2 dev、3 ops</li>
+ *     <li>rel_user_role：每个用户有角色 (id % 3) + 1，id 为偶数的用户还有角色 ((id + 1) % 3) + 1，是一对多的关联</li>
+ *     <li>rel_user_dept：每个用户一行，部门为 id % 4</li>
+ * </ul>
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+public final class H2Database {
+
+    public final static int USERS = 10;
+
+    private H2Database() {
+    }
+
+    /**
+     * 创建数据库和会话工厂
+     *
+     * @param name            数据库名称
+     * @param joinInterceptor 是否注册 {@link JoinInterceptor}
+     * @return 返回会话工厂
+     */
+    public static SqlSessionFactory create(String name, boolean joinInterceptor) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=FALSE");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("CREATE TABLE tb_user (id INT PRIMARY KEY, name VARCHAR(32), user_mobile VARCHAR(16), user_sex VARCHAR(1))");
+            statement.execute("CREATE TABLE tb_role (id INT PRIMARY KEY, role_name VARCHAR(32))");
+            statement.execute("CREATE TABLE rel_user_role (id INT PRIMARY KEY, user_id INT, role_id INT)");
+            statement.execute("CREATE TABLE rel_user_dept (id INT PRIMARY KEY, user_id INT, dept_id INT)");
+            statement.execute("INSERT INTO tb_role VALUES (1, 'admin'), (2, 'dev'), (3, 'ops')");
+            for (int i = 1; i <= USERS; i++) {
+                statement.execute("INSERT INTO tb_user VALUES (" + i + ", 'user" + i + "', '1380000" + i + "', '" + (i % 2) + "')");
+                statement.execute("INSERT INTO rel_user_role VALUES (" + i + ", " + i + ", " + (i % 3 + 1) + ")");
+                if (i % 2 == 0) {
+                    statement.execute("INSERT INTO rel_user_role VALUES (" + (100 + i) + ", " + i + ", " + ((i + 1) % 3 + 1) + ")");
+                }
+                statement.execute("INSERT INTO rel_user_dept VALUES (" + i + ", " + i + ", " + (i % 4) + ")");
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+
+        MybatisConfiguration configuration = new MybatisConfiguration();
+        configuration.setEnvironment(new Environment(name, new JdbcTransactionFactory(), dataSource));
+        MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
+        interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.H2));
+        configuration.addInterceptor(interceptor);
+        if (joinInterceptor) {
+            configuration.addInterceptor(new JoinInterceptor());
+        }
+        configuration.addMapper(TbUserMapper.class);
+        TestTables.init(configuration);
+        return new MybatisSqlSessionFactoryBuilder().build(configuration);
+    }
+}
@@ -0,0 +1,13 @@
+package org.join.plus.support;
+
+import org.join.plus.entity.TbUser;
+import org.join.plus.mapper.JoinMapper;
+
+/**
+ * 测试使用的mapper
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+public interface TbUserMapper extends JoinMapper<TbUser> {
+}
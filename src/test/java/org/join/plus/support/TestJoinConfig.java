@@ -0,0 +1,106 @@
+package org.join.plus.support;
+
+import org.apache.ibatis.session.SqlSession;
+import org.join.plus.config.JoinConfig;
+import org.join.plus.dialect.Dialect;
+import org.join.plus.dialect.H2Dialect;
+import org.join.plus.mapper.JoinMapper;
+import org.join.plus.optimize.JoinOptimizer;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * 测试使用的配置，默认使用 H2 方言，可以按需修改线程池、优化器和租户
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+public class TestJoinConfig implements JoinConfig {
+
+    private final SqlSession session;
+
+    private Dialect dialect = H2Dialect.INSTANCE;
+
+    private Executor pageExecutor;
+
+    private List<JoinOptimizer> joinOptimizers;
+
+    private Class<?> tenantClass;
+
+    private String tenantColumn;
+
+    private Collection<Serializable> tenants;
+
+    public TestJoinConfig(SqlSession session) {
+        this.session = session;
+    }
+
+    public TestJoinConfig dialect(Dialect dialect) {
+        this.dialect = dialect;
+        return this;
+    }
+
+    public TestJoinConfig pageExecutor(Executor pageExecutor) {
+        this.pageExecutor = pageExecutor;
+        return this;
+    }
+
+    public TestJoinConfig joinOptimizers(List<JoinOptimizer> joinOptimizers) {
+        this.joinOptimizers = joinOptimizers;
+        return this;
+    }
+
+    /**
+     * 设置租户，继承自租户类型的实体都会追加租户条件；可以再次调用修改当前的租户值
+     *
+     * @param tenantClass  租户实体的父类
+     * @param tenantColumn 租户字段
+     * @param tenants      当前的租户值
+     * @return 返回本实例
+     */
+    public TestJoinConfig tenant(Class<?> tenantClass, String tenantColumn, Serializable... tenants) {
+        this.tenantClass = tenantClass;
+        this.tenantColumn = tenantColumn;
+        this.tenants = Arrays.asList(tenants);
+        return this;
+    }
+
+    @Override
+    public JoinMapper<?> mapper() {
+        return this.session == null ? null : this.session.getMapper(TbUserMapper.class);
+    }
+
+    @Override
+    public String tenantColumn() {
+        return this.tenantColumn;
+    }
+
+    @Override
+    public Collection<Serializable> tenants() {
+        return this.tenants;
+    }
+
+    @Override
+    public Class<?> tenantClass() {
+        return this.tenantClass;
+    }
+
+    @Override
+    public Dialect dialect() {
+        return this.dialect;
+    }
+
+    @Override
+    public Executor pageExecutor() {
+        return this.pageExecutor;
+    }
+
+    @Override
+    public List<JoinOptimizer> joinOptimizers() {
+        return this.joinOptimizers == null ? JoinConfig.super.joinOptimizers() : this.joinOptimizers;
+    }
+}
@@ -0,0 +1,35 @@
+package org.join.plus.support;
+
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.session.Configuration;
+import org.join.plus.entity.RelUserDept;
+import org.join.plus.entity.RelUserRole;
+import org.join.plus.entity.TbRole;
+import org.join.plus.entity.TbUser;
+
+/**
+ * 测试使用的表，关联查询需要先初始化表信息
+ *
+ * @author suyun
+ * @date 2026-10-17 23:50
+ */
+public final class TestTables {
+
+    private final static Class<?>[] ENTITIES = {TbUser.class, TbRole.class, RelUserRole.class, RelUserDept.class};
+
+    private TestTables() {
+    }
+
+    /**
+     * 在指定的配置中初始化全部测试实体的表信息
+     *
+     * @param configuration MyBatis的配置
+     */
+    public static void init(Configuration configuration) {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(configuration, "");
+        for (Class<?> entity : ENTITIES) {
+            TableInfoHelper.initTableInfo(assistant, entity);
+        }
+    }
+}